@@ -0,0 +1,34 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
+import com.mycompany.parfeu.Model.Rawen.analyzer.PacketAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * {@link PacketAnalyzer#analyze} : taille + mots suspects + heuristique.
+ */
+@State(Scope.Thread)
+public class AnalyzerBenchmark {
+
+    private PacketAnalyzer analyzer;
+
+    @Setup(Level.Trial)
+    public void setUp(PacketWorkload workload) {
+        analyzer = new PacketAnalyzer(
+            workload.config.getMinPacketSize(),
+            workload.config.getMaxPacketSize(),
+            workload.config.getSuspiciousWords()
+        );
+    }
+
+    @Benchmark
+    public List<DetectionSignal> analyze(PacketWorkload workload) {
+        return analyzer.analyze(workload.next());
+    }
+}
@@ -0,0 +1,45 @@
+package com.mycompany.parfeu.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point d'entrée de benchmarks.jar.
+ *
+ * Accepte les options habituelles de JMH (filtre de benchmarks, -p, -f, -wi, -i...)
+ * et ajoute toujours le profileur GC pour suivre le taux d'allocation
+ * (gc.alloc.rate.norm = octets alloués par opération).
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .timeUnit(commandLine.getTimeUnit().orElse(TimeUnit.MICROSECONDS))
+            .forks(commandLine.getForkCount().orElse(1))
+            .warmupIterations(commandLine.getWarmupIterations().orElse(3))
+            .warmupTime(commandLine.getWarmupTime().orElse(TimeValue.seconds(2)))
+            .measurementIterations(commandLine.getMeasurementIterations().orElse(5))
+            .measurementTime(commandLine.getMeasurementTime().orElse(TimeValue.seconds(2)));
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
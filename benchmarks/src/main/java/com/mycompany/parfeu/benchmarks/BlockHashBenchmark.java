@@ -0,0 +1,41 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.blockchain.BlockHash;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Création d'un bloc (calcul du hash SHA-256 compris).
+ */
+@State(Scope.Thread)
+public class BlockHashBenchmark {
+
+    private List<DecisionResult> decisions;
+    private BlockHash previousHash;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp(PacketWorkload workload) {
+        FirewallEngine engine = new FirewallEngine(workload.config);
+        engine.start();
+        decisions = new ArrayList<>(workload.packets.size());
+        workload.packets.forEach(packet -> decisions.add(engine.processPacket(packet)));
+        previousHash = Block.createGenesisBlock().hash();
+    }
+
+    @Benchmark
+    public Block createBlock(PacketWorkload workload) {
+        Block block = new Block(++index, List.of(decisions.get(workload.nextIndex())), previousHash);
+        previousHash = block.hash();
+        return block;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
+import com.mycompany.parfeu.Model.Rawen.analyzer.PacketAnalyzer;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionEngine;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DecisionEngine#decide} sur des signaux précalculés,
+ * et vérification de la blacklist seule.
+ */
+@State(Scope.Thread)
+public class DecisionEngineBenchmark {
+
+    private DecisionEngine engine;
+    private List<List<DetectionSignal>> signals;
+
+    @Setup(Level.Trial)
+    public void setUp(PacketWorkload workload) {
+        engine = new DecisionEngine(workload.config);
+        PacketAnalyzer analyzer = new PacketAnalyzer(
+            workload.config.getMinPacketSize(),
+            workload.config.getMaxPacketSize(),
+            workload.config.getSuspiciousWords()
+        );
+        signals = new ArrayList<>(workload.packets.size());
+        workload.packets.forEach(packet -> signals.add(analyzer.analyze(packet)));
+    }
+
+    @Benchmark
+    public DecisionResult decide(PacketWorkload workload) {
+        int i = workload.nextIndex();
+        return engine.decide(workload.packets.get(i), signals.get(i));
+    }
+
+    @Benchmark
+    public boolean shouldBlockImmediately(PacketWorkload workload) {
+        return engine.shouldBlockImmediately(workload.next());
+    }
+}
@@ -0,0 +1,61 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.AbstractFilter;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.FilterChain;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.IPFilter;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.PortFilter;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.ProtocolFilter;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * {@link AbstractFilter#accept} pour chaque filtre initial, puis les trois
+ * filtres ensemble : parcours de la liste (ordre d'insertion) contre la
+ * {@link FilterChain} compilée (filtre le plus sélectif en premier).
+ */
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+    private final AbstractFilter ipFilter = new IPFilter(null, "10.0.0.1");
+    private final AbstractFilter portFilter = new PortFilter(null, 443);
+    private final AbstractFilter protocolFilter = new ProtocolFilter("HTTPS");
+
+    // Ordre d'insertion défavorable : le filtre le moins sélectif d'abord
+    private final List<AbstractFilter> filters = List.of(protocolFilter, portFilter, ipFilter);
+    private final FilterChain chain = FilterChain.compile(filters);
+
+    @Benchmark
+    public boolean ipFilter(PacketWorkload workload) {
+        return ipFilter.accept(workload.next());
+    }
+
+    @Benchmark
+    public boolean portFilter(PacketWorkload workload) {
+        return portFilter.accept(workload.next());
+    }
+
+    @Benchmark
+    public boolean protocolFilter(PacketWorkload workload) {
+        return protocolFilter.accept(workload.next());
+    }
+
+    @Benchmark
+    public String filterList(PacketWorkload workload) {
+        Packet packet = workload.next();
+        for (AbstractFilter filter : filters) {
+            if (!filter.accept(packet)) {
+                return filter.getClass().getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String compiledChain(PacketWorkload workload) {
+        return chain.reject(workload.next());
+    }
+}
@@ -0,0 +1,30 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Chemin complet {@link FirewallEngine#processPacket} :
+ * filtres, blacklist, analyse, décision et statistiques.
+ */
+@State(Scope.Thread)
+public class FirewallEngineBenchmark {
+
+    private FirewallEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp(PacketWorkload workload) {
+        engine = new FirewallEngine(workload.config);
+        engine.start();
+    }
+
+    @Benchmark
+    public DecisionResult processPacket(PacketWorkload workload) {
+        return engine.processPacket(workload.next());
+    }
+}
@@ -0,0 +1,143 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetSimple;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Charge de travail commune à tous les benchmarks.
+ *
+ * Paramètres :
+ * - payloadSize   : taille du payload en caractères
+ * - wordCount     : nombre de mots suspects dans la configuration
+ * - blacklistSize : nombre d'entrées de la blacklist (IP exactes et préfixes /24)
+ *
+ * Les paquets sont pré-générés (graine fixe) : ~10 % contiennent un mot suspect,
+ * ~1 % ont une source blacklistée (si la blacklist n'est pas vide).
+ */
+@State(Scope.Benchmark)
+public class PacketWorkload {
+
+    private static final int PACKET_COUNT = 1024;  // puissance de 2 (masque)
+    private static final String[] PROTOCOLS = { "HTTP", "HTTPS", "TCP", "UDP", "DNS", "SSH" };
+    private static final int[] PORTS = { 22, 53, 80, 443, 8080, 3306, 51000 };
+
+    @Param({ "64", "1024", "16384" })
+    public int payloadSize;
+
+    @Param({ "16", "256" })
+    public int wordCount;
+
+    @Param({ "0", "100000" })
+    public int blacklistSize;
+
+    public FirewallConfig config;
+    public List<Packet> packets;
+
+    private int cursor;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Les classes du modèle écrivent sur la console : silence pendant la mesure
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        SplittableRandom random = new SplittableRandom(42);
+        config = new FirewallConfig();
+        List<String> words = buildWords(config.getSuspiciousWords(), wordCount);
+        for (String word : List.copyOf(config.getSuspiciousWords())) {
+            config.removeSuspiciousWord(word);
+        }
+        words.forEach(config::addSuspiciousWord);
+
+        List<Integer> blacklisted = new ArrayList<>();
+        for (int i = 0; i < blacklistSize; i++) {
+            int address = 0xC6000000 | random.nextInt(1 << 24);   // 198.0.0.0/8
+            if (i % 10 == 0) {
+                config.addBlacklistedIP(IPv4Address.format(address & 0xFFFFFF00) + "/24");
+            } else {
+                config.addBlacklistedIP(IPv4Address.format(address));
+            }
+            blacklisted.add(address);
+        }
+
+        packets = new ArrayList<>(PACKET_COUNT);
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            String srcIP;
+            if (!blacklisted.isEmpty() && random.nextInt(100) == 0) {
+                srcIP = IPv4Address.format(blacklisted.get(random.nextInt(blacklisted.size())));
+            } else {
+                srcIP = "192.168." + random.nextInt(256) + "." + (1 + random.nextInt(254));
+            }
+            String destIP = "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + (1 + random.nextInt(254));
+            String payload = buildPayload(random, words, random.nextInt(10) == 0);
+            packets.add(new PaquetSimple(
+                srcIP,
+                destIP,
+                1024 + random.nextInt(60000),
+                PORTS[random.nextInt(PORTS.length)],
+                PROTOCOLS[random.nextInt(PROTOCOLS.length)],
+                payload
+            ));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Paquet suivant (parcours circulaire).
+     */
+    public Packet next() {
+        return packets.get(cursor++ & (PACKET_COUNT - 1));
+    }
+
+    /**
+     * Indice du prochain paquet, pour les benchmarks qui précalculent des données par paquet.
+     */
+    public int nextIndex() {
+        return cursor++ & (PACKET_COUNT - 1);
+    }
+
+    private static List<String> buildWords(List<String> defaults, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(i < defaults.size() ? defaults.get(i) : "kw" + Integer.toString(i * 7919, 36));
+        }
+        return words;
+    }
+
+    private String buildPayload(SplittableRandom random, List<String> words, boolean suspicious) {
+        StringBuilder payload = new StringBuilder(payloadSize);
+        while (payload.length() < payloadSize) {
+            int wordLength = 2 + random.nextInt(8);
+            for (int i = 0; i < wordLength; i++) {
+                payload.append((char) ('a' + random.nextInt(26)));
+            }
+            payload.append(' ');
+        }
+        payload.setLength(payloadSize);
+        if (suspicious && !words.isEmpty()) {
+            String word = words.get(random.nextInt(words.size()));
+            int position = random.nextInt(Math.max(1, payloadSize - word.length()));
+            payload.replace(position, Math.min(payloadSize, position + word.length()), word);
+        }
+        return payload.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.Rule;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.TupleSpaceClassifier;
+import com.mycompany.parfeu.Model.Rawen.decision.Action;
+import com.mycompany.parfeu.Model.Rawen.decision.Actions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Classification 5-uplet : {@link TupleSpaceClassifier} contre le parcours
+ * linéaire des règles par priorité (adresses du paquet analysées une seule fois).
+ *
+ * Règles aléatoires dans les plages d'adresses de la charge de travail
+ * (sources /16 à /32 dans 192.168.0.0/16, destinations /16 à /32 dans 10.0.0.0/8,
+ * port destination unique, plage ou tous, protocole ou tous), plus une règle
+ * par défaut en dernier : la plupart des paquets ne correspondent qu'à elle,
+ * le parcours linéaire voit donc toutes les règles.
+ */
+@State(Scope.Thread)
+public class RuleClassifierBenchmark {
+
+    private static final int[] SRC_PREFIXES = { 16, 24, 32 };
+    private static final int[] DEST_PREFIXES = { 16, 24, 32 };
+    private static final int[] PORTS = { 22, 53, 80, 443, 8080, 3306 };
+    private static final String[] PROTOCOLS = { "TCP", "UDP", "HTTP", "HTTPS", "DNS", "SSH" };
+
+    @Param({ "100", "5000", "50000" })
+    public int ruleCount;
+
+    private TupleSpaceClassifier<Action> classifier;
+    private List<Rule<Action>> ordered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Rule<Action>> rules = new ArrayList<>(ruleCount + 1);
+        for (int i = 0; i < ruleCount; i++) {
+            Rule<Action> rule = Rule.<Action>of("r" + i, i, random.nextBoolean() ? Actions.DROP : Actions.ALERT)
+                .fromSource("192.168." + random.nextInt(256) + "." + random.nextInt(256)
+                            + "/" + SRC_PREFIXES[random.nextInt(SRC_PREFIXES.length)])
+                .toDestination("10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256)
+                               + "/" + DEST_PREFIXES[random.nextInt(DEST_PREFIXES.length)]);
+            switch (random.nextInt(3)) {
+                case 0 -> rule = rule.destPort(PORTS[random.nextInt(PORTS.length)]);
+                case 1 -> rule = rule.destPorts(1024, 65535);
+                default -> { }
+            }
+            if (random.nextBoolean()) {
+                rule = rule.protocol(PROTOCOLS[random.nextInt(PROTOCOLS.length)]);
+            }
+            rules.add(rule);
+        }
+        rules.add(Rule.of("default", Integer.MAX_VALUE, Actions.ACCEPT));
+
+        classifier = TupleSpaceClassifier.build(rules);
+        ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt(Rule::priority));
+    }
+
+    @Benchmark
+    public Rule<Action> tupleSpace(PacketWorkload workload) {
+        return classifier.classify(workload.next());
+    }
+
+    @Benchmark
+    public Rule<Action> linear(PacketWorkload workload) {
+        Packet packet = workload.next();
+        long src = IPv4Address.tryParse(packet.getSrcIP());
+        long dest = IPv4Address.tryParse(packet.getDestIP());
+        for (Rule<Action> rule : ordered) {
+            if (rule.matches(src, dest, packet.getSrcPort(), packet.getDestPort(), packet.getProtocol())) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.Rule;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.TupleSpaceClassifier;
+import com.mycompany.parfeu.Model.Rawen.decision.Action;
+import com.mycompany.parfeu.Model.Rawen.decision.Actions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Vérifie que {@link TupleSpaceClassifier} rend la même règle que le parcours
+ * linéaire par priorité (règles et paquets aléatoires, graine fixe).
+ * <pre>
+ *   java -cp target/benchmarks.jar com.mycompany.parfeu.benchmarks.RuleClassifierCheck [paquets]
+ * </pre>
+ * Espaces d'adresses et de ports réduits (192.168.0.0/22 vers 10.0.0.0/22,
+ * ports 0-2047) pour que les règles se chevauchent et correspondent souvent ;
+ * code de sortie 1 au premier écart.
+ */
+public final class RuleClassifierCheck {
+
+    private static final int[] RULE_COUNTS = { 100, 5000, 50000 };
+    private static final String[] PROTOCOLS = { "TCP", "UDP", "HTTP", "DNS" };
+    private static final int SRC_BASE = 0xC0A80000;   // 192.168.0.0
+    private static final int DEST_BASE = 0x0A000000;  // 10.0.0.0
+    private static final int ADDRESS_BITS = 10;
+    private static final int PORT_SPACE = 2048;
+
+    private RuleClassifierCheck() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    public static void main(String[] args) {
+        int packetCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        boolean ok = true;
+        for (int ruleCount : RULE_COUNTS) {
+            ok &= check(ruleCount, packetCount, new SplittableRandom(ruleCount));
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean check(int ruleCount, int packetCount, SplittableRandom random) {
+        List<Rule<Action>> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(randomRule(random, i));
+        }
+        TupleSpaceClassifier<Action> classifier = TupleSpaceClassifier.build(rules);
+        List<Rule<Action>> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt(Rule::priority));
+
+        long matched = 0;
+        Set<Rule<Action>> distinct = new HashSet<>();
+        for (int i = 0; i < packetCount; i++) {
+            long src = Integer.toUnsignedLong(SRC_BASE | random.nextInt(1 << ADDRESS_BITS));
+            long dest = Integer.toUnsignedLong(DEST_BASE | random.nextInt(1 << ADDRESS_BITS));
+            int srcPort = random.nextInt(PORT_SPACE);
+            int destPort = random.nextInt(PORT_SPACE);
+            String protocol = PROTOCOLS[random.nextInt(PROTOCOLS.length)];
+
+            Rule<Action> expected = null;
+            for (Rule<Action> rule : ordered) {
+                if (rule.matches(src, dest, srcPort, destPort, protocol)) {
+                    expected = rule;
+                    break;
+                }
+            }
+            Rule<Action> actual = classifier.classify(src, dest, srcPort, destPort, protocol);
+            if (expected != actual) {
+                System.out.printf("✗ %d règles : écart au paquet %d (%d:%d -> %d:%d %s) : attendu %s, obtenu %s%n",
+                    ruleCount, i, src, srcPort, dest, destPort, protocol,
+                    expected != null ? expected.name() : "aucune", actual != null ? actual.name() : "aucune");
+                return false;
+            }
+            if (expected != null) {
+                matched++;
+                distinct.add(expected);
+            }
+        }
+        System.out.printf("✓ %d règles (%d tuples) : %d paquets identiques, %d avec une règle (%d règles distinctes)%n",
+            ruleCount, classifier.tupleCount(), packetCount, matched, distinct.size());
+        return true;
+    }
+
+    /**
+     * Règle aléatoire ; priorité distincte (pas d'égalité à départager).
+     */
+    private static Rule<Action> randomRule(SplittableRandom random, int priority) {
+        Action action = switch (random.nextInt(3)) {
+            case 0 -> Actions.DROP;
+            case 1 -> Actions.ALERT;
+            default -> Actions.ACCEPT;
+        };
+        Rule<Action> rule = Rule.of("r" + priority, priority, action);
+        // Adresses presque toujours fixées : une règle joker masquerait toutes les suivantes
+        if (random.nextInt(16) != 0) {
+            rule = rule.fromSource(prefix(SRC_BASE, random));
+        }
+        if (random.nextInt(16) != 0) {
+            rule = rule.toDestination(prefix(DEST_BASE, random));
+        }
+        switch (random.nextInt(4)) {
+            case 0 -> rule = rule.destPort(random.nextInt(PORT_SPACE));
+            case 1 -> {
+                int from = random.nextInt(PORT_SPACE);
+                rule = rule.destPorts(from, from + random.nextInt(PORT_SPACE - from));
+            }
+            default -> { }
+        }
+        if (random.nextInt(4) == 0) {
+            int from = random.nextInt(PORT_SPACE);
+            rule = rule.srcPorts(from, from + random.nextInt(PORT_SPACE - from));
+        }
+        if (random.nextBoolean()) {
+            rule = rule.protocol(PROTOCOLS[random.nextInt(PROTOCOLS.length)]);
+        }
+        return rule;
+    }
+
+    private static String prefix(int base, SplittableRandom random) {
+        // /26 à /32 : au plus 1/16 de l'espace par règle
+        int length = 26 + random.nextInt(7);
+        // Bits hors préfixe remis à zéro par Rule
+        return IPv4Address.format(base | random.nextInt(1 << ADDRESS_BITS)) + "/" + length;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mycompany.parfeu.benchmarks;
+
+import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.blockchain.BlockHash;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.persistence.BlockQuery;
+import com.mycompany.parfeu.Model.Rawen.persistence.StorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * {@link StorageManager#saveBlockToHistory}, {@link StorageManager#loadBlockHistory}
+ * l'accès direct {@link StorageManager#readBlock} et la recherche indexée
+ * {@link StorageManager#queryBlocks}, dans un répertoire temporaire.
+ */
+public class StorageBenchmark {
+
+    /**
+     * Blocs prêts à être écrits (un par paquet de la charge de travail).
+     */
+    @State(Scope.Benchmark)
+    public static class Blocks {
+
+        List<Block> blocks;
+
+        @Setup(Level.Trial)
+        public void setUp(PacketWorkload workload) {
+            FirewallEngine engine = new FirewallEngine(workload.config);
+            engine.start();
+            blocks = new ArrayList<>(workload.packets.size());
+            BlockHash previousHash = Block.createGenesisBlock().hash();
+            int index = 1;
+            for (var packet : workload.packets) {
+                DecisionResult decision = engine.processPacket(packet);
+                Block block = new Block(index++, List.of(decision), previousHash);
+                blocks.add(block);
+                previousHash = block.hash();
+            }
+        }
+    }
+
+    /**
+     * Stockage vide : mesure des ajouts.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        Path directory;
+        StorageManager storage;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, DatabaseException {
+            directory = Files.createTempDirectory("parfeu-bench-write");
+            storage = new StorageManager(directory);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, DatabaseException {
+            storage.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Historique pré-rempli de {@code historySize} blocs : mesure du chargement et des lectures directes.
+     */
+    @State(Scope.Thread)
+    public static class Reader {
+
+        @Param({ "1000", "10000" })
+        public int historySize;
+
+        Path directory;
+        StorageManager storage;
+
+        @Setup(Level.Trial)
+        public void setUp(Blocks blocks) throws IOException, DatabaseException {
+            directory = Files.createTempDirectory("parfeu-bench-read");
+            storage = new StorageManager(directory);
+            List<Block> history = new ArrayList<>(historySize);
+            for (int i = 0; i < historySize; i++) {
+                history.add(blocks.blocks.get(i % blocks.blocks.size()));
+            }
+            storage.rewriteHistory(history);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, DatabaseException {
+            storage.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public void saveBlockToHistory(PacketWorkload workload, Blocks blocks, Writer writer) throws DatabaseException {
+        writer.storage.saveBlockToHistory(blocks.blocks.get(workload.nextIndex()));
+    }
+
+    @Benchmark
+    public List<Block> loadBlockHistory(Reader reader) throws DatabaseException {
+        return reader.storage.loadBlockHistory();
+    }
+
+    @Benchmark
+    public Block readBlock(PacketWorkload workload, Reader reader) {
+        return reader.storage.readBlock(workload.nextIndex() % reader.historySize);
+    }
+
+    @Benchmark
+    public List<Block> queryBySource(PacketWorkload workload, Blocks blocks, Reader reader) throws DatabaseException {
+        String srcIP = blocks.blocks.get(workload.nextIndex()).srcIP();
+        return reader.storage.queryBlocks(BlockQuery.all().fromSource(srcIP).limit(100));
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.mycompany.parfeu;
 import  com.mycompany.parfeu.Model.Rawen.persistence.SharedDataManager ;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -25,6 +26,13 @@ public void start(Stage stage) throws IOException {
     stage.show();
 }
 
+    @Override
+    public void stop() {
+        // Vide le writer asynchrone de l'historique avant de quitter
+        SharedDataManager.getInstance().shutdown();
+        Logging.shutdown();
+    }
+
     static void setRoot(String fxmlPath) throws IOException {
         scene.setRoot(loadFXML(fxmlPath));
     }
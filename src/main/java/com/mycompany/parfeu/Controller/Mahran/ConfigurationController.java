@@ -1,6 +1,7 @@
 package com.mycompany.parfeu.Controller.Mahran;
 
 import com.mycompany.parfeu.App;
+import com.mycompany.parfeu.Model.Mahran.config.BlacklistIndex;
 import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
 import com.mycompany.parfeu.Model.Rawen.persistence.SharedDataManager;
 import javafx.fxml.FXML;
@@ -106,7 +107,7 @@ public class ConfigurationController implements Initializable {
                 System.out.println("    - Min size: " + config.getMinPacketSize());
                 System.out.println("    - Max size: " + config.getMaxPacketSize());
                 System.out.println("    - Mots suspects: " + config.getSuspiciousWords().size());
-                System.out.println("    - IPs blacklistées: " + config.getBlacklistedIPs().size());
+                System.out.println("    - IPs blacklistées: " + config.blacklistSize());
                 System.out.println("    - Ports surveillés: " + config.getMonitoredPorts().size());
             }
         } catch (Exception e) {
@@ -149,7 +150,7 @@ public class ConfigurationController implements Initializable {
         if (blacklistedIPsList != null) {
             blacklistedIPsList.getItems().clear();
             blacklistedIPsList.getItems().addAll(config.getBlacklistedIPs());
-            System.out.println("  ✓ " + config.getBlacklistedIPs().size() + " IPs blacklistées chargées");
+            System.out.println("  ✓ " + config.blacklistSize() + " IPs blacklistées chargées");
         }
         
         if (monitoredPortsList != null) {
@@ -234,7 +235,7 @@ public class ConfigurationController implements Initializable {
                     newIPField.clear();
                     showInfo("IP Ajoutée", "L'IP " + ip + " a été blacklistée");
                 } else if (!isValidIP(ip)) {
-                    showError("IP invalide", "Format invalide (ex: 192.168.1.1)");
+                    showError("IP invalide", "Format invalide (ex: 192.168.1.1 ou 10.0.0.0/8)");
                 }
             });
         }
@@ -327,7 +328,7 @@ public class ConfigurationController implements Initializable {
                 "Seuil blocage: " + config.getBlockThreshold() + "\n" +
                 "Seuil alerte: " + config.getAlertThreshold() + "\n" +
                 "Mots suspects: " + config.getSuspiciousWords().size() + "\n" +
-                "IPs blacklistées: " + config.getBlacklistedIPs().size());
+                "IPs blacklistées: " + config.blacklistSize());
             
             System.out.println("✓ Configuration sauvegardée");
         } catch (Exception e) {
@@ -379,7 +380,7 @@ public class ConfigurationController implements Initializable {
                 }
                 writer.write("\n");
                 
-                writer.write("🚫 IPs BLACKLISTÉES (" + config.getBlacklistedIPs().size() + ")\n");
+                writer.write("🚫 IPs BLACKLISTÉES (" + config.blacklistSize() + ")\n");
                 writer.write("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
                 for (String ip : config.getBlacklistedIPs()) {
                     writer.write("  • " + ip + "\n");
@@ -417,18 +418,8 @@ public class ConfigurationController implements Initializable {
     }
 
     private boolean isValidIP(String ip) {
-        if (ip == null || ip.isEmpty()) return false;
-        String[] parts = ip.split("\\.");
-        if (parts.length != 4) return false;
-        try {
-            for (String part : parts) {
-                int num = Integer.parseInt(part);
-                if (num < 0 || num > 255) return false;
-            }
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        // IP exacte ou prefixe CIDR (ex: 10.0.0.0/8)
+        return BlacklistIndex.isValidEntry(ip);
     }
 
     private void showError(String title, String content) {
@@ -52,7 +52,7 @@ public class InitialFilteringController implements Initializable {
         
         System.out.println("✓ InitialFilteringController initialized");
         System.out.println("   Configuration chargée:");
-        System.out.println("   - IPs blacklistées: " + config.getBlacklistedIPs().size());
+        System.out.println("   - IPs blacklistées: " + config.blacklistSize());
         System.out.println("   - Ports surveillés: " + config.getMonitoredPorts().size());
         System.out.println("   - Mots suspects: " + config.getSuspiciousWords().size());
         System.out.println("================================================\n");
@@ -105,8 +105,8 @@ public class InitialFilteringController implements Initializable {
         details.append("1️⃣ IP BLACKLIST VERIFICATION\n");
         details.append("   ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
         
-        boolean srcBlacklisted = config.getBlacklistedIPs().contains(currentPacket.getSrcIP());
-        boolean destBlacklisted = config.getBlacklistedIPs().contains(currentPacket.getDestIP());
+        boolean srcBlacklisted = config.isBlacklisted(currentPacket.getSrcIP());
+        boolean destBlacklisted = config.isBlacklisted(currentPacket.getDestIP());
         
         if (srcBlacklisted || destBlacklisted) {
             ipValidationLabel.setText("❌ BLACKLISTED");
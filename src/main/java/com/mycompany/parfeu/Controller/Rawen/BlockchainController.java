@@ -4,6 +4,7 @@ import com.mycompany.parfeu.App;
 import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
 import com.mycompany.parfeu.Model.Rawen.blockchain.BlockChain;
 import com.mycompany.parfeu.Model.Rawen.blockchain.BlockchainTableData;
+import com.mycompany.parfeu.Model.Rawen.blockchain.ChainValidator;
 import com.mycompany.parfeu.Model.Rawen.persistence.SharedDataManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -218,8 +219,9 @@ public class BlockchainController implements Initializable {
         });
 
         verifyBtn.setOnAction(event -> {
-            boolean valid = blockchain.isChainValid();
-            if (valid) {
+            // Audit complet : tous les hash sont recalculés
+            ChainValidator.Result result = sharedData.auditChain(null);
+            if (result.valid()) {
                 showInfo("✓ Blockchain Valide", 
                     "✅ Tous les blocs sont valides.\n\n" +
                     "Total blocs: " + blockchain.getSize() + "\n" +
@@ -227,7 +229,8 @@ public class BlockchainController implements Initializable {
             } else {
                 showError("✗ Blockchain Invalide", 
                     "❌ La blockchain a été compromise!\n\n" +
-                    "Des modifications non autorisées ont été détectées.");
+                    "Des modifications non autorisées ont été détectées.\n" +
+                    "Premier bloc invalide: #" + result.firstInvalidIndex() + " (" + result.failure() + ")");
             }
             updateInfoPanel();
         });
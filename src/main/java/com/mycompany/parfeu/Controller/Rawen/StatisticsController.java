@@ -113,9 +113,9 @@ public class StatisticsController implements Initializable {
     private void updatePieChart() {
         pieChart.getData().clear();
         
-        int accepted = statistics.getAcceptedPackets();
-        int blocked = statistics.getDroppedPackets();
-        int alerted = statistics.getAlertedPackets();
+        long accepted = statistics.getAcceptedPackets();
+        long blocked = statistics.getDroppedPackets();
+        long alerted = statistics.getAlertedPackets();
         
         // Ne créer le graphique que s'il y a des données
         if (accepted > 0 || blocked > 0 || alerted > 0) {
@@ -173,7 +173,7 @@ public class StatisticsController implements Initializable {
         sb.append("           Généré le: ").append(LocalDateTime.now().format(formatter)).append("\n");
         sb.append("═══════════════════════════════════════════════════════\n\n");
         
-        int total = statistics.getTotalPackets();
+        long total = statistics.getTotalPackets();
         
         if (total == 0) {
             sb.append("❌ Aucune statistique disponible.\n\n");
@@ -213,7 +213,7 @@ public class StatisticsController implements Initializable {
                 sb.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
                 
                 ipStats.values().stream()
-                    .sorted((a, b) -> Integer.compare(b.totalPackets, a.totalPackets))
+                    .sorted((a, b) -> Long.compare(b.totalPackets, a.totalPackets))
                     .limit(5)
                     .forEach(stat -> {
                         double ipBlockRate = stat.totalPackets > 0 
@@ -306,15 +306,15 @@ public class StatisticsController implements Initializable {
      */
     public static class ProtocolStat {
         private final String protocol;
-        private final int packets;
+        private final long packets;
 
-        public ProtocolStat(String protocol, int packets) {
+        public ProtocolStat(String protocol, long packets) {
             this.protocol = protocol;
             this.packets = packets;
         }
 
         public String getProtocol() { return protocol; }
-        public int getPackets() { return packets; }
+        public long getPackets() { return packets; }
     }
 
     public StatisticsManager getStatistics() {
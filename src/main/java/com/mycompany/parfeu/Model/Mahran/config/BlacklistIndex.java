@@ -0,0 +1,324 @@
+package com.mycompany.parfeu.Model.Mahran.config;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Index de la blacklist : arbre radix (PATRICIA) sur les adresses IPv4 en entiers.
+ *
+ * Accepte des IP exactes ("10.0.0.5") et des préfixes CIDR ("10.0.0.0/8").
+ * La recherche du plus long préfixe parcourt au plus 32 bits, quel que soit
+ * le nombre d'entrées ; l'arbre compressé garde au plus ~2 nœuds par entrée.
+ * Les entrées qui ne sont pas des IPv4 sont comparées telles quelles.
+ *
+ * Mises à jour incrémentales (un écrivain à la fois), lectures concurrentes
+ * sans verrou en régime nominal (lecture optimiste).
+ *
+ * @author ZGARNI
+ */
+public final class BlacklistIndex {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Nœuds en tableaux parallèles (nœud 0 = racine, préfixe vide)
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private byte[] lengths = new byte[INITIAL_CAPACITY];
+    private int[] zero = new int[INITIAL_CAPACITY];
+    private int[] one = new int[INITIAL_CAPACITY];
+    private int[] refs = new int[INITIAL_CAPACITY];   // nombre d'entrées se terminant sur ce nœud
+    private int nodeCount;
+
+    private final Set<String> otherEntries = new HashSet<>();
+    private volatile int entryCount;
+
+    public BlacklistIndex() {
+        Arrays.fill(zero, NONE);
+        Arrays.fill(one, NONE);
+        nodeCount = 1;
+    }
+
+    // ========== MISES À JOUR ==========
+
+    /**
+     * Ajoute une entrée (IP exacte ou préfixe CIDR).
+     */
+    public void add(String entry) {
+        long stamp = lock.writeLock();
+        try {
+            long prefix = parsePrefix(entry);
+            if (prefix == IPv4Address.INVALID) {
+                if (otherEntries.add(entry)) {
+                    entryCount++;
+                }
+                return;
+            }
+            insert((int) (prefix >>> 8), (int) (prefix & 0xFF));
+            entryCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Retire une entrée précédemment ajoutée.
+     * Les nœuds ne sont pas libérés : seule la marque de fin d'entrée est retirée.
+     */
+    public void remove(String entry) {
+        long stamp = lock.writeLock();
+        try {
+            long prefix = parsePrefix(entry);
+            if (prefix == IPv4Address.INVALID) {
+                if (otherEntries.remove(entry)) {
+                    entryCount--;
+                }
+                return;
+            }
+            int node = find((int) (prefix >>> 8), (int) (prefix & 0xFF));
+            if (node != NONE && refs[node] > 0) {
+                refs[node]--;
+                entryCount--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(zero, 0, nodeCount, NONE);
+            Arrays.fill(one, 0, nodeCount, NONE);
+            Arrays.fill(refs, 0, nodeCount, 0);
+            nodeCount = 1;
+            otherEntries.clear();
+            entryCount = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Vérifie si une adresse (texte) est couverte par la blacklist.
+     */
+    public boolean contains(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        long address = IPv4Address.tryParse(ip);
+        if (address != IPv4Address.INVALID && longestPrefix((int) address) >= 0) {
+            return true;
+        }
+        return containsOther(ip);
+    }
+
+    /**
+     * Vérifie si une adresse IPv4 (entier) est couverte par la blacklist.
+     */
+    public boolean contains(int address) {
+        return longestPrefix(address) >= 0;
+    }
+
+    /**
+     * Longueur du plus long préfixe blacklisté couvrant l'adresse.
+     * @return 0..32, ou -1 si aucune entrée ne couvre l'adresse
+     */
+    public int longestPrefix(int address) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int result = lookup(address);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // État incohérent vu pendant une écriture : relire sous verrou
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return lookup(address);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    private boolean containsOther(String ip) {
+        if (otherEntries.isEmpty()) {
+            return false;
+        }
+        long stamp = lock.readLock();
+        try {
+            return otherEntries.contains(ip);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int lookup(int address) {
+        int[] keys = this.keys;
+        byte[] lengths = this.lengths;
+        int[] zero = this.zero;
+        int[] one = this.one;
+        int[] refs = this.refs;
+
+        int best = refs[0] > 0 ? 0 : -1;
+        int node = 0;
+        int depth = 0;
+        while (depth < 32) {
+            int child = bit(address, depth) == 0 ? zero[node] : one[node];
+            if (child == NONE) {
+                break;
+            }
+            int childLength = lengths[child];
+            if (((address ^ keys[child]) & mask(childLength)) != 0) {
+                break;
+            }
+            node = child;
+            depth = childLength;
+            if (refs[node] > 0) {
+                best = depth;
+            }
+        }
+        return best;
+    }
+
+    // ========== ARBRE ==========
+
+    private void insert(int key, int length) {
+        int node = 0;
+        while (true) {
+            int depth = lengths[node];
+            if (depth == length) {
+                refs[node]++;
+                return;
+            }
+            int branch = bit(key, depth);
+            int child = branch == 0 ? zero[node] : one[node];
+            if (child == NONE) {
+                setChild(node, branch, newNode(key, length, 1));
+                return;
+            }
+            int childKey = keys[child];
+            int childLength = lengths[child];
+            int common = Math.min(Math.min(length, childLength), commonPrefix(key, childKey));
+            if (common == childLength) {
+                node = child;
+                continue;
+            }
+            // Scission : nœud intermédiaire sur le préfixe commun
+            int middle = newNode(key & mask(common), common, common == length ? 1 : 0);
+            setChild(middle, bit(childKey, common), child);
+            if (common != length) {
+                setChild(middle, bit(key, common), newNode(key, length, 1));
+            }
+            setChild(node, branch, middle);
+            return;
+        }
+    }
+
+    private int find(int key, int length) {
+        int node = 0;
+        while (lengths[node] < length) {
+            int child = bit(key, lengths[node]) == 0 ? zero[node] : one[node];
+            if (child == NONE || lengths[child] > length
+                    || ((key ^ keys[child]) & mask(lengths[child])) != 0) {
+                return NONE;
+            }
+            node = child;
+        }
+        return lengths[node] == length ? node : NONE;
+    }
+
+    private int newNode(int key, int length, int refCount) {
+        if (nodeCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            int[] newZero = Arrays.copyOf(zero, capacity);
+            int[] newOne = Arrays.copyOf(one, capacity);
+            Arrays.fill(newZero, nodeCount, capacity, NONE);
+            Arrays.fill(newOne, nodeCount, capacity, NONE);
+            zero = newZero;
+            one = newOne;
+        }
+        int node = nodeCount++;
+        keys[node] = key & mask(length);
+        lengths[node] = (byte) length;
+        refs[node] = refCount;
+        zero[node] = NONE;
+        one[node] = NONE;
+        return node;
+    }
+
+    private void setChild(int node, int branch, int child) {
+        if (branch == 0) {
+            zero[node] = child;
+        } else {
+            one[node] = child;
+        }
+    }
+
+    private static int bit(int key, int position) {
+        return (key >>> (31 - position)) & 1;
+    }
+
+    private static int mask(int length) {
+        return length == 0 ? 0 : -1 << (32 - length);
+    }
+
+    private static int commonPrefix(int a, int b) {
+        return Integer.numberOfLeadingZeros(a ^ b);
+    }
+
+    // ========== PARSING ==========
+
+    /**
+     * Parse "a.b.c.d" ou "a.b.c.d/n".
+     * @return (adresse << 8 | longueur), ou {@link IPv4Address#INVALID}
+     */
+    static long parsePrefix(String entry) {
+        if (entry == null) {
+            return IPv4Address.INVALID;
+        }
+        String trimmed = entry.trim();
+        int slash = trimmed.indexOf('/');
+        int end = slash < 0 ? trimmed.length() : slash;
+        long address = IPv4Address.tryParse(trimmed, 0, end);
+        if (address == IPv4Address.INVALID) {
+            return IPv4Address.INVALID;
+        }
+        int length = 32;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(trimmed.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return IPv4Address.INVALID;
+            }
+            if (length < 0 || length > 32) {
+                return IPv4Address.INVALID;
+            }
+        }
+        return ((address & mask(length) & 0xFFFFFFFFL) << 8) | length;
+    }
+
+    /**
+     * Vérifie qu'une entrée est une IP exacte ou un préfixe CIDR IPv4 valide.
+     */
+    public static boolean isValidEntry(String entry) {
+        return parsePrefix(entry) != IPv4Address.INVALID;
+    }
+}
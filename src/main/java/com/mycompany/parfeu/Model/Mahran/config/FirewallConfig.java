@@ -6,7 +6,10 @@ package com.mycompany.parfeu.Model.Mahran.config;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Configuration centralisee du pare-feu.
@@ -35,12 +38,17 @@ public class FirewallConfig {
     // Mots suspects
     private List<String> suspiciousWords;
     
-    // IPs blacklistees
-    private List<String> blacklistedIPs;
+    // IPs blacklistees (IP exactes ou prefixes CIDR) + index radix pour la recherche
+    private Set<String> blacklistedIPs;
+    private final BlacklistIndex blacklistIndex;
+    private volatile List<String> blacklistView;   // copie figee, refaite apres modification
     
     // Ports a surveiller
     private List<Integer> monitoredPorts;
     
+    // Numero de version, incremente a chaque modification (invalidation des caches)
+    private final AtomicLong generation = new AtomicLong();
+    
    
 
     /**
@@ -59,7 +67,8 @@ public class FirewallConfig {
             "<script>", "javascript:", "../", "etc/passwd"
         ));
         
-        this.blacklistedIPs = new ArrayList<>();
+        this.blacklistedIPs = new LinkedHashSet<>();
+        this.blacklistIndex = new BlacklistIndex();
         
         this.monitoredPorts = new ArrayList<>(Arrays.asList(
             21, 22, 23, 25, 80, 443, 3306, 3389, 8080
@@ -87,14 +96,57 @@ public class FirewallConfig {
         return Collections.unmodifiableList(suspiciousWords); 
     }
     
+    /**
+     * Vue non modifiable de la blacklist, recalculee seulement apres une modification.
+     */
     public List<String> getBlacklistedIPs() { 
-        return Collections.unmodifiableList(blacklistedIPs); 
+        List<String> view = blacklistView;
+        if (view == null) {
+            view = Collections.unmodifiableList(new ArrayList<>(blacklistedIPs));
+            blacklistView = view;
+        }
+        return view; 
+    }
+    
+    /**
+     * Nombre d'entrees de la blacklist, sans copie.
+     */
+    public int blacklistSize() {
+        return blacklistedIPs.size();
+    }
+    
+    /**
+     * Verifie si une IP est couverte par la blacklist (IP exacte ou prefixe CIDR).
+     * Recherche du plus long prefixe en O(32), independante de la taille de la liste.
+     * @param ip adresse IP a tester
+     */
+    public boolean isBlacklisted(String ip) {
+        return blacklistIndex.contains(ip);
+    }
+    
+    /**
+     * Variante sur une adresse IPv4 deja convertie en entier.
+     */
+    public boolean isBlacklisted(int ipv4) {
+        return blacklistIndex.contains(ipv4);
     }
     
     public List<Integer> getMonitoredPorts() { 
         return Collections.unmodifiableList(monitoredPorts); 
     }
     
+    /**
+     * Version de la configuration : change a chaque modification effective.
+     * Un resultat calcule a la version N reste valable tant que la version vaut N.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+    
+    private void changed() {
+        generation.incrementAndGet();
+    }
+    
    
     
     // Setters avec validation
@@ -103,6 +155,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("blockThreshold doit etre >= 1");
         }
         this.blockThreshold = blockThreshold;
+        changed();
     }
 
     public void setAlertThreshold(int alertThreshold) {
@@ -110,6 +163,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("alertThreshold doit etre >= 1");
         }
         this.alertThreshold = alertThreshold;
+        changed();
     }
 
     public void setMinPacketSize(int minPacketSize) {
@@ -117,6 +171,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("minPacketSize doit etre >= 0");
         }
         this.minPacketSize = minPacketSize;
+        changed();
     }
 
     public void setMaxPacketSize(int maxPacketSize) {
@@ -124,6 +179,7 @@ public class FirewallConfig {
             throw new IllegalArgumentException("maxPacketSize doit etre > 0");
         }
         this.maxPacketSize = maxPacketSize;
+        changed();
     }
 
     /**
@@ -133,6 +189,7 @@ public class FirewallConfig {
     public void addSuspiciousWord(String word) {
         if (word != null && !word.isEmpty()) {
             this.suspiciousWords.add(word);
+            changed();
         }
     }
 
@@ -141,25 +198,33 @@ public class FirewallConfig {
      * @param word mot a supprimer
      */
     public void removeSuspiciousWord(String word) {
-        this.suspiciousWords.remove(word);
+        if (this.suspiciousWords.remove(word)) {
+            changed();
+        }
     }
 
     /**
-     * Ajoute une IP a la blacklist.
-     * @param ip adresse IP a blacklister
+     * Ajoute une IP ou un prefixe CIDR (ex: 10.0.0.0/8) a la blacklist.
+     * @param ip adresse IP ou prefixe a blacklister
      */
     public void addBlacklistedIP(String ip) {
-        if (ip != null && !ip.isEmpty() && !blacklistedIPs.contains(ip)) {
-            this.blacklistedIPs.add(ip);
+        if (ip != null && !ip.isEmpty() && blacklistedIPs.add(ip)) {
+            blacklistIndex.add(ip);
+            blacklistView = null;
+            changed();
         }
     }
 
     /**
-     * Supprime une IP de la blacklist.
-     * @param ip adresse IP a retirer
+     * Supprime une IP ou un prefixe CIDR de la blacklist.
+     * @param ip adresse IP ou prefixe a retirer
      */
     public void removeBlacklistedIP(String ip) {
-        this.blacklistedIPs.remove(ip);
+        if (blacklistedIPs.remove(ip)) {
+            blacklistIndex.remove(ip);
+            blacklistView = null;
+            changed();
+        }
     }
 
     /**
@@ -169,6 +234,7 @@ public class FirewallConfig {
     public void addMonitoredPort(int port) {
         if (port >= 0 && port <= 65535 && !monitoredPorts.contains(port)) {
             this.monitoredPorts.add(port);
+            changed();
         }
     }
 
@@ -177,7 +243,9 @@ public class FirewallConfig {
      * @param port numero de port a retirer
      */
     public void removeMonitoredPort(int port) {
-        this.monitoredPorts.remove(Integer.valueOf(port));
+        if (this.monitoredPorts.remove(Integer.valueOf(port))) {
+            changed();
+        }
     }
 
     
@@ -0,0 +1,99 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+/**
+ * Conversion des adresses IPv4 entre notation pointée et entier 32 bits.
+ * Parsing manuel sans split ni exception sur le chemin nominal.
+ *
+ * @author ZGARNI
+ */
+public final class IPv4Address {
+
+    /** Valeur retournée par {@link #tryParse(CharSequence)} pour une adresse invalide. */
+    public static final long INVALID = -1L;
+
+    private IPv4Address() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Convertit "a.b.c.d" en entier (bits de poids fort = premier octet).
+     * @return l'adresse dans les 32 bits de poids faible, ou {@link #INVALID}
+     */
+    public static long tryParse(CharSequence ip) {
+        return tryParse(ip, 0, ip == null ? 0 : ip.length());
+    }
+
+    /**
+     * Variante sur une sous-séquence [start, end).
+     */
+    public static long tryParse(CharSequence ip, int start, int end) {
+        if (ip == null || start >= end) {
+            return INVALID;
+        }
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = start; i < end; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                if (value > 255) {
+                    return INVALID;
+                }
+            } else if (c == '.') {
+                if (value < 0 || octets == 3) {
+                    return INVALID;
+                }
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return INVALID;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return INVALID;
+        }
+        return (address << 8) | value;
+    }
+
+    /**
+     * Convertit "a.b.c.d" en entier.
+     * @throws IllegalArgumentException si l'adresse est invalide
+     */
+    public static int parse(String ip) {
+        long address = tryParse(ip);
+        if (address == INVALID) {
+            throw new IllegalArgumentException("Adresse IPv4 invalide: " + ip);
+        }
+        return (int) address;
+    }
+
+    /**
+     * Comme {@link #tryParse(CharSequence)}, mais seulement pour la notation
+     * canonique (celle de {@link #format}) : "010.0.0.1" donne {@link #INVALID}.
+     * Deux adresses canoniques sont égales en texte si et seulement si elles le
+     * sont en entier.
+     */
+    public static long tryParseCanonical(String ip) {
+        long address = tryParse(ip);
+        if (address == INVALID || !format((int) address).equals(ip)) {
+            return INVALID;
+        }
+        return address;
+    }
+
+    public static boolean isValid(String ip) {
+        return tryParse(ip) != INVALID;
+    }
+
+    /**
+     * Convertit un entier en notation pointée.
+     */
+    public static String format(int address) {
+        return ((address >>> 24) & 0xFF) + "." +
+               ((address >>> 16) & 0xFF) + "." +
+               ((address >>> 8) & 0xFF) + "." +
+               (address & 0xFF);
+    }
+}
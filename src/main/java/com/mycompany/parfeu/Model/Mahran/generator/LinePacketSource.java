@@ -0,0 +1,94 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Source de paquets texte, un paquet par ligne :
+ * <pre>srcIP,destIP,srcPort,destPort,protocole[,payload]</pre>
+ * Le payload est le reste de la ligne (virgules comprises).
+ * Les lignes vides et celles commençant par '#' sont ignorées ;
+ * les lignes invalides sont signalées puis ignorées.
+ *
+ * @author ZGARNI
+ */
+public final class LinePacketSource implements PacketSource {
+
+    private final BufferedReader reader;
+    private long lineNumber = 0;
+    private long rejectedLines = 0;
+
+    public LinePacketSource(Reader reader) {
+        Objects.requireNonNull(reader, "reader ne peut pas être null");
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    public static LinePacketSource fromStream(InputStream in) {
+        return new LinePacketSource(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public static LinePacketSource fromFile(Path file) throws IOException {
+        return new LinePacketSource(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Packet next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                return parse(line);
+            } catch (IllegalArgumentException e) {
+                rejectedLines++;
+                System.err.println("⚠️  Ligne " + lineNumber + " ignorée: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convertit une ligne en paquet.
+     * @throws IllegalArgumentException si la ligne est mal formée
+     */
+    public static Packet parse(String line) {
+        String[] fields = line.split(",", 6);
+        if (fields.length < 5) {
+            throw new IllegalArgumentException("5 champs minimum attendus (srcIP,destIP,srcPort,destPort,protocole)");
+        }
+        String srcIP = fields[0].trim();
+        String destIP = fields[1].trim();
+        if (!IPv4Address.isValid(srcIP) || !IPv4Address.isValid(destIP)) {
+            throw new IllegalArgumentException("adresse IP invalide");
+        }
+        int srcPort;
+        int destPort;
+        try {
+            srcPort = Integer.parseInt(fields[2].trim());
+            destPort = Integer.parseInt(fields[3].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("port invalide", e);
+        }
+        String protocol = fields[4].trim().toUpperCase();
+        String payload = fields.length == 6 ? fields[5] : "";
+        return new PaquetSimple(srcIP, destIP, srcPort, destPort, protocol, payload);
+    }
+
+    public long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
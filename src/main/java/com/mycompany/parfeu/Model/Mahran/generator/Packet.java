@@ -13,9 +13,16 @@ import java.util.Objects;
  * Implémente IPaquet (interface fonctionnelle).
  * Override toutes les méthodes default de l'interface.
  * 
+ * Les champs texte (IP, payload) sont null pour un {@link PaquetBrut}, qui les
+ * décode à la demande : hors de ses sous-classes, passer par les accesseurs.
+ * 
  * @author ZGARNI
  */
-public sealed abstract class Packet implements IPaquet permits PaquetSimple, PaquetMalicieux {
+public sealed abstract class Packet implements IPaquet permits PaquetSimple, PaquetMalicieux, PaquetBrut {
+    
+    // Estimation de l'en-tête dans getSize()
+    private static final int HEADER_ESTIMATE = 20;
+    
     protected final String srcIP;
     protected final String destIP;
     protected final int srcPort;
@@ -37,6 +44,20 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
         this.size = computeSize();
     }
 
+    /**
+     * Paquet dont les adresses et le payload restent sous forme binaire ({@link PaquetBrut}).
+     */
+    Packet(int srcPort, int destPort, String protocol, int payloadBytes, LocalDateTime timestamp) {
+        this.srcIP = null;
+        this.destIP = null;
+        this.srcPort = validatePort(srcPort);
+        this.destPort = validatePort(destPort);
+        this.protocol = Objects.requireNonNull(protocol, "protocol ne peut pas être null");
+        this.payload = null;
+        this.timestamp = timestamp == null ? LocalDateTime.now() : timestamp;
+        this.size = HEADER_ESTIMATE + payloadBytes;
+    }
+
     private static int validatePort(int port) {
         if (port < 0 || port > 65535) 
             throw new IllegalArgumentException("Port invalide: " + port);
@@ -44,9 +65,31 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
     }
 
     protected int computeSize() {
-        int headerEstimate = 20;
-        int payloadBytes = payload.getBytes(StandardCharsets.UTF_8).length;
-        return headerEstimate + payloadBytes;
+        return HEADER_ESTIMATE + utf8Length(payload);
+    }
+
+    /**
+     * Longueur UTF-8 d'une chaîne, sans l'encoder (un demi-surrogate isolé compte
+     * pour un octet, comme le '?' de remplacement de getBytes).
+     */
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
     }
 
     
@@ -90,17 +133,38 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
         return timestamp; 
     }
 
+    /**
+     * IP source en entier (32 bits de poids faible), ou {@link IPv4Address#INVALID}.
+     */
+    public long getSrcAddress() {
+        return IPv4Address.tryParse(srcIP);
+    }
+
+    /**
+     * IP destination en entier (32 bits de poids faible), ou {@link IPv4Address#INVALID}.
+     */
+    public long getDestAddress() {
+        return IPv4Address.tryParse(destIP);
+    }
+
+    /**
+     * Taille du payload en octets (UTF-8).
+     */
+    public int getPayloadLength() {
+        return size - HEADER_ESTIMATE;
+    }
+
     /**
      * IMPLÉMENTATION DE LA MÉTHODE ABSTRAITE (serialize).
      */
     @Override
     public byte[] serialize() {
         String s = this.getClass().getSimpleName() + "|" +
-                   srcIP + "->" + destIP + "|" +
+                   getSrcIP() + "->" + getDestIP() + "|" +
                    srcPort + "->" + destPort + "|" +
                    protocol + "|" +
                    timestamp + "|" +
-                   payload;
+                   getPayload();
         return s.getBytes(StandardCharsets.UTF_8);
     }
 
@@ -108,23 +172,23 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
     public String summary() {
         return String.format("%s %s:%d -> %s:%d [%s] size=%d payload=%dbytes",
                 timestamp,
-                srcIP, srcPort,
-                destIP, destPort,
+                getSrcIP(), srcPort,
+                getDestIP(), destPort,
                 protocol,
                 size,
-                payload.getBytes(StandardCharsets.UTF_8).length);
+                getPayloadLength());
     }
 
     @Override
     public String toString() {
         return "Packet{" +
                 "type=" + this.getClass().getSimpleName() +
-                ", srcIP='" + srcIP + '\'' +
-                ", destIP='" + destIP + '\'' +
+                ", srcIP='" + getSrcIP() + '\'' +
+                ", destIP='" + getDestIP() + '\'' +
                 ", srcPort=" + srcPort +
                 ", destPort=" + destPort +
                 ", protocol='" + protocol + '\'' +
-                ", payload='" + payload + '\'' +
+                ", payload='" + getPayload() + '\'' +
                 ", size=" + size +
                 ", timestamp=" + timestamp +
                 '}';
@@ -138,15 +202,15 @@ public sealed abstract class Packet implements IPaquet permits PaquetSimple, Paq
         Packet packet = (Packet) o;
         return srcPort == packet.srcPort &&
                 destPort == packet.destPort &&
-                Objects.equals(srcIP, packet.srcIP) &&
-                Objects.equals(destIP, packet.destIP) &&
+                Objects.equals(getSrcIP(), packet.getSrcIP()) &&
+                Objects.equals(getDestIP(), packet.getDestIP()) &&
                 Objects.equals(protocol, packet.protocol) &&
-                Objects.equals(payload, packet.payload) &&
+                Objects.equals(getPayload(), packet.getPayload()) &&
                 Objects.equals(timestamp, packet.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(srcIP, destIP, srcPort, destPort, protocol, payload, timestamp);
+        return Objects.hash(getSrcIP(), getDestIP(), srcPort, destPort, protocol, getPayload(), timestamp);
     }
 }
\ No newline at end of file
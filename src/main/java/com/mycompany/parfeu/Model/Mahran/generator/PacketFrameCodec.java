@@ -0,0 +1,192 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Trame binaire d'un paquet, préfixée par sa longueur (entiers big-endian) :
+ * <pre>
+ *   int32   longueur du corps (sans ces 4 octets)
+ *   int32   IP source (IPv4)
+ *   int32   IP destination (IPv4)
+ *   uint16  port source
+ *   uint16  port destination
+ *   uint8   longueur du protocole, puis le protocole (ASCII)
+ *   ...     payload (UTF-8, reste du corps)
+ * </pre>
+ * Une trame tient dans un datagramme UDP ({@value #MAX_FRAME} octets au plus).
+ * L'horodatage n'est pas transmis : c'est celui de la réception.
+ *
+ * @author ZGARNI
+ */
+public final class PacketFrameCodec {
+
+    public static final int LENGTH_BYTES = 4;
+    public static final int MAX_FRAME = 65_507;
+    public static final int MAX_BODY = MAX_FRAME - LENGTH_BYTES;
+    private static final int FIXED_BODY = 4 + 4 + 2 + 2 + 1;
+
+    private PacketFrameCodec() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    // ========== ENCODAGE ==========
+
+    /**
+     * Trame complète (longueur comprise).
+     * @throws IllegalArgumentException si une adresse n'est pas IPv4 ou si la trame est trop grande
+     */
+    public static byte[] encode(Packet packet) {
+        byte[] protocol = packet.getProtocol().getBytes(StandardCharsets.US_ASCII);
+        byte[] payload = packet.getPayload().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + bodyLength(protocol, payload));
+        write(packet, protocol, payload, frame);
+        return frame.array();
+    }
+
+    /**
+     * Écrit la trame complète à la position courante du tampon.
+     * @throws java.nio.BufferOverflowException si la place manque
+     */
+    public static void encode(Packet packet, ByteBuffer out) {
+        byte[] protocol = packet.getProtocol().getBytes(StandardCharsets.US_ASCII);
+        byte[] payload = packet.getPayload().getBytes(StandardCharsets.UTF_8);
+        bodyLength(protocol, payload);
+        write(packet, protocol, payload, out);
+    }
+
+    private static int bodyLength(byte[] protocol, byte[] payload) {
+        if (protocol.length > 255) {
+            throw new IllegalArgumentException("protocole trop long: " + protocol.length + " octets");
+        }
+        int length = FIXED_BODY + protocol.length + payload.length;
+        if (length > MAX_BODY) {
+            throw new IllegalArgumentException("trame trop grande: " + length + " octets");
+        }
+        return length;
+    }
+
+    private static void write(Packet packet, byte[] protocol, byte[] payload, ByteBuffer out) {
+        out.putInt(FIXED_BODY + protocol.length + payload.length);
+        out.putInt(IPv4Address.parse(packet.getSrcIP()));
+        out.putInt(IPv4Address.parse(packet.getDestIP()));
+        out.putShort((short) packet.getSrcPort());
+        out.putShort((short) packet.getDestPort());
+        out.put((byte) protocol.length);
+        out.put(protocol);
+        out.put(payload);
+    }
+
+    // ========== DÉCODAGE ==========
+
+    /**
+     * Longueur annoncée d'un corps de trame.
+     * @throws IllegalArgumentException si elle est hors limites
+     */
+    public static int checkBodyLength(int length) {
+        if (length < FIXED_BODY || length > MAX_BODY) {
+            throw new IllegalArgumentException("longueur de trame invalide: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Décode le corps d'une trame (sans la longueur), de la position à la limite du tampon.
+     * @throws IllegalArgumentException si le corps est mal formé
+     */
+    public static Packet decodeBody(ByteBuffer body) {
+        Objects.requireNonNull(body, "body ne peut pas être null");
+        try {
+            String srcIP = IPv4Address.format(body.getInt());
+            String destIP = IPv4Address.format(body.getInt());
+            int srcPort = Short.toUnsignedInt(body.getShort());
+            int destPort = Short.toUnsignedInt(body.getShort());
+            int protocolLength = Byte.toUnsignedInt(body.get());
+            if (protocolLength == 0 || protocolLength > body.remaining()) {
+                throw new IllegalArgumentException("protocole invalide");
+            }
+            String protocol = string(body, protocolLength, StandardCharsets.US_ASCII);
+            String payload = string(body, body.remaining(), StandardCharsets.UTF_8);
+            return new PaquetSimple(srcIP, destIP, srcPort, destPort, protocol, payload);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("trame tronquée", e);
+        }
+    }
+
+    /**
+     * Décode une trame complète (longueur comprise), typiquement un datagramme.
+     * @throws IllegalArgumentException si la trame est mal formée
+     */
+    public static Packet decodeFrame(ByteBuffer frame) {
+        if (frame.remaining() < LENGTH_BYTES) {
+            throw new IllegalArgumentException("trame tronquée");
+        }
+        int length = checkBodyLength(frame.getInt());
+        if (length != frame.remaining()) {
+            throw new IllegalArgumentException("longueur annoncée " + length + ", reçue " + frame.remaining());
+        }
+        return decodeBody(frame);
+    }
+
+    // ========== VUE SANS COPIE ==========
+
+    /**
+     * Paquet brut sur le corps d'une trame (sans la longueur), de la position à la
+     * limite du tampon : adresses et ports lus, payload gardé en octets, sans copie.
+     * Le tampon ne doit plus être modifié ensuite.
+     * @throws IllegalArgumentException si le corps est mal formé
+     */
+    public static PaquetBrut wrapBody(ByteBuffer body) {
+        Objects.requireNonNull(body, "body ne peut pas être null");
+        int start = body.position();
+        int end = body.limit();
+        if (end - start < FIXED_BODY) {
+            throw new IllegalArgumentException("trame tronquée");
+        }
+        int srcIP = body.getInt(start);
+        int destIP = body.getInt(start + 4);
+        int srcPort = Short.toUnsignedInt(body.getShort(start + 8));
+        int destPort = Short.toUnsignedInt(body.getShort(start + 10));
+        int protocolLength = Byte.toUnsignedInt(body.get(start + 12));
+        int protocolStart = start + FIXED_BODY;
+        if (protocolLength == 0 || protocolLength > end - protocolStart) {
+            throw new IllegalArgumentException("protocole invalide");
+        }
+        String protocol = PaquetBrut.protocolName(body, protocolStart, protocolLength);
+        ByteBuffer payload = body.duplicate().position(protocolStart + protocolLength);
+        body.position(end);
+        return new PaquetBrut(srcIP, destIP, srcPort, destPort, protocol, payload, null);
+    }
+
+    /**
+     * Paquet brut sur une trame complète (longueur comprise), typiquement un datagramme.
+     * @throws IllegalArgumentException si la trame est mal formée
+     */
+    public static PaquetBrut wrapFrame(ByteBuffer frame) {
+        if (frame.remaining() < LENGTH_BYTES) {
+            throw new IllegalArgumentException("trame tronquée");
+        }
+        int length = checkBodyLength(frame.getInt());
+        if (length != frame.remaining()) {
+            throw new IllegalArgumentException("longueur annoncée " + length + ", reçue " + frame.remaining());
+        }
+        return wrapBody(frame);
+    }
+
+    private static String string(ByteBuffer buffer, int length, Charset charset) {
+        if (length == 0) {
+            return "";
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+}
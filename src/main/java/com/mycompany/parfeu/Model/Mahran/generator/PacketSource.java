@@ -0,0 +1,24 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+import java.io.IOException;
+
+/**
+ * Source de paquets pour le traitement en continu (mode sans interface).
+ * Une implémentation par origine : fichier texte, entrée standard, capture réseau...
+ *
+ * @author ZGARNI
+ */
+public interface PacketSource extends AutoCloseable {
+
+    /**
+     * Paquet suivant ; bloque tant qu'aucun paquet n'est disponible.
+     * @return le paquet, ou null en fin de flux
+     */
+    Packet next() throws IOException;
+
+    /**
+     * Libère la source ; un appel concurrent à {@link #next()} se termine (null ou IOException).
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,169 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Paquet brut : vue sur les octets reçus, sans copie ni décodage.
+ *
+ * Les adresses sont gardées en entiers, le protocole en constante partagée
+ * (TCP, UDP, ICMP) et le payload en tranche en lecture seule du tampon
+ * d'origine. Les chaînes (IP, payload) ne sont construites qu'au premier
+ * appel de l'accesseur correspondant, puis gardées.
+ *
+ * Chemins rapides : {@link #getSrcAddress()} / {@link #getDestAddress()} et
+ * {@link #getPayloadBytes()} évitent toute chaîne. Le tampon d'origine ne doit
+ * plus être modifié une fois le paquet créé.
+ *
+ * @author ZGARNI
+ */
+public final class PaquetBrut extends Packet {
+
+    public static final String TCP = "TCP";
+    public static final String UDP = "UDP";
+    public static final String ICMP = "ICMP";
+    public static final String ICMPV6 = "ICMPv6";
+
+    private final int srcAddress;
+    private final int destAddress;
+    private final ByteBuffer payloadBytes;
+
+    // Décodés à la demande (course bénigne : chaînes immuables, même valeur)
+    private String srcText;
+    private String destText;
+    private String payloadText;
+
+    /**
+     * @param payload octets du payload (UTF-8), de la position à la limite ; non copiés
+     * @param timestamp horodatage (null = maintenant)
+     */
+    public PaquetBrut(int srcAddress, int destAddress, int srcPort, int destPort,
+                      String protocol, ByteBuffer payload, LocalDateTime timestamp) {
+        super(srcPort, destPort, protocol,
+              Objects.requireNonNull(payload, "payload ne peut pas être null").remaining(), timestamp);
+        this.srcAddress = srcAddress;
+        this.destAddress = destAddress;
+        this.payloadBytes = payload.slice().asReadOnlyBuffer();
+    }
+
+    // ========== PROTOCOLE ==========
+
+    /**
+     * Nom d'un protocole IP (numéro de l'en-tête IPv4 ou IPv6) : constante pour
+     * TCP, UDP, ICMP et ICMPv6, numéro en texte sinon.
+     */
+    public static String protocolName(int ipProtocol) {
+        return switch (ipProtocol) {
+            case 6 -> TCP;
+            case 17 -> UDP;
+            case 1 -> ICMP;
+            case 58 -> ICMPV6;
+            default -> Integer.toString(ipProtocol);
+        };
+    }
+
+    /**
+     * Protocole écrit en ASCII dans le tampon [offset, offset + length) :
+     * constante si c'est TCP, UDP ou ICMP, nouvelle chaîne sinon.
+     */
+    static String protocolName(ByteBuffer buffer, int offset, int length) {
+        if (asciiEquals(buffer, offset, length, TCP)) {
+            return TCP;
+        }
+        if (asciiEquals(buffer, offset, length, UDP)) {
+            return UDP;
+        }
+        if (asciiEquals(buffer, offset, length, ICMP)) {
+            return ICMP;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean asciiEquals(ByteBuffer buffer, int offset, int length, String value) {
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== ACCESSEURS ==========
+
+    @Override
+    public long getSrcAddress() {
+        return Integer.toUnsignedLong(srcAddress);
+    }
+
+    @Override
+    public long getDestAddress() {
+        return Integer.toUnsignedLong(destAddress);
+    }
+
+    @Override
+    public String getSrcIP() {
+        String text = srcText;
+        if (text == null) {
+            text = IPv4Address.format(srcAddress);
+            srcText = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String getDestIP() {
+        String text = destText;
+        if (text == null) {
+            text = IPv4Address.format(destAddress);
+            destText = text;
+        }
+        return text;
+    }
+
+    /**
+     * Payload décodé (UTF-8) au premier appel.
+     */
+    @Override
+    public String getPayload() {
+        String text = payloadText;
+        if (text == null) {
+            text = decode(payloadBytes);
+            payloadText = text;
+        }
+        return text;
+    }
+
+    /**
+     * Octets du payload, en lecture seule (vue indépendante : position 0, limite = longueur).
+     */
+    public ByteBuffer getPayloadBytes() {
+        return payloadBytes.duplicate();
+    }
+
+    @Override
+    public int getPayloadLength() {
+        return payloadBytes.limit();
+    }
+
+    private static String decode(ByteBuffer bytes) {
+        int length = bytes.limit();
+        if (length == 0) {
+            return "";
+        }
+        byte[] copy = new byte[length];
+        bytes.get(0, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "PaquetBrut" + super.toString();
+    }
+}
@@ -0,0 +1,682 @@
+package com.mycompany.parfeu.Model.Mahran.generator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lecture d'une capture hors ligne (.pcap ou .pcapng), en mémoire projetée.
+ *
+ * Le fichier est projeté par fenêtres de {@value #WINDOW_BYTES} octets (au-delà
+ * de 2 Go, un seul tampon ne suffit pas) ; un enregistrement à cheval sur deux
+ * fenêtres fait projeter la suivante à partir de son début. Les en-têtes sont
+ * lus directement dans la projection :
+ * <pre>
+ *   liaison : Ethernet (VLAN 802.1Q / QinQ), IP brut, null / loopback BSD, Linux SLL et SLL2
+ *   réseau  : IPv4 (fragments suivants sans en-tête transport), IPv6 (en-têtes d'extension)
+ *   transport : TCP, UDP, ICMP / ICMPv6 (ports à 0), autres (ports à 0, payload = données IP)
+ * </pre>
+ * Un paquet IPv4 devient un {@link PaquetBrut} dont le payload est une tranche de
+ * la projection : ni copie ni décodage tant qu'aucun consommateur ne demande de
+ * chaîne. Un paquet IPv6 devient un {@link PaquetSimple} (adresses en texte :
+ * le reste du pare-feu ne connaît que les entiers IPv4).
+ *
+ * Les trames non IP, les liaisons non gérées, les en-têtes tronqués ou
+ * invalides et les enregistrements plus grands qu'une fenêtre sont ignorés et
+ * comptés ({@link #stats()}). Un dernier
+ * enregistrement coupé par la fin du fichier termine la lecture.
+ *
+ * Horodatage : celui de la capture, converti avec le fuseau de la machine au
+ * moment de l'ouverture.
+ *
+ * @author ZGARNI
+ */
+public final class PcapPacketSource implements PacketSource {
+
+    static final int WINDOW_BYTES = 1 << 28;
+
+    private static final int PCAP_MICROS = 0xA1B2C3D4;
+    private static final int PCAP_NANOS = 0xA1B23C4D;
+    private static final int PCAPNG_SECTION = 0x0A0D0D0A;
+    private static final int PCAPNG_BYTE_ORDER = 0x1A2B3C4D;
+    private static final int PCAP_HEADER = 24;
+    private static final int PCAP_RECORD_HEADER = 16;
+
+    // Blocs pcapng
+    private static final int BLOCK_INTERFACE = 1;
+    private static final int BLOCK_PACKET_OBSOLETE = 2;
+    private static final int BLOCK_SIMPLE_PACKET = 3;
+    private static final int BLOCK_ENHANCED_PACKET = 6;
+    private static final int OPTION_TS_RESOLUTION = 9;
+    // Résolutions représentables sur 64 bits : 10^-18 et 2^-63 s
+    private static final int MAX_DECIMAL_RESOLUTION = 18;
+    private static final int MAX_BINARY_RESOLUTION = 63;
+
+    // Types de liaison (LINKTYPE_*)
+    private static final int LINK_NULL = 0;
+    private static final int LINK_ETHERNET = 1;
+    private static final int LINK_RAW = 101;
+    private static final int LINK_RAW_BSD = 12;
+    private static final int LINK_RAW_OPENBSD = 14;
+    private static final int LINK_LOOP = 108;
+    private static final int LINK_LINUX_SLL = 113;
+    private static final int LINK_LINUX_SLL2 = 276;
+
+    private static final int ETHERTYPE_IPV4 = 0x0800;
+    private static final int ETHERTYPE_IPV6 = 0x86DD;
+
+    /**
+     * Compteurs de lecture.
+     * @param records enregistrements de paquets lus dans le fichier
+     * @param packets paquets rendus par {@link #next()}
+     * @param skipped trames non IP ou de liaison non gérée
+     * @param malformed en-têtes tronqués ou invalides
+     * @param bytes octets capturés des enregistrements lus
+     */
+    public record Stats(long records, long packets, long skipped, long malformed, long bytes) {
+    }
+
+    /**
+     * Interface pcapng : type de liaison et résolution des horodatages
+     * (résolution négative : invalide, paquets rendus sans horodatage).
+     */
+    private record Interface(int linkType, boolean decimal, int resolution) {
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final boolean pcapng;
+    private final ZoneOffset zone;
+    private ByteOrder order;
+
+    // Fenêtre courante : ordre du fichier pour les en-têtes de capture,
+    // ordre réseau pour le contenu des paquets
+    private ByteBuffer window;
+    private ByteBuffer net;
+    private long windowStart;
+    private int pos;
+
+    // pcap : une seule liaison ; pcapng : une par interface de la section
+    private int pcapLinkType;
+    private int pcapFractionNanos;
+    private final List<Interface> interfaces = new ArrayList<>();
+
+    // Enregistrement courant
+    private int dataOffset;
+    private int capturedLength;
+    private int linkType;
+    private LocalDateTime timestamp;
+
+    private long records;
+    private long packets;
+    private long skipped;
+    private long malformed;
+    private long bytes;
+    private volatile boolean closed = false;
+
+    private PcapPacketSource(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.zone = ZoneId.systemDefault().getRules().getOffset(Instant.now());
+        if (fileSize < 4) {
+            throw new IOException("capture vide ou tronquée");
+        }
+        this.order = ByteOrder.BIG_ENDIAN;
+        map(0);
+        int magic = window.getInt(0);
+        if (magic == PCAPNG_SECTION) {
+            this.pcapng = true;
+        } else {
+            this.pcapng = false;
+            readPcapHeader(magic);
+        }
+    }
+
+    /**
+     * Ouvre une capture .pcap ou .pcapng (format reconnu à son contenu).
+     * @throws IOException si le fichier est illisible ou n'est pas une capture
+     */
+    public static PcapPacketSource open(Path file) throws IOException {
+        Objects.requireNonNull(file, "file ne peut pas être null");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PcapPacketSource(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Vrai si le fichier commence par une signature pcap ou pcapng.
+     */
+    public static boolean isCapture(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+                // lecture des 4 premiers octets
+            }
+            if (head.hasRemaining()) {
+                return false;
+            }
+            int magic = head.getInt(0);
+            return magic == PCAPNG_SECTION
+                || magic == PCAP_MICROS || magic == PCAP_NANOS
+                || Integer.reverseBytes(magic) == PCAP_MICROS || Integer.reverseBytes(magic) == PCAP_NANOS;
+        }
+    }
+
+    private void readPcapHeader(int magic) throws IOException {
+        if (magic == PCAP_MICROS || magic == PCAP_NANOS) {
+            order = ByteOrder.BIG_ENDIAN;
+        } else if (Integer.reverseBytes(magic) == PCAP_MICROS || Integer.reverseBytes(magic) == PCAP_NANOS) {
+            order = ByteOrder.LITTLE_ENDIAN;
+            magic = Integer.reverseBytes(magic);
+        } else {
+            throw new IOException("format de capture inconnu (ni pcap ni pcapng)");
+        }
+        if (!ensure(PCAP_HEADER)) {
+            throw new IOException("en-tête pcap tronqué");
+        }
+        window.order(order);
+        pcapFractionNanos = magic == PCAP_NANOS ? 1 : 1000;
+        pcapLinkType = window.getInt(20) & 0x0FFFFFFF;  // bits de poids fort : FCS
+        pos = PCAP_HEADER;
+    }
+
+    // ========== PROJECTION ==========
+
+    /**
+     * Rend disponibles {@code length} octets à partir de la position courante.
+     * @return false si le fichier se termine avant
+     */
+    private boolean ensure(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("longueur d'enregistrement invalide: " + length);
+        }
+        if (pos + (long) length <= window.limit()) {
+            return true;
+        }
+        long offset = windowStart + pos;
+        if (offset + length > fileSize) {
+            return false;
+        }
+        if (length > WINDOW_BYTES) {
+            throw new IOException("enregistrement trop grand: " + length + " octets");
+        }
+        map(offset);
+        return true;
+    }
+
+    /**
+     * Saute {@code length} octets à partir de la position courante.
+     * @return false si le fichier se termine avant
+     */
+    private boolean skip(long length) throws IOException {
+        if (pos + length <= window.limit()) {
+            pos += (int) length;
+            return true;
+        }
+        long offset = windowStart + pos + length;
+        if (offset > fileSize) {
+            return false;
+        }
+        map(offset);
+        return true;
+    }
+
+    private void map(long offset) throws IOException {
+        long size = Math.min(WINDOW_BYTES, fileSize - offset);
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        net = mapped.duplicate().order(ByteOrder.BIG_ENDIAN);
+        window = mapped.order(order);
+        windowStart = offset;
+        pos = 0;
+    }
+
+    // ========== LECTURE ==========
+
+    @Override
+    public Packet next() throws IOException {
+        while (!closed && nextRecord()) {
+            records++;
+            bytes += capturedLength;
+            Packet packet = decodeLink();
+            if (packet != null) {
+                packets++;
+                return packet;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Avance jusqu'au prochain enregistrement de paquet.
+     * @return false en fin de fichier
+     */
+    private boolean nextRecord() throws IOException {
+        return pcapng ? nextBlock() : nextPcapRecord();
+    }
+
+    private boolean nextPcapRecord() throws IOException {
+        int length;
+        while (true) {
+            if (!ensure(PCAP_RECORD_HEADER)) {
+                return false;
+            }
+            length = window.getInt(pos + 8);
+            if (length >= 0 && length <= WINDOW_BYTES - PCAP_RECORD_HEADER) {
+                break;
+            }
+            // Plus grand qu'une fenêtre : sauté et compté, la lecture continue
+            malformed++;
+            if (!skip(PCAP_RECORD_HEADER + Integer.toUnsignedLong(length))) {
+                return false;  // coupé par la fin du fichier
+            }
+        }
+        long seconds = Integer.toUnsignedLong(window.getInt(pos));
+        long fraction = Integer.toUnsignedLong(window.getInt(pos + 4));
+        if (!ensure(PCAP_RECORD_HEADER + length)) {
+            malformed++;  // enregistrement coupé par la fin du fichier
+            return false;
+        }
+        dataOffset = pos + PCAP_RECORD_HEADER;
+        capturedLength = length;
+        linkType = pcapLinkType;
+        timestamp = LocalDateTime.ofEpochSecond(seconds, (int) Math.min(999_999_999, fraction * pcapFractionNanos), zone);
+        pos += PCAP_RECORD_HEADER + length;
+        return true;
+    }
+
+    private boolean nextBlock() throws IOException {
+        while (true) {
+            if (!ensure(12)) {
+                return false;
+            }
+            int type = window.getInt(pos);
+            if (type == PCAPNG_SECTION) {
+                readSectionOrder();
+            }
+            int length = window.getInt(pos + 4);
+            if (Integer.compareUnsigned(length, 12) < 0 || (length & 3) != 0) {
+                throw new IOException("bloc pcapng invalide (longueur " + Integer.toUnsignedLong(length)
+                    + ") à l'octet " + (windowStart + pos));
+            }
+            if (Integer.compareUnsigned(length, WINDOW_BYTES) > 0) {
+                // Plus grand qu'une fenêtre : sauté et compté, la lecture continue
+                malformed++;
+                if (!skip(Integer.toUnsignedLong(length))) {
+                    return false;
+                }
+                continue;
+            }
+            if (!ensure(length)) {
+                malformed++;
+                return false;
+            }
+            int start = pos;
+            pos += length;
+            switch (type) {
+                case PCAPNG_SECTION -> interfaces.clear();
+                case BLOCK_INTERFACE -> interfaces.add(readInterface(start, length));
+                case BLOCK_ENHANCED_PACKET -> {
+                    if (packetRecord(start, length, window.getInt(start + 8),
+                            window.getInt(start + 12), window.getInt(start + 16), window.getInt(start + 20), 28)) {
+                        return true;
+                    }
+                }
+                case BLOCK_PACKET_OBSOLETE -> {
+                    if (packetRecord(start, length, Short.toUnsignedInt(window.getShort(start + 8)),
+                            window.getInt(start + 12), window.getInt(start + 16), window.getInt(start + 20), 28)) {
+                        return true;
+                    }
+                }
+                case BLOCK_SIMPLE_PACKET -> {
+                    if (interfaces.isEmpty()) {
+                        malformed++;
+                        continue;
+                    }
+                    dataOffset = start + 12;
+                    capturedLength = Math.min(window.getInt(start + 8), length - 16);
+                    if (capturedLength < 0) {
+                        capturedLength = length - 16;
+                    }
+                    linkType = interfaces.get(0).linkType();
+                    timestamp = null;  // pas d'horodatage dans ce bloc
+                    return true;
+                }
+                default -> {
+                    // blocs de statistiques, de noms, personnalisés... ignorés
+                }
+            }
+        }
+    }
+
+    private void readSectionOrder() throws IOException {
+        int byteOrderMagic = window.order(ByteOrder.BIG_ENDIAN).getInt(pos + 8);
+        if (byteOrderMagic == PCAPNG_BYTE_ORDER) {
+            order = ByteOrder.BIG_ENDIAN;
+        } else if (Integer.reverseBytes(byteOrderMagic) == PCAPNG_BYTE_ORDER) {
+            order = ByteOrder.LITTLE_ENDIAN;
+        } else {
+            throw new IOException("section pcapng invalide à l'octet " + (windowStart + pos));
+        }
+        window.order(order);
+    }
+
+    private Interface readInterface(int start, int length) {
+        int linkType = Short.toUnsignedInt(window.getShort(start + 8));
+        boolean decimal = true;
+        int resolution = 6;  // microsecondes par défaut
+        int option = start + 16;
+        int end = start + length - 4;
+        while (option + 4 <= end) {
+            int code = Short.toUnsignedInt(window.getShort(option));
+            int optionLength = Short.toUnsignedInt(window.getShort(option + 2));
+            if (code == 0) {
+                break;
+            }
+            if (code == OPTION_TS_RESOLUTION && optionLength >= 1 && option + 4 < end) {
+                int value = window.get(option + 4) & 0xFF;
+                decimal = (value & 0x80) == 0;
+                resolution = value & 0x7F;
+            }
+            option += 4 + ((optionLength + 3) & ~3);
+        }
+        if (resolution > (decimal ? MAX_DECIMAL_RESOLUTION : MAX_BINARY_RESOLUTION)) {
+            malformed++;
+            resolution = -1;
+        }
+        return new Interface(linkType, decimal, resolution);
+    }
+
+    /**
+     * Enregistrement d'un bloc EPB ou obsolète.
+     * @return false si le bloc est invalide (compté puis ignoré)
+     */
+    private boolean packetRecord(int start, int length, int interfaceId, int high, int low, int captured, int header) {
+        if (interfaceId < 0 || interfaceId >= interfaces.size() || captured < 0 || captured > length - header - 4) {
+            malformed++;
+            return false;
+        }
+        Interface itf = interfaces.get(interfaceId);
+        try {
+            timestamp = toTimestamp((long) high << 32 | Integer.toUnsignedLong(low), itf);
+        } catch (DateTimeException e) {
+            malformed++;  // horodatage hors de la plage représentable
+            return false;
+        }
+        dataOffset = start + header;
+        capturedLength = captured;
+        linkType = itf.linkType();
+        return true;
+    }
+
+    private LocalDateTime toTimestamp(long units, Interface itf) {
+        if (itf.resolution() < 0) {
+            return null;
+        }
+        long seconds;
+        long nanos;
+        if (itf.decimal()) {
+            long perSecond = pow10(itf.resolution());
+            seconds = Long.divideUnsigned(units, perSecond);
+            long rest = Long.remainderUnsigned(units, perSecond);
+            nanos = itf.resolution() <= 9 ? rest * pow10(9 - itf.resolution()) : rest / pow10(itf.resolution() - 9);
+        } else {
+            int shift = itf.resolution();
+            seconds = shift == 0 ? units : units >>> shift;
+            // Fraction en virgule fixe sur 64 bits, puis partie haute (non signée) du produit
+            long fraction = shift == 0 ? 0 : units << (64 - shift);
+            nanos = Math.multiplyHigh(fraction, 1_000_000_000L) + ((fraction >> 63) & 1_000_000_000L);
+        }
+        if (seconds < 0) {
+            throw new DateTimeException("horodatage hors plage : " + Long.toUnsignedString(seconds) + " s");
+        }
+        return LocalDateTime.ofEpochSecond(seconds, (int) nanos, zone);
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    // ========== DÉCODAGE ==========
+
+    /**
+     * Paquet de l'enregistrement courant, ou null s'il est ignoré.
+     */
+    private Packet decodeLink() {
+        int start = dataOffset;
+        int end = dataOffset + capturedLength;
+        switch (linkType) {
+            case LINK_ETHERNET -> {
+                if (end - start < 14) {
+                    malformed++;
+                    return null;
+                }
+                int etherType = u16(start + 12);
+                int offset = start + 14;
+                while ((etherType == 0x8100 || etherType == 0x88A8 || etherType == 0x9100) && offset + 4 <= end) {
+                    etherType = u16(offset + 2);
+                    offset += 4;
+                }
+                return decodeNetwork(etherType, offset, end);
+            }
+            case LINK_RAW, LINK_RAW_BSD, LINK_RAW_OPENBSD -> {
+                if (start >= end) {
+                    malformed++;
+                    return null;
+                }
+                int version = (net.get(start) & 0xFF) >>> 4;
+                return decodeNetwork(version == 4 ? ETHERTYPE_IPV4 : version == 6 ? ETHERTYPE_IPV6 : -1, start, end);
+            }
+            case LINK_NULL, LINK_LOOP -> {
+                if (end - start < 4) {
+                    malformed++;
+                    return null;
+                }
+                // Famille d'adresses dans l'ordre de la machine de capture (NULL) ou réseau (LOOP)
+                int family = linkType == LINK_LOOP ? net.getInt(start) : window.getInt(start);
+                int etherType = family == 2 ? ETHERTYPE_IPV4
+                    : family == 24 || family == 28 || family == 30 ? ETHERTYPE_IPV6 : -1;
+                return decodeNetwork(etherType, start + 4, end);
+            }
+            case LINK_LINUX_SLL -> {
+                if (end - start < 16) {
+                    malformed++;
+                    return null;
+                }
+                return decodeNetwork(u16(start + 14), start + 16, end);
+            }
+            case LINK_LINUX_SLL2 -> {
+                if (end - start < 20) {
+                    malformed++;
+                    return null;
+                }
+                return decodeNetwork(u16(start), start + 20, end);
+            }
+            default -> {
+                skipped++;
+                return null;
+            }
+        }
+    }
+
+    private Packet decodeNetwork(int etherType, int start, int end) {
+        if (etherType == ETHERTYPE_IPV4) {
+            return decodeIPv4(start, end);
+        }
+        if (etherType == ETHERTYPE_IPV6) {
+            return decodeIPv6(start, end);
+        }
+        skipped++;
+        return null;
+    }
+
+    private Packet decodeIPv4(int start, int end) {
+        if (end - start < 20 || (net.get(start) & 0xFF) >>> 4 != 4) {
+            malformed++;
+            return null;
+        }
+        int headerLength = (net.get(start) & 0x0F) * 4;
+        int totalLength = u16(start + 2);
+        if (headerLength < 20 || headerLength > end - start || totalLength < headerLength) {
+            malformed++;
+            return null;
+        }
+        // Longueur IP : écarte le bourrage Ethernet ; capture tronquée (snaplen) : ce qui reste
+        end = Math.min(end, start + totalLength);
+        int protocol = net.get(start + 9) & 0xFF;
+        int src = net.getInt(start + 12);
+        int dest = net.getInt(start + 16);
+        boolean laterFragment = (u16(start + 6) & 0x1FFF) != 0;
+        int transport = start + headerLength;
+        if (laterFragment) {
+            return new PaquetBrut(src, dest, 0, 0, PaquetBrut.protocolName(protocol), net.slice(transport, end - transport), timestamp);
+        }
+        return decodeTransport(protocol, transport, end, src, dest, null, null);
+    }
+
+    private Packet decodeIPv6(int start, int end) {
+        if (end - start < 40 || (net.get(start) & 0xFF) >>> 4 != 6) {
+            malformed++;
+            return null;
+        }
+        int payloadLength = u16(start + 4);
+        if (payloadLength > 0) {
+            end = Math.min(end, start + 40 + payloadLength);
+        }
+        int nextHeader = net.get(start + 6) & 0xFF;
+        String src = ipv6(start + 8);
+        String dest = ipv6(start + 24);
+        int offset = start + 40;
+        boolean laterFragment = false;
+        // En-têtes d'extension : saut par saut, routage, options destination, fragment, AH
+        while (nextHeader == 0 || nextHeader == 43 || nextHeader == 60 || nextHeader == 44 || nextHeader == 51) {
+            if (offset + 8 > end) {
+                malformed++;
+                return null;
+            }
+            int following = net.get(offset) & 0xFF;
+            int length;
+            if (nextHeader == 44) {
+                laterFragment = (u16(offset + 2) & 0xFFF8) != 0;
+                length = 8;
+            } else if (nextHeader == 51) {
+                length = ((net.get(offset + 1) & 0xFF) + 2) * 4;
+            } else {
+                length = ((net.get(offset + 1) & 0xFF) + 1) * 8;
+            }
+            nextHeader = following;
+            offset += length;
+        }
+        if (offset > end) {
+            malformed++;
+            return null;
+        }
+        if (laterFragment || nextHeader == 59) {
+            return ipv6Packet(src, dest, 0, 0, PaquetBrut.protocolName(nextHeader), offset, end);
+        }
+        return decodeTransport(nextHeader, offset, end, 0, 0, src, dest);
+    }
+
+    /**
+     * @param srcText adresse IPv6 en texte, ou null pour un paquet IPv4 (adresses {@code src} et {@code dest})
+     */
+    private Packet decodeTransport(int protocol, int start, int end, int src, int dest, String srcText, String destText) {
+        int srcPort = 0;
+        int destPort = 0;
+        int payload;
+        switch (protocol) {
+            case 6 -> {
+                if (end - start < 20) {
+                    malformed++;
+                    return null;
+                }
+                srcPort = u16(start);
+                destPort = u16(start + 2);
+                int dataOffset = ((net.get(start + 12) & 0xFF) >>> 4) * 4;
+                if (dataOffset < 20 || dataOffset > end - start) {
+                    malformed++;
+                    return null;
+                }
+                payload = start + dataOffset;
+            }
+            case 17 -> {
+                if (end - start < 8) {
+                    malformed++;
+                    return null;
+                }
+                srcPort = u16(start);
+                destPort = u16(start + 2);
+                payload = start + 8;
+            }
+            case 1, 58 -> payload = Math.min(end, start + 8);
+            default -> payload = start;
+        }
+        String name = PaquetBrut.protocolName(protocol);
+        if (srcText != null) {
+            return ipv6Packet(srcText, destText, srcPort, destPort, name, payload, end);
+        }
+        return new PaquetBrut(src, dest, srcPort, destPort, name, net.slice(payload, end - payload), timestamp);
+    }
+
+    private Packet ipv6Packet(String src, String dest, int srcPort, int destPort, String protocol, int start, int end) {
+        byte[] payload = new byte[end - start];
+        net.get(start, payload);
+        return new PaquetSimple(src, dest, srcPort, destPort, protocol,
+            new String(payload, StandardCharsets.UTF_8), timestamp);
+    }
+
+    private String ipv6(int offset) {
+        byte[] address = new byte[16];
+        net.get(offset, address);
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);  // impossible : 16 octets
+        }
+    }
+
+    private int u16(int index) {
+        return Short.toUnsignedInt(net.getShort(index));
+    }
+
+    // ========== FERMETURE ET STATISTIQUES ==========
+
+    /**
+     * Ferme le fichier. Les paquets déjà rendus restent lisibles : leurs
+     * tranches gardent la projection en vie.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    public Stats stats() {
+        return new Stats(records, packets, skipped, malformed, bytes);
+    }
+
+    public boolean isPcapng() {
+        return pcapng;
+    }
+}
@@ -0,0 +1,362 @@
+package com.mycompany.parfeu.Model.Mahran.initialPacketFiltering;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chaîne de filtres compilée : les filtres enregistrés (tous doivent accepter
+ * le paquet) sont fusionnés par type en étapes spécialisées, puis réordonnés
+ * à l'exécution.
+ *
+ * Compilation :
+ * - tous les {@link IPFilter} en une étape (IP source et destination exigées),
+ * - tous les {@link PortFilter} en une étape (comparaisons d'entiers primitifs),
+ * - tous les {@link ProtocolFilter} en une étape,
+ * - les autres filtres (y compris les sous-classes) restent des étapes distinctes.
+ * Des contraintes incompatibles (deux ports destination différents…) donnent
+ * une étape qui refuse tout.
+ *
+ * Profilage : un paquet sur {@value #SAMPLE_INTERVAL} en moyenne (tirage par thread)
+ * passe par toutes les étapes, chronométrées une à une. Environ toutes les
+ * {@value #SAMPLES_PER_REORDER} mesures, les étapes (indépendantes : un ET logique)
+ * sont triées par coût / taux de rejet croissant : la moins chère et la plus
+ * sélective en premier.
+ *
+ * Utilisable depuis plusieurs threads, sans verrou : rejets et mesures dans des
+ * compteurs répartis (LongAdder), nouvel ordre publié par CAS.
+ *
+ * @author ZGARNI
+ */
+public final class FilterChain {
+
+    static final int SAMPLE_INTERVAL = 256;
+    static final int SAMPLES_PER_REORDER = 64;
+
+    // Taux de rejet plancher : une étape qui ne rejette jamais passe en dernier
+    private static final double MIN_REJECTION_RATE = 1e-6;
+
+    /**
+     * Statistiques d'un filtre compilé.
+     * @param rejected paquets rejetés par ce filtre (dépend de l'ordre d'évaluation)
+     * @param sampledRejectionRate taux de rejet mesuré sur les échantillons (tous filtres évalués)
+     * @param averageNanos coût moyen mesuré, en nanosecondes
+     */
+    public record FilterStats(String name, long rejected, double sampledRejectionRate, double averageNanos) {
+    }
+
+    /**
+     * Étape compilée.
+     */
+    private abstract static class Stage {
+        final String name;
+        // Compteur réparti : incrémenté depuis plusieurs threads (lots parallèles, pipeline),
+        // payé seulement sur le chemin de rejet
+        final LongAdder rejected = new LongAdder();
+        // Mesures d'échantillonnage (compteurs répartis, pas de contention entre threads)
+        final LongAdder samples = new LongAdder();
+        final LongAdder sampleRejections = new LongAdder();
+        final LongAdder sampleNanos = new LongAdder();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        abstract boolean accept(Packet packet);
+
+        double rank() {
+            long count = samples.sum();
+            if (count == 0) {
+                return Double.MAX_VALUE;
+            }
+            double rejectionRate = Math.max(MIN_REJECTION_RATE, (double) sampleRejections.sum() / count);
+            return ((double) sampleNanos.sum() / count) / rejectionRate;
+        }
+    }
+
+    private static final class IpStage extends Stage {
+        private final String srcIP;   // null = ignore
+        private final String destIP;  // null = ignore
+        // Forme entière (notation canonique seulement), pour les paquets bruts
+        private final long srcAddress;
+        private final long destAddress;
+
+        IpStage(String srcIP, String destIP) {
+            super(IPFilter.class.getSimpleName());
+            this.srcIP = srcIP;
+            this.destIP = destIP;
+            this.srcAddress = IPv4Address.tryParseCanonical(srcIP);
+            this.destAddress = IPv4Address.tryParseCanonical(destIP);
+        }
+
+        @Override
+        boolean accept(Packet packet) {
+            if (packet instanceof PaquetBrut raw) {
+                // Adresses brutes toujours canoniques : comparaison d'entiers, sans chaîne
+                return (srcIP == null || srcAddress == raw.getSrcAddress())
+                    && (destIP == null || destAddress == raw.getDestAddress());
+            }
+            return (srcIP == null || srcIP.equals(packet.getSrcIP()))
+                && (destIP == null || destIP.equals(packet.getDestIP()));
+        }
+    }
+
+    private static final class PortStage extends Stage {
+        private final int srcPort;   // PortFilter.ANY = ignore
+        private final int destPort;
+
+        PortStage(int srcPort, int destPort) {
+            super(PortFilter.class.getSimpleName());
+            this.srcPort = srcPort;
+            this.destPort = destPort;
+        }
+
+        @Override
+        boolean accept(Packet packet) {
+            return (srcPort == PortFilter.ANY || srcPort == packet.getSrcPort())
+                && (destPort == PortFilter.ANY || destPort == packet.getDestPort());
+        }
+    }
+
+    private static final class ProtocolStage extends Stage {
+        private final String protocol;
+
+        ProtocolStage(String protocol) {
+            super(ProtocolFilter.class.getSimpleName());
+            this.protocol = protocol;
+        }
+
+        @Override
+        boolean accept(Packet packet) {
+            String actual = packet.getProtocol();
+            return protocol == actual || protocol.equalsIgnoreCase(actual);
+        }
+    }
+
+    private static final class RejectAllStage extends Stage {
+        RejectAllStage(String name) {
+            super(name);
+        }
+
+        @Override
+        boolean accept(Packet packet) {
+            return false;
+        }
+    }
+
+    private static final class FilterStage extends Stage {
+        private final AbstractFilter filter;
+
+        FilterStage(AbstractFilter filter) {
+            super(filter.getClass().getSimpleName());
+            this.filter = filter;
+        }
+
+        @Override
+        boolean accept(Packet packet) {
+            return filter.accept(packet);
+        }
+    }
+
+    private static final FilterChain EMPTY = new FilterChain(new Stage[0]);
+
+    private final AtomicReference<Stage[]> stages;
+
+    private FilterChain(Stage[] stages) {
+        this.stages = new AtomicReference<>(stages);
+    }
+
+    /**
+     * Chaîne sans filtre (accepte tout).
+     */
+    public static FilterChain empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compile les filtres (ET logique, dans n'importe quel ordre).
+     */
+    public static FilterChain compile(List<? extends AbstractFilter> filters) {
+        Objects.requireNonNull(filters, "filters ne peut pas être null");
+        if (filters.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<Stage> stages = new ArrayList<>();
+        String[] ip = new String[2];
+        int[] port = { PortFilter.ANY, PortFilter.ANY };
+        String protocol = null;
+        boolean hasIp = false;
+        boolean hasPort = false;
+        boolean hasProtocol = false;
+        String conflict = null;
+
+        for (AbstractFilter filter : filters) {
+            Objects.requireNonNull(filter, "filter ne peut pas être null");
+            // Classe exacte : une sous-classe peut redéfinir accept(), elle n'est jamais fusionnée
+            if (filter.getClass() == IPFilter.class) {
+                IPFilter ipFilter = (IPFilter) filter;
+                hasIp = true;
+                if (!merge(ip, 0, ipFilter.srcIP()) || !merge(ip, 1, ipFilter.destIP())) {
+                    conflict = IPFilter.class.getSimpleName();
+                }
+            } else if (filter.getClass() == PortFilter.class) {
+                PortFilter portFilter = (PortFilter) filter;
+                hasPort = true;
+                if (!merge(port, 0, portFilter.srcPort()) || !merge(port, 1, portFilter.destPort())) {
+                    conflict = PortFilter.class.getSimpleName();
+                }
+            } else if (filter.getClass() == ProtocolFilter.class) {
+                ProtocolFilter protocolFilter = (ProtocolFilter) filter;
+                hasProtocol = true;
+                if (protocol == null) {
+                    protocol = protocolFilter.protocol();
+                } else if (!protocol.equalsIgnoreCase(protocolFilter.protocol())) {
+                    conflict = ProtocolFilter.class.getSimpleName();
+                }
+            } else {
+                stages.add(new FilterStage(filter));
+            }
+        }
+
+        if (conflict != null) {
+            // Aucun paquet ne peut satisfaire tous les filtres
+            return new FilterChain(new Stage[] { new RejectAllStage(conflict) });
+        }
+        if (hasIp) {
+            stages.add(0, new IpStage(ip[0], ip[1]));
+        }
+        if (hasPort) {
+            stages.add(0, new PortStage(port[0], port[1]));
+        }
+        if (hasProtocol) {
+            stages.add(new ProtocolStage(protocol));
+        }
+        return new FilterChain(stages.toArray(new Stage[0]));
+    }
+
+    private static boolean merge(String[] merged, int slot, String value) {
+        if (value == null) {
+            return true;
+        }
+        if (merged[slot] == null) {
+            merged[slot] = value;
+            return true;
+        }
+        return merged[slot].equals(value);
+    }
+
+    private static boolean merge(int[] merged, int slot, int value) {
+        if (value == PortFilter.ANY) {
+            return true;
+        }
+        if (merged[slot] == PortFilter.ANY) {
+            merged[slot] = value;
+            return true;
+        }
+        return merged[slot] == value;
+    }
+
+    // ========== ÉVALUATION ==========
+
+    /**
+     * Nom du filtre qui rejette le paquet, ou null si tous l'acceptent.
+     */
+    public String reject(Packet packet) {
+        Stage[] current = stages.get();
+        if (current.length == 0) {
+            return null;
+        }
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0) {
+            sample(current, packet);
+        }
+        for (Stage stage : current) {
+            if (!stage.accept(packet)) {
+                stage.rejected.increment();
+                return stage.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Vrai si tous les filtres acceptent le paquet.
+     */
+    public boolean accept(Packet packet) {
+        return reject(packet) == null;
+    }
+
+    /**
+     * Évalue et chronomètre toutes les étapes (taux de rejet non conditionné par l'ordre).
+     */
+    private void sample(Stage[] current, Packet packet) {
+        // Coût de la mesure elle-même, retranché (sinon il écrase les écarts entre étapes)
+        long timerNanos = -System.nanoTime() + System.nanoTime();
+        for (Stage stage : current) {
+            long start = System.nanoTime();
+            boolean accepted = stage.accept(packet);
+            stage.sampleNanos.add(Math.max(0, System.nanoTime() - start - timerNanos));
+            stage.samples.increment();
+            if (!accepted) {
+                stage.sampleRejections.increment();
+            }
+        }
+        if (current.length > 1 && ThreadLocalRandom.current().nextInt(SAMPLES_PER_REORDER) == 0) {
+            reorder(current);
+        }
+    }
+
+    /**
+     * Trie les étapes par coût / taux de rejet croissant (ordre optimal d'un ET
+     * de prédicats indépendants). La nouvelle chaîne est publiée d'un bloc, par
+     * CAS : si un autre thread vient de la réordonner, son ordre est gardé.
+     */
+    private void reorder(Stage[] current) {
+        // Rangs figés avant le tri : les mesures continuent d'évoluer pendant ce temps
+        Map<Stage, Double> ranks = new IdentityHashMap<>();
+        for (Stage stage : current) {
+            ranks.put(stage, stage.rank());
+        }
+        Stage[] sorted = current.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(ranks::get));
+        stages.compareAndSet(current, sorted);
+    }
+
+    // ========== STATISTIQUES ==========
+
+    /**
+     * Statistiques par filtre compilé, dans l'ordre d'évaluation courant.
+     */
+    public List<FilterStats> statistics() {
+        Stage[] current = stages.get();
+        List<FilterStats> result = new ArrayList<>(current.length);
+        for (Stage stage : current) {
+            long count = stage.samples.sum();
+            result.add(new FilterStats(
+                stage.name,
+                stage.rejected.sum(),
+                count == 0 ? 0 : (double) stage.sampleRejections.sum() / count,
+                count == 0 ? 0 : (double) stage.sampleNanos.sum() / count
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * Nombre d'étapes après fusion.
+     */
+    public int size() {
+        return stages.get().length;
+    }
+}
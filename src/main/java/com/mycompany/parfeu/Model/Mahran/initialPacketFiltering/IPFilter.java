@@ -4,7 +4,9 @@
  */
 package com.mycompany.parfeu.Model.Mahran.initialPacketFiltering;
 
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
 import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut;
 
 /**
  * Filtrage basé sur l'adresse IP source ou destination.
@@ -13,14 +15,22 @@ public class IPFilter extends AbstractFilter {
 
     private final String srcIP;   // null = ignore
     private final String destIP;  // null = ignore
+    private final long srcAddress;
+    private final long destAddress;
 
     public IPFilter(String srcIP, String destIP) {
         this.srcIP = srcIP;
         this.destIP = destIP;
+        this.srcAddress = IPv4Address.tryParseCanonical(srcIP);
+        this.destAddress = IPv4Address.tryParseCanonical(destIP);
     }
 
     @Override
     public boolean accept(Packet packet) {
+        if (packet instanceof PaquetBrut raw) {
+            return (srcIP == null || srcAddress == raw.getSrcAddress())
+                && (destIP == null || destAddress == raw.getDestAddress());
+        }
         if (srcIP != null && !srcIP.equals(packet.getSrcIP())) {
             return false;
         }
@@ -29,4 +39,12 @@ public class IPFilter extends AbstractFilter {
         }
         return true;
     }
+
+    String srcIP() {
+        return srcIP;
+    }
+
+    String destIP() {
+        return destIP;
+    }
 }
@@ -11,23 +11,29 @@ import com.mycompany.parfeu.Model.Mahran.generator.Packet;
  */
 public class PortFilter extends AbstractFilter {
 
-    private final Integer srcPort;  // null = ignore
-    private final Integer destPort; // null = ignore
+    static final int ANY = -1;
+
+    private final int srcPort;   // ANY = ignore
+    private final int destPort;  // ANY = ignore
 
     public PortFilter(Integer srcPort, Integer destPort) {
-        this.srcPort = srcPort;
-        this.destPort = destPort;
+        this.srcPort = srcPort != null ? srcPort : ANY;
+        this.destPort = destPort != null ? destPort : ANY;
     }
 
     @Override
     public boolean accept(Packet packet) {
-        if (srcPort != null && !srcPort.equals(packet.getSrcPort())) {
-            return false;
-        }
-        if (destPort != null && !destPort.equals(packet.getDestPort())) {
-            return false;
-        }
-        return true;
+        // Comparaison d'entiers primitifs (pas de Integer.equals ni d'autoboxing)
+        return (srcPort == ANY || srcPort == packet.getSrcPort())
+            && (destPort == ANY || destPort == packet.getDestPort());
+    }
+
+    int srcPort() {
+        return srcPort;
+    }
+
+    int destPort() {
+        return destPort;
     }
 }
 
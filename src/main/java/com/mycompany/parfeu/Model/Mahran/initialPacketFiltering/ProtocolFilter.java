@@ -18,6 +18,12 @@ public class ProtocolFilter extends AbstractFilter {
 
     @Override
     public boolean accept(Packet packet) {
-        return protocol.equalsIgnoreCase(packet.getProtocol());
+        String actual = packet.getProtocol();
+        // Même instance (constantes, chaînes internées) : pas de comparaison caractère par caractère
+        return protocol == actual || protocol.equalsIgnoreCase(actual);
+    }
+
+    String protocol() {
+        return protocol;
     }
 }
@@ -0,0 +1,165 @@
+package com.mycompany.parfeu.Model.Mahran.initialPacketFiltering;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Règle de classification sur le 5-uplet d'un paquet : préfixes IPv4 source et
+ * destination, plages de ports, protocole (null = tous), priorité et action.
+ *
+ * Plus la priorité est petite, plus la règle passe tôt (à priorité égale :
+ * ordre d'ajout). Une règle sans critère correspond à tous les paquets ;
+ * les critères s'ajoutent par copie :
+ * <pre>
+ *   Rule.of("ssh-admin", 10, Actions.ACCEPT).fromSource("10.0.0.0/8").destPort(22).protocol("TCP")
+ * </pre>
+ * Un paquet dont l'adresse n'est pas une IPv4 ne correspond qu'aux règles
+ * sans préfixe (/0) sur cette adresse.
+ *
+ * @param <A> type de l'action associée (Action du moteur de décision)
+ * @author ZGARNI
+ */
+public record Rule<A>(
+    String name,
+    int priority,
+    int srcAddress,
+    int srcPrefixLength,
+    int destAddress,
+    int destPrefixLength,
+    int srcPortFrom,
+    int srcPortTo,
+    int destPortFrom,
+    int destPortTo,
+    String protocol,
+    A action
+) {
+
+    static final int MAX_PORT = 65535;
+
+    public Rule {
+        Objects.requireNonNull(name, "name ne peut pas être null");
+        Objects.requireNonNull(action, "action ne peut pas être null");
+        checkPrefixLength(srcPrefixLength);
+        checkPrefixLength(destPrefixLength);
+        checkPortRange(srcPortFrom, srcPortTo);
+        checkPortRange(destPortFrom, destPortTo);
+        // Forme canonique : bits hors préfixe à zéro, protocole en majuscules
+        srcAddress &= mask(srcPrefixLength);
+        destAddress &= mask(destPrefixLength);
+        protocol = protocol == null ? null : protocol.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Règle correspondant à tous les paquets.
+     */
+    public static <A> Rule<A> of(String name, int priority, A action) {
+        return new Rule<>(name, priority, 0, 0, 0, 0, 0, MAX_PORT, 0, MAX_PORT, null, action);
+    }
+
+    /**
+     * @param cidr IP exacte ("10.0.0.5") ou préfixe ("10.0.0.0/8")
+     */
+    public Rule<A> fromSource(String cidr) {
+        long prefix = parseCidr(cidr);
+        return new Rule<>(name, priority, (int) (prefix >>> 8), (int) (prefix & 0xFF), destAddress, destPrefixLength,
+            srcPortFrom, srcPortTo, destPortFrom, destPortTo, protocol, action);
+    }
+
+    /**
+     * @param cidr IP exacte ("10.0.0.5") ou préfixe ("10.0.0.0/8")
+     */
+    public Rule<A> toDestination(String cidr) {
+        long prefix = parseCidr(cidr);
+        return new Rule<>(name, priority, srcAddress, srcPrefixLength, (int) (prefix >>> 8), (int) (prefix & 0xFF),
+            srcPortFrom, srcPortTo, destPortFrom, destPortTo, protocol, action);
+    }
+
+    public Rule<A> srcPorts(int from, int to) {
+        return new Rule<>(name, priority, srcAddress, srcPrefixLength, destAddress, destPrefixLength,
+            from, to, destPortFrom, destPortTo, protocol, action);
+    }
+
+    public Rule<A> destPorts(int from, int to) {
+        return new Rule<>(name, priority, srcAddress, srcPrefixLength, destAddress, destPrefixLength,
+            srcPortFrom, srcPortTo, from, to, protocol, action);
+    }
+
+    public Rule<A> destPort(int port) {
+        return destPorts(port, port);
+    }
+
+    public Rule<A> protocol(String protocol) {
+        Objects.requireNonNull(protocol, "protocol ne peut pas être null");
+        return new Rule<>(name, priority, srcAddress, srcPrefixLength, destAddress, destPrefixLength,
+            srcPortFrom, srcPortTo, destPortFrom, destPortTo, protocol, action);
+    }
+
+    // ========== CORRESPONDANCE ==========
+
+    /**
+     * Vérifie la règle critère par critère (évaluation linéaire, référence du classifieur).
+     */
+    public boolean matches(Packet packet) {
+        return matches(packet.getSrcAddress(), packet.getDestAddress(),
+            packet.getSrcPort(), packet.getDestPort(), packet.getProtocol());
+    }
+
+    /**
+     * @param src adresse source, ou {@link IPv4Address#INVALID}
+     * @param dest adresse destination, ou {@link IPv4Address#INVALID}
+     */
+    public boolean matches(long src, long dest, int srcPort, int destPort, String packetProtocol) {
+        return matchesPrefix(src, srcAddress, srcPrefixLength)
+            && matchesPrefix(dest, destAddress, destPrefixLength)
+            && srcPort >= srcPortFrom && srcPort <= srcPortTo
+            && destPort >= destPortFrom && destPort <= destPortTo
+            && (protocol == null || protocol.equalsIgnoreCase(packetProtocol));
+    }
+
+    private static boolean matchesPrefix(long address, int prefix, int length) {
+        if (length == 0) {
+            return true;
+        }
+        return address != IPv4Address.INVALID && ((int) address & mask(length)) == prefix;
+    }
+
+    static int mask(int prefixLength) {
+        return prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+    }
+
+    /**
+     * Adresse dans les bits 8 à 39, longueur de préfixe dans les 8 bits de poids faible.
+     */
+    private static long parseCidr(String cidr) {
+        Objects.requireNonNull(cidr, "cidr ne peut pas être null");
+        int slash = cidr.indexOf('/');
+        long address = IPv4Address.tryParse(cidr, 0, slash < 0 ? cidr.length() : slash);
+        int length = 32;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                length = -1;
+            }
+        }
+        if (address == IPv4Address.INVALID || length < 0 || length > 32) {
+            throw new IllegalArgumentException("Préfixe IPv4 invalide: " + cidr);
+        }
+        return (address << 8) | length;
+    }
+
+    private static void checkPrefixLength(int length) {
+        if (length < 0 || length > 32) {
+            throw new IllegalArgumentException("Longueur de préfixe invalide: " + length);
+        }
+    }
+
+    private static void checkPortRange(int from, int to) {
+        if (from < 0 || to > MAX_PORT || from > to) {
+            throw new IllegalArgumentException("Plage de ports invalide: " + from + "-" + to);
+        }
+    }
+}
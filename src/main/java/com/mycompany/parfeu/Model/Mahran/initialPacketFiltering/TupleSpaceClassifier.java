@@ -0,0 +1,308 @@
+package com.mycompany.parfeu.Model.Mahran.initialPacketFiltering;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Classifieur de paquets par espaces de tuples (Tuple Space Search).
+ *
+ * Chaque règle est rangée dans le tuple de sa « forme » : longueurs des
+ * préfixes IP source et destination, port source et port destination exacts
+ * ou non, protocole précisé ou non. Dans un tuple, toutes les règles masquent
+ * le paquet de la même façon : une seule recherche dans une table de hachage
+ * suffit. Les plages de ports (ni port unique, ni tous les ports) ne font pas
+ * partie de la clé : elles sont vérifiées dans le seau trouvé, ce qui évite le
+ * découpage en préfixes et la multiplication des tuples.
+ *
+ * Classification : une recherche par tuple, les tuples étant parcourus par
+ * meilleure priorité croissante ; le parcours s'arrête dès qu'aucun tuple
+ * restant ne peut contenir de règle plus prioritaire que celle trouvée.
+ * Le coût dépend du nombre de tuples (quelques dizaines en pratique), pas
+ * du nombre de règles ; seules des règles de mêmes préfixes différant par
+ * leurs plages de ports partagent un seau.
+ *
+ * Immuable après construction ({@link #build}) : lectures concurrentes sans verrou ;
+ * une nouvelle politique se traduit par un nouveau classifieur.
+ *
+ * @param <A> type de l'action des règles
+ * @author ZGARNI
+ */
+public final class TupleSpaceClassifier<A> {
+
+    private static final int NO_PROTOCOL = 0;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private static final TupleSpaceClassifier<Object> EMPTY =
+        new TupleSpaceClassifier<>(emptyRules(), new int[0], new Tuple[0], Map.of());
+
+    // Règles par ordre de passage (priorité, puis ordre d'ajout) : rang = position
+    private final Rule<A>[] rules;
+    // Plages de ports par rang (srcFrom, srcTo, destFrom, destTo), lues sans déréférencer la règle
+    private final int[] portRanges;
+    private final Tuple[] tuples;
+    // Protocoles cités par les règles (majuscules) vers identifiant > 0
+    private final Map<String, Integer> protocolIds;
+
+    private TupleSpaceClassifier(Rule<A>[] rules, int[] portRanges, Tuple[] tuples, Map<String, Integer> protocolIds) {
+        this.rules = rules;
+        this.portRanges = portRanges;
+        this.tuples = tuples;
+        this.protocolIds = protocolIds;
+    }
+
+    /**
+     * Classifieur sans règle (aucun paquet ne correspond).
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> TupleSpaceClassifier<A> empty() {
+        return (TupleSpaceClassifier<A>) EMPTY;
+    }
+
+    /**
+     * Construit le classifieur ; l'ordre de la collection départage les priorités égales.
+     */
+    public static <A> TupleSpaceClassifier<A> build(Collection<Rule<A>> rules) {
+        Objects.requireNonNull(rules, "rules ne peut pas être null");
+        if (rules.isEmpty()) {
+            return empty();
+        }
+        Rule<A>[] ordered = rules.toArray(emptyRules());
+        for (Rule<A> rule : ordered) {
+            Objects.requireNonNull(rule, "rule ne peut pas être null");
+        }
+        // Tri stable : à priorité égale, l'ordre d'ajout est conservé
+        Arrays.sort(ordered, Comparator.comparingInt(Rule::priority));
+
+        Map<String, Integer> protocolIds = new HashMap<>();
+        Map<Integer, Tuple> tuplesByShape = new HashMap<>();
+        int[] portRanges = new int[ordered.length * 4];
+
+        for (int rank = 0; rank < ordered.length; rank++) {
+            Rule<A> rule = ordered[rank];
+            portRanges[rank * 4] = rule.srcPortFrom();
+            portRanges[rank * 4 + 1] = rule.srcPortTo();
+            portRanges[rank * 4 + 2] = rule.destPortFrom();
+            portRanges[rank * 4 + 3] = rule.destPortTo();
+
+            int protocolId = NO_PROTOCOL;
+            if (rule.protocol() != null) {
+                protocolId = protocolIds.computeIfAbsent(rule.protocol(), p -> protocolIds.size() + 1);
+            }
+            boolean exactSrcPort = rule.srcPortFrom() == rule.srcPortTo();
+            boolean exactDestPort = rule.destPortFrom() == rule.destPortTo();
+            int shape = rule.srcPrefixLength() | rule.destPrefixLength() << 6
+                | (exactSrcPort ? 1 << 12 : 0) | (exactDestPort ? 1 << 13 : 0)
+                | (protocolId != NO_PROTOCOL ? 1 << 14 : 0);
+
+            Tuple tuple = tuplesByShape.computeIfAbsent(shape, Tuple::new);
+            tuple.put(key1(rule.srcAddress(), rule.destAddress()),
+                      key2(exactSrcPort ? rule.srcPortFrom() : 0, exactDestPort ? rule.destPortFrom() : 0, protocolId),
+                      rank);
+        }
+
+        Tuple[] tuples = tuplesByShape.values().toArray(new Tuple[0]);
+        Arrays.sort(tuples, Comparator.comparingInt(t -> t.bestRank));
+        return new TupleSpaceClassifier<>(ordered, portRanges, tuples, Map.copyOf(protocolIds));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <A> Rule<A>[] emptyRules() {
+        return (Rule<A>[]) new Rule[0];
+    }
+
+    // ========== CLASSIFICATION ==========
+
+    /**
+     * Règle la plus prioritaire correspondant au paquet, ou null.
+     */
+    public Rule<A> classify(Packet packet) {
+        if (tuples.length == 0) {
+            return null;
+        }
+        return classify(packet.getSrcAddress(), packet.getDestAddress(),
+                        packet.getSrcPort(), packet.getDestPort(), packet.getProtocol());
+    }
+
+    /**
+     * @param src adresse source, ou {@link IPv4Address#INVALID}
+     * @param dest adresse destination, ou {@link IPv4Address#INVALID}
+     */
+    public Rule<A> classify(long src, long dest, int srcPort, int destPort, String protocol) {
+        int protocolId = protocolId(protocol);
+        boolean srcValid = src != IPv4Address.INVALID;
+        boolean destValid = dest != IPv4Address.INVALID;
+        int best = NO_MATCH;
+
+        for (Tuple tuple : tuples) {
+            if (tuple.bestRank >= best) {
+                break;  // tuples suivants : règles toutes moins prioritaires
+            }
+            if ((!srcValid && tuple.srcMask != 0) || (!destValid && tuple.destMask != 0)
+                    || (tuple.hasProtocol && protocolId == NO_PROTOCOL)) {
+                continue;
+            }
+            int[] bucket = tuple.get(
+                key1((int) src & tuple.srcMask, (int) dest & tuple.destMask),
+                key2(tuple.exactSrcPort ? srcPort : 0, tuple.exactDestPort ? destPort : 0,
+                     tuple.hasProtocol ? protocolId : NO_PROTOCOL));
+            if (bucket == null) {
+                continue;
+            }
+            // Rangs croissants : la première règle dont les ports correspondent
+            for (int i = 1; i <= bucket[0]; i++) {
+                int rank = bucket[i];
+                if (rank >= best) {
+                    break;
+                }
+                int base = rank * 4;
+                if (srcPort >= portRanges[base] && srcPort <= portRanges[base + 1]
+                        && destPort >= portRanges[base + 2] && destPort <= portRanges[base + 3]) {
+                    best = rank;
+                    break;
+                }
+            }
+        }
+        return best == NO_MATCH ? null : rules[best];
+    }
+
+    private int protocolId(String protocol) {
+        if (protocol == null || protocolIds.isEmpty()) {
+            return NO_PROTOCOL;
+        }
+        Integer id = protocolIds.get(protocol);
+        if (id == null) {
+            id = protocolIds.get(protocol.toUpperCase(Locale.ROOT));
+        }
+        return id == null ? NO_PROTOCOL : id;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    /**
+     * Nombre de tuples (recherches au pire par paquet).
+     */
+    public int tupleCount() {
+        return tuples.length;
+    }
+
+    /**
+     * Règles par ordre de passage.
+     */
+    public List<Rule<A>> rules() {
+        return List.of(rules);
+    }
+
+    // ========== CLÉS ==========
+
+    private static long key1(int src, int dest) {
+        return ((long) src << 32) | (dest & 0xFFFFFFFFL);
+    }
+
+    private static long key2(int srcPort, int destPort, int protocolId) {
+        return ((long) srcPort << 48) | ((long) destPort << 32) | (protocolId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Table de hachage à adressage ouvert des règles d'une même forme :
+     * clé (deux longs) vers seau de rangs croissants.
+     */
+    private static final class Tuple {
+        final int srcMask;
+        final int destMask;
+        final boolean exactSrcPort;
+        final boolean exactDestPort;
+        final boolean hasProtocol;
+        int bestRank = NO_MATCH;
+
+        private long[] keys1 = new long[16];
+        private long[] keys2 = new long[16];
+        // Seau : {nombre, rang, rang...} ; null = case vide
+        private int[][] buckets = new int[16][];
+        private int size;
+
+        Tuple(int shape) {
+            srcMask = Rule.mask(shape & 0x3F);
+            destMask = Rule.mask((shape >>> 6) & 0x3F);
+            exactSrcPort = (shape & (1 << 12)) != 0;
+            exactDestPort = (shape & (1 << 13)) != 0;
+            hasProtocol = (shape & (1 << 14)) != 0;
+        }
+
+        /**
+         * Ajoute un rang (appelé par rangs croissants).
+         */
+        void put(long key1, long key2, int rank) {
+            if ((size + 1) * 2 > buckets.length) {
+                grow();
+            }
+            int slot = slot(key1, key2, buckets.length);
+            while (buckets[slot] != null) {
+                if (keys1[slot] == key1 && keys2[slot] == key2) {
+                    int[] bucket = buckets[slot];
+                    if (bucket[0] + 1 == bucket.length) {
+                        bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                        buckets[slot] = bucket;
+                    }
+                    bucket[++bucket[0]] = rank;
+                    return;
+                }
+                slot = (slot + 1) & (buckets.length - 1);
+            }
+            keys1[slot] = key1;
+            keys2[slot] = key2;
+            buckets[slot] = new int[] { 1, rank };
+            size++;
+            bestRank = Math.min(bestRank, rank);
+        }
+
+        int[] get(long key1, long key2) {
+            int mask = buckets.length - 1;
+            int slot = slot(key1, key2, buckets.length);
+            int[] bucket;
+            while ((bucket = buckets[slot]) != null) {
+                if (keys1[slot] == key1 && keys2[slot] == key2) {
+                    return bucket;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private void grow() {
+            long[] oldKeys1 = keys1;
+            long[] oldKeys2 = keys2;
+            int[][] oldBuckets = buckets;
+            int capacity = oldBuckets.length * 2;
+            keys1 = new long[capacity];
+            keys2 = new long[capacity];
+            buckets = new int[capacity][];
+            for (int i = 0; i < oldBuckets.length; i++) {
+                if (oldBuckets[i] != null) {
+                    int slot = slot(oldKeys1[i], oldKeys2[i], capacity);
+                    while (buckets[slot] != null) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    keys1[slot] = oldKeys1[i];
+                    keys2[slot] = oldKeys2[i];
+                    buckets[slot] = oldBuckets[i];
+                }
+            }
+        }
+
+        private static int slot(long key1, long key2, int capacity) {
+            long hash = key1 * 0x9E3779B97F4A7C15L + key2 * 0xC2B2AE3D27D4EB4FL;
+            return (int) (hash ^ (hash >>> 29) ^ (hash >>> 47)) & (capacity - 1);
+        }
+    }
+}
@@ -23,7 +23,9 @@ import java.util.Objects;
 public class PacketAnalyzer {
     private final int minSize;
     private final int maxSize;
-    private final List<String> suspiciousWords;
+    private List<String> suspiciousWords;
+    // Automate compilé une fois, remplacé uniquement si la liste change
+    private volatile SuspiciousWordMatcher wordMatcher;
 
     /**
      * Constructeur simplifié (sans signatures).
@@ -37,6 +39,7 @@ public class PacketAnalyzer {
         this.suspiciousWords = new ArrayList<>(
             Objects.requireNonNull(suspiciousWords, "suspiciousWords ne peut pas être null")
         );
+        this.wordMatcher = SuspiciousWordMatcher.compile(this.suspiciousWords);
         
         System.out.println("✓ Analyseur de paquets initialisé (sans signatures)");
     }
@@ -48,20 +51,41 @@ public class PacketAnalyzer {
      */
     public List<DetectionSignal> analyze(Packet packet) {
         List<DetectionSignal> signals = new ArrayList<>();
+        analyze(packet, signals);
+        return signals;
+    }
 
+    /**
+     * Analyse un paquet en ajoutant les signaux détectés à une liste fournie
+     * (réutilisable d'un paquet à l'autre, sans allocation).
+     */
+    public void analyze(Packet packet, List<DetectionSignal> signals) {
         // Détection par taille
         SizeSignal sizeSig = SizeSignal.analyze(packet, minSize, maxSize);
         if (sizeSig != null) signals.add(sizeSig);
 
         // Détection par mots suspects (avec Stream + Lambda)
-        WordPatternSignal wordSig = WordPatternSignal.analyze(packet, suspiciousWords);
+        WordPatternSignal wordSig = WordPatternSignal.analyze(packet, wordMatcher);
         if (wordSig != null) signals.add(wordSig);
 
         // Analyse heuristique
         HeuristicSignal heurSig = HeuristicSignal.analyze(packet);
         if (heurSig != null) signals.add(heurSig);
+    }
 
-        return signals;
+    /**
+     * Met à jour la liste de mots suspects (après modification de la configuration).
+     * L'automate n'est recompilé que si la liste a réellement changé.
+     * @param words nouvelle liste de mots suspects
+     */
+    public synchronized void updateSuspiciousWords(List<String> words) {
+        Objects.requireNonNull(words, "words ne peut pas être null");
+        if (words.equals(suspiciousWords)) {
+            return;
+        }
+        List<String> copy = new ArrayList<>(words);
+        this.wordMatcher = SuspiciousWordMatcher.compile(copy);
+        this.suspiciousWords = copy;
     }
 
     /**
@@ -0,0 +1,281 @@
+package com.mycompany.parfeu.Model.Rawen.analyzer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Automate d'Aho-Corasick précompilé pour la recherche de mots suspects.
+ *
+ * Construit une seule fois à partir de la liste de mots (insensible à la casse),
+ * il trouve toutes les occurrences en UN seul passage sur le payload, quel que
+ * soit le nombre de mots. Le résultat est identique à
+ * {@code payload.toLowerCase().contains(word.toLowerCase())} appliqué à chaque mot :
+ * mêmes mots, même ordre, doublons compris.
+ *
+ * L'automate est un DFA complet sur des classes de caractères : seuls les
+ * caractères présents dans les mots ont une colonne, tous les autres
+ * ramènent à la racine. Instance immuable, partageable entre threads.
+ *
+ * @author ZGARNI
+ */
+public final class SuspiciousWordMatcher {
+
+    private final List<String> words;          // liste d'origine (ordre et doublons conservés)
+    private final int[] wordPattern;           // mot -> motif minuscule distinct
+    private final int patternCount;
+    private final boolean hasEmptyPattern;     // "" est contenu dans tout payload
+
+    private final int[] asciiClass;            // caractère ASCII -> classe (0 = hors motifs)
+    private final char[] otherChars;           // caractères non ASCII des motifs (triés)
+    private final int[] otherClass;
+    private final int classCount;
+
+    private final int[] delta;                 // état * classCount + classe -> état suivant
+    private final int[][] output;              // motifs se terminant exactement dans l'état
+    private final int[] dictionaryLink;        // état suffixe le plus proche ayant une sortie (-1 sinon)
+
+    private SuspiciousWordMatcher(List<String> words) {
+        this.words = Collections.unmodifiableList(new ArrayList<>(words));
+        this.wordPattern = new int[words.size()];
+
+        // 1. Motifs distincts en minuscules
+        Map<String, Integer> patternIds = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            String pattern = Objects.requireNonNull(words.get(i), "mot suspect null").toLowerCase();
+            Integer id = patternIds.get(pattern);
+            if (id == null) {
+                id = patterns.size();
+                patternIds.put(pattern, id);
+                patterns.add(pattern);
+            }
+            wordPattern[i] = id;
+        }
+        this.patternCount = patterns.size();
+        this.hasEmptyPattern = patternIds.containsKey("");
+
+        // 2. Alphabet réduit aux caractères des motifs
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                alphabet.add(pattern.charAt(i));
+            }
+        }
+        this.asciiClass = new int[128];
+        List<Character> nonAscii = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClass[c] = nextClass++;
+            } else {
+                nonAscii.add(c);
+            }
+        }
+        this.otherChars = new char[nonAscii.size()];
+        this.otherClass = new int[nonAscii.size()];
+        for (int i = 0; i < nonAscii.size(); i++) {
+            otherChars[i] = nonAscii.get(i);
+            otherClass[i] = nextClass++;
+        }
+        this.classCount = nextClass;
+
+        // 3. Trie
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        children.add(newRow());
+        outputs.add(new ArrayList<>());
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classOf(pattern.charAt(i));
+                int next = children.get(state)[cls];
+                if (next <= 0) {
+                    next = children.size();
+                    children.get(state)[cls] = next;
+                    children.add(newRow());
+                    outputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            outputs.get(state).add(p);
+        }
+
+        // 4. Liens d'échec (BFS) et DFA complet
+        int stateCount = children.size();
+        this.delta = new int[stateCount * classCount];
+        this.output = new int[stateCount][];
+        this.dictionaryLink = new int[stateCount];
+        int[] fail = new int[stateCount];
+        Arrays.fill(dictionaryLink, -1);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classCount; cls++) {
+            int child = children.get(0)[cls];
+            if (child > 0) {
+                fail[child] = 0;
+                delta[cls] = child;
+                queue.add(child);
+            } else {
+                delta[cls] = 0;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int suffix = fail[state];
+            dictionaryLink[state] = outputs.get(suffix).isEmpty() ? dictionaryLink[suffix] : suffix;
+            for (int cls = 0; cls < classCount; cls++) {
+                int child = children.get(state)[cls];
+                if (child > 0) {
+                    fail[child] = delta[suffix * classCount + cls];
+                    delta[state * classCount + cls] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * classCount + cls] = delta[suffix * classCount + cls];
+                }
+            }
+        }
+        for (int state = 0; state < stateCount; state++) {
+            output[state] = outputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int[] newRow() {
+        return new int[classCount];
+    }
+
+    /**
+     * Compile la liste de mots suspects.
+     * @param suspiciousWords mots à rechercher (ordre et doublons conservés dans les résultats)
+     */
+    public static SuspiciousWordMatcher compile(List<String> suspiciousWords) {
+        return new SuspiciousWordMatcher(
+            Objects.requireNonNull(suspiciousWords, "suspiciousWords ne peut pas être null")
+        );
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i >= 0 ? otherClass[i] : 0;
+    }
+
+    /**
+     * Recherche tous les mots suspects présents dans le payload.
+     * @return mots trouvés, dans l'ordre de la liste compilée (liste vide si aucun)
+     */
+    public List<String> findWords(String payload) {
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        boolean[] matched = new boolean[patternCount];
+        int remaining = patternCount;
+
+        String text = payload.toLowerCase();
+        int state = 0;
+        for (int i = 0; i < text.length() && remaining > 0; i++) {
+            state = delta[state * classCount + classOf(text.charAt(i))];
+            for (int s = output[state].length > 0 ? state : dictionaryLink[state]; s > 0; s = dictionaryLink[s]) {
+                for (int pattern : output[s]) {
+                    if (!matched[pattern]) {
+                        matched[pattern] = true;
+                        remaining--;
+                    }
+                }
+            }
+        }
+        return collect(matched);
+    }
+
+    /**
+     * Variante sur les octets UTF-8 du payload (de la position à la limite, sans
+     * les consommer), parcourus directement, minuscules comprises, sans construire
+     * de chaîne. Si aucun motif n'a de caractère non ASCII, un octet non ASCII
+     * ramène à la racine (le caractère décodé n'a pas de colonne) ; sinon, ou
+     * devant 'İ' / 'K' (signe kelvin), dont la minuscule est ASCII, le payload
+     * est décodé et confié à {@link #findWords(String)}.
+     */
+    public List<String> findWords(ByteBuffer payload) {
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        boolean[] matched = new boolean[patternCount];
+        int remaining = patternCount;
+
+        int state = 0;
+        int end = payload.limit();
+        for (int i = payload.position(); i < end && remaining > 0; i++) {
+            byte b = payload.get(i);
+            if (b < 0) {
+                if (otherChars.length > 0 || lowersToAscii(payload, i, end)) {
+                    return findWords(decode(payload));
+                }
+                state = 0;
+                continue;
+            }
+            int c = b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+            state = delta[state * classCount + asciiClass[c]];
+            for (int s = output[state].length > 0 ? state : dictionaryLink[state]; s > 0; s = dictionaryLink[s]) {
+                for (int pattern : output[s]) {
+                    if (!matched[pattern]) {
+                        matched[pattern] = true;
+                        remaining--;
+                    }
+                }
+            }
+        }
+        return collect(matched);
+    }
+
+    /**
+     * Vrai si l'octet i commence 'İ' (C4 B0) ou 'K' (E2 84 AA).
+     */
+    private static boolean lowersToAscii(ByteBuffer payload, int i, int end) {
+        byte b = payload.get(i);
+        if (b == (byte) 0xC4) {
+            return i + 1 < end && payload.get(i + 1) == (byte) 0xB0;
+        }
+        if (b == (byte) 0xE2) {
+            return i + 2 < end && payload.get(i + 1) == (byte) 0x84 && payload.get(i + 2) == (byte) 0xAA;
+        }
+        return false;
+    }
+
+    private static String decode(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(payload.position(), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> collect(boolean[] matched) {
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            int pattern = wordPattern[i];
+            if (matched[pattern] || (hasEmptyPattern && words.get(i).isEmpty())) {
+                found.add(words.get(i));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Liste de mots compilée (non modifiable).
+     */
+    public List<String> getWords() {
+        return words;
+    }
+}
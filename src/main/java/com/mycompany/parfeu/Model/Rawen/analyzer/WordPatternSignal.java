@@ -4,6 +4,7 @@
  */
 package com.mycompany.parfeu.Model.Rawen.analyzer;
 import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -23,20 +24,16 @@ public final class WordPatternSignal implements DetectionSignal {
     }
 
     /**
-     * Analyse le payload pour détecter des mots suspects.
+     * Analyse le payload avec un automate précompilé (un seul passage).
+     * Un {@link PaquetBrut} est analysé sur ses octets, sans décoder le payload.
      * @param packet paquet à analyser
-     * @param suspiciousWords liste des mots à rechercher
+     * @param matcher automate construit une fois pour la liste de mots
      * @return WordPatternSignal si mots trouvés, null sinon
      */
-    public static WordPatternSignal analyze(Packet packet, List<String> suspiciousWords) {
-        List<String> found = new ArrayList<>();
-        String payload = packet.getPayload().toLowerCase();
-        
-        for (String word : suspiciousWords) {
-            if (payload.contains(word.toLowerCase())) {
-                found.add(word);
-            }
-        }
+    public static WordPatternSignal analyze(Packet packet, SuspiciousWordMatcher matcher) {
+        List<String> found = packet instanceof PaquetBrut raw
+            ? matcher.findWords(raw.getPayloadBytes())
+            : matcher.findWords(packet.getPayload());
         
         if (!found.isEmpty()) {
             return new WordPatternSignal(found, found.size());
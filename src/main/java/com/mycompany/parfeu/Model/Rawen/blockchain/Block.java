@@ -1,8 +1,11 @@
 package com.mycompany.parfeu.Model.Rawen.blockchain;
 
 import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -12,9 +15,9 @@ import java.util.List;
 public record Block(
     int index,
     List<DecisionResult> decisions,
-    String previousHash,
+    BlockHash previousHash,
     long timestamp,
-    String hash,
+    BlockHash hash,
     // Informations supplémentaires pour l'historique
     String srcIP,
     String destIP,
@@ -24,9 +27,32 @@ public record Block(
     String payload,
     int size,
     LocalDateTime packetTimestamp,
-    String action  // Stocker l'action (ACCEPT, DROP, ALERT, LOG)
+    String action,  // Stocker l'action (ACCEPT, DROP, ALERT, LOG)
+    BlockHash merkleRoot,  // Racine de Merkle des décisions (null pour un bloc ancien format)
+    int hashVersion
 ) {
 
+    /**
+     * Préfixe des lignes de décision (blocs en lot) dans l'historique CSV.
+     */
+    public static final String DECISION_CSV_PREFIX = "D";
+
+    /**
+     * Hash calculé sur une chaîne de caractères (historiques antérieurs) :
+     * non recalculable, conservé tel quel jusqu'à migration.
+     */
+    public static final int HASH_VERSION_LEGACY = 1;
+
+    /**
+     * Hash de l'en-tête binaire canonique (voir {@link #calculateHash}).
+     */
+    public static final int HASH_VERSION = 2;
+
+    // version (1) | index (4) | timestamp (8), big-endian ; suivis des deux hash de 32 octets
+    private static final int HEADER_PREFIX_LENGTH = 1 + Integer.BYTES + Long.BYTES;
+    private static final ThreadLocal<ByteBuffer> HEADER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(HEADER_PREFIX_LENGTH));
+
     /**
      *  Constructeur pour RESTAURATION depuis CSV
      * Accepte le hash existant SANS le recalculer
@@ -34,9 +60,9 @@ public record Block(
     public Block(
         int index,
         List<DecisionResult> decisions,
-        String previousHash,
+        BlockHash previousHash,
         long timestamp,
-        String hash,
+        BlockHash hash,
         String srcIP,
         String destIP,
         int srcPort,
@@ -46,6 +72,8 @@ public record Block(
         int size,
         LocalDateTime packetTimestamp,
         String action,
+        BlockHash merkleRoot,
+        int hashVersion,
         boolean fromCSV
     ) {
         this(
@@ -62,20 +90,29 @@ public record Block(
             payload,
             size,
             packetTimestamp,
-            action
+            action,
+            merkleRoot,
+            hashVersion
         );
     }
 
     /**
      * Constructeur pour créer un nouveau bloc avec décisions.
+     * Le hash engage la racine de Merkle : un bloc de N décisions coûte
+     * un seul hash d'en-tête, chaque décision restant prouvable individuellement.
      */
-    public Block(int index, List<DecisionResult> decisions, String previousHash) {
+    public Block(int index, List<DecisionResult> decisions, BlockHash previousHash) {
+        this(index, decisions, previousHash, System.currentTimeMillis(), MerkleTree.rootHash(decisions));
+    }
+
+    private Block(int index, List<DecisionResult> decisions, BlockHash previousHash,
+                  long timestamp, BlockHash merkleRoot) {
         this(
             index,
             Collections.unmodifiableList(decisions),
             previousHash,
-            System.currentTimeMillis(),
-            calculateHash(index, decisions, previousHash, System.currentTimeMillis()),
+            timestamp,
+            calculateHash(index, previousHash, timestamp, merkleRoot),
             extractSrcIP(decisions),
             extractDestIP(decisions),
             extractSrcPort(decisions),
@@ -84,7 +121,9 @@ public record Block(
             extractPayload(decisions),
             extractSize(decisions),
             extractPacketTimestamp(decisions),
-            extractAction(decisions)
+            extractAction(decisions),
+            merkleRoot,
+            HASH_VERSION
         );
     }
     
@@ -93,12 +132,13 @@ public record Block(
      */
     public static Block createGenesisBlock() {
         long timestamp = System.currentTimeMillis();
+        BlockHash merkleRoot = MerkleTree.rootHash(Collections.emptyList());
         return new Block(
             0,
             Collections.emptyList(),
-            "0",
+            BlockHash.ZERO,
             timestamp,
-            calculateHash(0, Collections.emptyList(), "0", timestamp),
+            calculateHash(0, BlockHash.ZERO, timestamp, merkleRoot),
             "0.0.0.0",
             "0.0.0.0",
             0,
@@ -107,35 +147,90 @@ public record Block(
             "Genesis Block",
             0,
             LocalDateTime.now(),
-            "NONE"
+            "NONE",
+            merkleRoot,
+            HASH_VERSION
+        );
+    }
+
+    /**
+     * Copie du bloc rescellée au format courant : racine de Merkle recalculée
+     * depuis les décisions, hash recalculé sur le nouveau hash précédent.
+     * Index, horodatage et champs affichés sont conservés.
+     */
+    public Block reseal(BlockHash newPreviousHash) {
+        BlockHash root = MerkleTree.rootHash(decisions);
+        return new Block(
+            index,
+            decisions,
+            newPreviousHash,
+            timestamp,
+            calculateHash(index, newPreviousHash, timestamp, root),
+            srcIP,
+            destIP,
+            srcPort,
+            destPort,
+            protocol,
+            payload,
+            size,
+            packetTimestamp,
+            action,
+            root,
+            HASH_VERSION
         );
     }
 
     /**
-     * Calcule le hash SHA-256 du bloc.
+     * Indique si le hash peut être recalculé (format courant).
      */
-    private static String calculateHash(int index, List<DecisionResult> decisions, 
-                                       String previousHash, long timestamp) {
+    public boolean isCurrentHashVersion() {
+        return hashVersion == HASH_VERSION;
+    }
+
+    /**
+     * Hash SHA-256 de l'en-tête binaire canonique :
+     * version | index | timestamp | hash précédent | racine de Merkle.
+     * Indépendant du charset et de la locale ; sans allocation hors du hash retourné.
+     */
+    static BlockHash calculateHash(int index, BlockHash previousHash, long timestamp, BlockHash merkleRoot) {
+        ByteBuffer header = HEADER.get();
+        header.clear();
+        header.put((byte) HASH_VERSION).putInt(index).putLong(timestamp);
+        
+        MessageDigest digest = MerkleTree.sha256();
+        digest.update(header.array(), 0, HEADER_PREFIX_LENGTH);
+        previousHash.updateDigest(digest);
+        merkleRoot.updateDigest(digest);
+        
+        byte[] hash = new byte[BlockHash.LENGTH];
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            StringBuilder dataToHash = new StringBuilder();
-            dataToHash.append(index)
-                     .append(previousHash)
-                     .append(timestamp);
-            
-            for (DecisionResult decision : decisions) {
-                dataToHash.append(decision.toString());
-            }
-            
-            byte[] hashBytes = digest.digest(dataToHash.toString().getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                hexString.append(String.format("%02x", b));
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur de hachage SHA-256 : " + e.getMessage());
+            digest.digest(hash, 0, BlockHash.LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Erreur de hachage SHA-256 : " + e.getMessage(), e);
         }
+        return new BlockHash(hash);
+    }
+
+    /**
+     * Recalcule le hash et le compare à celui stocké (toujours faux pour un bloc ancien format).
+     */
+    public boolean hasValidHash() {
+        return isCurrentHashVersion() && merkleRoot != null
+            && calculateHash(index, previousHash, timestamp, merkleRoot).equals(hash);
+    }
+
+    /**
+     * Nombre de décisions du bloc.
+     */
+    public int decisionCount() {
+        return decisions.size();
+    }
+
+    /**
+     * Indique si le bloc regroupe plusieurs décisions (mode lot).
+     */
+    public boolean isBatch() {
+        return decisions.size() > 1;
     }
     
     // Méthodes d'extraction des informations du premier paquet
@@ -199,7 +294,7 @@ public record Block(
     public String toString() {
         return String.format("Block #%d [%s:%d -> %s:%d | %s | action=%s | hash=%s, decisions=%d, timestamp=%d]",
             index, srcIP, srcPort, destIP, destPort, protocol, action,
-            hash.substring(0, Math.min(10, hash.length())) + "...", 
+            hash.toHex().substring(0, Math.min(10, hash.toHex().length())) + "...", 
             decisions.size(), timestamp);
     }
     
@@ -207,7 +302,7 @@ public record Block(
      Convertit le bloc en format CSV avec l'ACTION
      */
     public String toCSV() {
-        return String.format("%d,%s,%s,%d,%d,%s,%d,%d,\"%s\",%s,%s,%s",
+        return String.format("%d,%s,%s,%d,%d,%s,%d,%d,\"%s\",%s,%s,%s,%s,%d,%d",
             index,
             srcIP,
             destIP,
@@ -217,16 +312,41 @@ public record Block(
             size,
             timestamp,
             packetTimestamp.toString(),
-            previousHash,
-            hash,
-            action
+            previousHash.toHex(),
+            hash.toHex(),
+            action,
+            merkleRoot == null ? "" : merkleRoot.toHex(),
+            decisions.size(),
+            hashVersion
         );
     }
-    
+
+    /**
+     * Lignes CSV des décisions d'un bloc en lot (vide pour un bloc d'une décision :
+     * la ligne du bloc porte déjà ses champs).
+     * Format : D,index bloc,srcIP,destIP,srcPort,destPort,protocole,taille,"timestamp",action,score
+     */
+    public List<String> decisionsToCSV() {
+        if (!isBatch()) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>(decisions.size());
+        for (DecisionResult decision : decisions) {
+            var packet = decision.getPacket();
+            lines.add(DECISION_CSV_PREFIX + "," + index + "," +
+                packet.getSrcIP() + "," + packet.getDestIP() + "," +
+                packet.getSrcPort() + "," + packet.getDestPort() + "," +
+                packet.getProtocol() + "," + packet.getSize() + ",\"" +
+                packet.getTimestamp() + "\"," + decision.getAction() + "," +
+                decision.getTotalScore());
+        }
+        return lines;
+    }
+
     /**
      *  En-tête CSV avec colonne ACTION
      */
     public static String getCSVHeader() {
-        return "Index,Source IP,Destination IP,Source Port,Destination Port,Protocol,Size,Block Timestamp,Packet Timestamp,Previous Hash,Hash,Action";
+        return "Index,Source IP,Destination IP,Source Port,Destination Port,Protocol,Size,Block Timestamp,Packet Timestamp,Previous Hash,Hash,Action,Merkle Root,Decisions,Hash Version";
     }
 }
\ No newline at end of file
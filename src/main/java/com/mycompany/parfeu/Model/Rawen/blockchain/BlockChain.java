@@ -1,21 +1,40 @@
 package com.mycompany.parfeu.Model.Rawen.blockchain;
 
 import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
 
 /**
  * 🔥 VERSION FINALE - Gère correctement le Genesis restauré
  */
 public class BlockChain {
-    private final LinkedList<Block> chain;
+    private static final Logger LOG = Logging.getLogger(BlockChain.class);
+    
+    // Remplacée (jamais vidée sur place) : les vues déjà données restent cohérentes
+    private volatile BlockList chain;
     private int blockIndex;
     private boolean isRestoring = false;  // 🔥 NOUVEAU : Flag de restauration
+    
+    // Mode lot : jusqu'à batchSize décisions par bloc, ou batchDelayMillis d'attente
+    private int batchSize = 1;
+    private long batchDelayMillis = 0;
+    private final List<DecisionResult> pending = new ArrayList<>();
+    private long pendingSince;
+    
+    // Dernier bloc dont la validité a été vérifiée (validations incrémentales)
+    private volatile ChainValidator.Checkpoint validationCheckpoint;
+
+    // Éviction des corps de blocs déjà sur disque (pas de chargeur = tout garder en mémoire)
+    private IntFunction<Block> bodyLoader;
+    private int residentBlocks;
 
     public BlockChain() {
-        chain = new LinkedList<>();
+        chain = new BlockList(null);
         blockIndex = 0;
         
         // 🔥 NE PAS créer le Genesis maintenant
@@ -27,28 +46,125 @@ public class BlockChain {
      */
     public void addBlock(List<DecisionResult> decisions) {
         if (decisions == null || decisions.isEmpty()) {
-            System.out.println("Aucune décision à ajouter");
+            LOG.debug("Aucune décision à ajouter");
             return;
         }
         
         // 🔥 Créer le Genesis si la chaîne est vide
         if (chain.isEmpty()) {
-            Block genesis = new Block(blockIndex++, new ArrayList<>(), "0");
+            Block genesis = new Block(blockIndex++, new ArrayList<>(), BlockHash.ZERO);
             chain.add(genesis);
-            System.out.println("✓ Genesis créé : " + genesis.hash());
+            LOG.info(() -> "Genesis créé : " + genesis.hash());
         }
         
-        String previousHash = chain.getLast().hash();
+        BlockHash previousHash = chain.hashAt(chain.size() - 1);
         Block newBlock = new Block(blockIndex++, decisions, previousHash);
         chain.add(newBlock);
-        System.out.println("✓ Nouveau bloc ajouté : #" + newBlock.index());
+        LOG.debug(() -> "Nouveau bloc ajouté : #" + newBlock.index());
     }
 
     /**
-     * Ajoute une seule décision (helper method).
+     * Ajoute une seule décision.
+     * Sans lot (défaut) : un bloc par décision. En mode lot : la décision est mise
+     * en attente et le bloc est scellé quand le lot est plein ou trop ancien.
      */
     public void addDecision(DecisionResult decision) {
-        addBlock(List.of(decision));
+        if (batchSize <= 1) {
+            addBlock(List.of(decision));
+            return;
+        }
+        if (pending.isEmpty()) {
+            pendingSince = System.currentTimeMillis();
+        }
+        pending.add(decision);
+        if (pending.size() >= batchSize) {
+            flushPending();
+        } else {
+            flushIfDue();
+        }
+    }
+
+    // ========== MODE LOT ==========
+
+    /**
+     * Configure le regroupement des décisions en blocs.
+     * @param maxDecisions nombre maximal de décisions par bloc (1 = un bloc par décision)
+     * @param maxDelayMillis âge maximal d'un lot en attente (0 = pas de limite de temps)
+     */
+    public void setBatching(int maxDecisions, long maxDelayMillis) {
+        if (maxDecisions < 1) {
+            throw new IllegalArgumentException("maxDecisions doit être >= 1: " + maxDecisions);
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("maxDelayMillis doit être >= 0: " + maxDelayMillis);
+        }
+        flushPending();
+        this.batchSize = maxDecisions;
+        this.batchDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Scelle les décisions en attente dans un bloc.
+     * @return le bloc créé, ou null si rien n'était en attente
+     */
+    public Block flushPending() {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        addBlock(new ArrayList<>(pending));
+        pending.clear();
+        return chain.last();
+    }
+
+    /**
+     * Scelle le lot en attente s'il a dépassé le délai maximal.
+     * @return le bloc créé, ou null
+     */
+    public Block flushIfDue() {
+        if (batchDelayMillis > 0 && !pending.isEmpty()
+                && System.currentTimeMillis() - pendingSince >= batchDelayMillis) {
+            return flushPending();
+        }
+        return null;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // ========== PREUVES D'INCLUSION ==========
+
+    /**
+     * Preuve qu'une décision appartient à un bloc : log2(n) hash,
+     * vérifiable sans les autres décisions du bloc.
+     * @throws IllegalArgumentException si le bloc ou la décision n'existe pas
+     * @throws IllegalStateException si le bloc date d'avant les racines de Merkle
+     */
+    public MerkleTree.Proof proveInclusion(int blockIndex, int decisionIndex) {
+        Block block = findBlock(blockIndex);
+        if (block == null) {
+            throw new IllegalArgumentException("Bloc introuvable: #" + blockIndex);
+        }
+        if (block.merkleRoot() == null) {
+            throw new IllegalStateException("Bloc #" + blockIndex + " sans racine de Merkle (ancien format)");
+        }
+        return MerkleTree.prove(MerkleTree.leafHashes(block.decisions()), decisionIndex);
+    }
+
+    /**
+     * Vérifie une preuve d'inclusion contre la racine engagée par le bloc.
+     */
+    public static boolean verifyInclusion(DecisionResult decision, MerkleTree.Proof proof, Block block) {
+        if (decision == null || proof == null || block == null
+                || proof.leafCount() != block.decisionCount()) {
+            return false;
+        }
+        return MerkleTree.verify(MerkleTree.leafHash(decision), proof, block.merkleRoot());
+    }
+
+    private Block findBlock(int index) {
+        int position = chain.positionOf(index);
+        return position >= 0 ? chain.get(position) : null;
     }
 
     /**
@@ -56,9 +172,9 @@ public class BlockChain {
      */
     public void startRestoration() {
         isRestoring = true;
-        chain.clear();  // Vider complètement la chaîne
+        chain = newBlockList();  // Vider complètement la chaîne
         blockIndex = 0;
-        System.out.println("🔄 Mode restauration activé");
+        LOG.debug("Mode restauration activé");
     }
 
     /**
@@ -66,13 +182,13 @@ public class BlockChain {
      */
     public void finishRestoration() {
         isRestoring = false;
-        System.out.println("✅ Mode restauration terminé");
+        LOG.debug(() -> "Mode restauration terminé : " + chain.size() + " blocs");
         
         // Si aucun bloc restauré, créer le Genesis
         if (chain.isEmpty()) {
-            Block genesis = new Block(blockIndex++, new ArrayList<>(), "0");
+            Block genesis = new Block(blockIndex++, new ArrayList<>(), BlockHash.ZERO);
             chain.add(genesis);
-            System.out.println("✓ Genesis créé (aucun bloc restauré)");
+            LOG.info("Genesis créé (aucun bloc restauré)");
         }
     }
 
@@ -81,7 +197,7 @@ public class BlockChain {
      */
     public void restoreBlock(Block block) {
         if (block == null) {
-            System.err.println("⚠️ Tentative de restauration d'un bloc null");
+            LOG.warn("Tentative de restauration d'un bloc null");
             return;
         }
         
@@ -93,45 +209,95 @@ public class BlockChain {
             blockIndex = block.index() + 1;
         }
         
-        // Afficher les détails
-        if (block.index() == 0) {
-            System.out.println("  ✓ Genesis restauré: hash=" + 
-                             block.hash().substring(0, 16) + "...");
-        } else {
-            System.out.println("  ✓ Bloc #" + block.index() + " restauré | " +
-                             block.srcIP() + " -> " + block.destIP() + 
-                             " | Action: " + block.action());
+        // Pas d'affichage par bloc : la restauration peut porter sur des millions de blocs
+    }
+
+    /**
+     * Indique si des blocs portent encore un hash ancien format.
+     */
+    public boolean hasLegacyHashes() {
+        for (Block block : chain.view()) {
+            if (!block.isCurrentHashVersion()) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
-     * 🔥 Vérifie l'intégrité de la chaîne
+     * Migre la chaîne vers le hash binaire courant : chaque bloc est rescellé
+     * (racine de Merkle et hash recalculés) sur le hash rescellé du précédent.
+     * Les hash changent : l'historique sur disque doit ensuite être réécrit.
+     * @return le nombre de blocs rescellés (0 si la chaîne est déjà au format courant)
      */
-    public boolean isChainValid() {
-        if (chain.isEmpty()) {
-            System.out.println("⚠️ Blockchain vide");
-            return true;
+    public int migrateHashes() {
+        if (!hasLegacyHashes()) {
+            return 0;
         }
-        
-        Block previous = null;
-        
-        for (Block current : chain) {
-            if (previous != null) {
-                // Vérifier que previousHash correspond
-                if (!current.previousHash().equals(previous.hash())) {
-                    System.err.println("❌ Chaîne invalide entre bloc #" + 
-                        previous.index() + " et #" + current.index());
-                    System.err.println("   Bloc #" + previous.index() + " hash    : " + previous.hash());
-                    System.err.println("   Bloc #" + current.index() + " prevHash: " + current.previousHash());
-                    System.err.println("   🔍 Les hash ne correspondent pas !");
-                    return false;
-                }
+        flushPending();
+        // Tout en mémoire jusqu'à la réécriture de l'historique (positions sur disque périmées)
+        BlockList resealed = new BlockList(null);
+        BlockHash previousHash = BlockHash.ZERO;
+        for (Block block : chain.view()) {
+            Block migrated = block.reseal(previousHash);
+            resealed.add(migrated);
+            previousHash = migrated.hash();
+        }
+        chain = resealed;
+        validationCheckpoint = null;
+        return resealed.size();
+    }
+
+    /**
+     * 🔥 Vérifie l'intégrité de la chaîne (incrémental, sans affichage).
+     * Le détail (premier bloc invalide, cause) est fourni par {@link #validate}.
+     */
+    public boolean isChainValid() {
+        return validate(null).valid();
+    }
+
+    /**
+     * Valide les blocs ajoutés depuis le dernier point de reprise (tous sans point
+     * de reprise) ; hash recalculés en parallèle. Si la chaîne a été réécrite
+     * depuis, un audit complet est fait. Le point de reprise avance si la chaîne est valide.
+     */
+    public ChainValidator.Result validate(ChainValidator.ProgressListener listener) {
+        ChainValidator.Checkpoint from = validationCheckpoint;
+        BlockList blocks = chain;
+        int position = from != null ? blocks.positionOf(from.blockIndex()) : -1;
+        if (position >= 0 && blocks.hashAt(position).equals(from.hash())) {
+            ChainValidator.Result result = ChainValidator.validate(blocks.slice(position, blocks.size()), from, listener);
+            if (result.failure() != ChainValidator.Failure.CHECKPOINT) {
+                return remember(result);
             }
-            previous = current;
         }
-        
-        System.out.println("✅ Blockchain valide - " + chain.size() + " blocs vérifiés");
-        return true;
+        return audit(listener);
+    }
+
+    /**
+     * Audit complet : recalcule tous les blocs depuis le Genesis.
+     */
+    public ChainValidator.Result audit(ChainValidator.ProgressListener listener) {
+        return remember(ChainValidator.validate(chain.view(), null, listener));
+    }
+
+    private ChainValidator.Result remember(ChainValidator.Result result) {
+        validationCheckpoint = result.valid() ? result.checkpoint() : null;
+        return result;
+    }
+
+    /**
+     * Dernier point de reprise de validation (null = aucun bloc vérifié).
+     */
+    public ChainValidator.Checkpoint getValidationCheckpoint() {
+        return validationCheckpoint;
+    }
+
+    /**
+     * Reprend un point de reprise persisté : les blocs qu'il couvre ne seront pas recalculés.
+     */
+    public void setValidationCheckpoint(ChainValidator.Checkpoint checkpoint) {
+        this.validationCheckpoint = checkpoint;
     }
 
     /**
@@ -144,9 +310,9 @@ public class BlockChain {
         System.out.println("Nombre de blocs : " + chain.size());
         System.out.println();
         
-        for (Block block : chain) {
+        for (Block block : chain.view()) {
             System.out.println("Bloc #" + block.index());
-            System.out.println("  Hash     : " + block.hash().substring(0, 32) + "...");
+            System.out.println("  Hash     : " + block.hash().toHex().substring(0, 32) + "...");
             System.out.println("  PrevHash : " + block.previousHash());
             System.out.println("  Action   : " + block.action());
             
@@ -162,10 +328,23 @@ public class BlockChain {
     }
 
     /**
-     * Retourne une copie de la chaîne.
+     * Retourne la chaîne en lecture seule (vue sans copie, figée à la taille
+     * du moment ; les blocs ajoutés ensuite n'y apparaissent pas).
      */
     public List<Block> getChain() {
-        return new ArrayList<>(chain);
+        return chain.view();
+    }
+
+    /**
+     * Retourne les blocs dont l'index est strictement supérieur à {@code index},
+     * dans l'ordre de la chaîne (vue en lecture seule, sans copie).
+     * Recherche dichotomique : le coût ne dépend pas de la taille de la chaîne.
+     */
+    public List<Block> getBlocksAfter(int index) {
+        BlockList blocks = chain;
+        int position = blocks.positionOf(index);
+        int from = position >= 0 ? position + 1 : -position - 1;
+        return blocks.slice(from, blocks.size());
     }
 
     /**
@@ -174,10 +353,49 @@ public class BlockChain {
     public Block getLastBlock() {
         if (chain.isEmpty()) {
             // Créer le Genesis si nécessaire
-            Block genesis = new Block(blockIndex++, new ArrayList<>(), "0");
+            Block genesis = new Block(blockIndex++, new ArrayList<>(), BlockHash.ZERO);
             chain.add(genesis);
         }
-        return chain.getLast();
+        return chain.last();
+    }
+
+    // ========== ÉVICTION ==========
+
+    /**
+     * Active l'éviction : au-delà des {@code residentBlocks} derniers blocs, le corps
+     * des blocs déjà persistés est libéré (seuls index et hash restent en mémoire)
+     * et relu à la demande par {@code loader} (position dans l'historique = position
+     * dans la chaîne). Le nombre de blocs résidents s'applique au prochain
+     * {@link #markPersisted}, le chargeur à la prochaine restauration.
+     */
+    public void enableEviction(int residentBlocks, IntFunction<Block> loader) {
+        if (residentBlocks < 1) {
+            throw new IllegalArgumentException("residentBlocks doit être >= 1");
+        }
+        this.residentBlocks = residentBlocks;
+        this.bodyLoader = Objects.requireNonNull(loader, "loader ne peut pas être null");
+    }
+
+    /**
+     * Signale que les blocs jusqu'à l'index donné (inclus) sont sur disque :
+     * leur corps devient évinçable.
+     * @return le nombre de blocs évincés
+     */
+    public int markPersisted(int index) {
+        BlockList blocks = chain;
+        int position = blocks.positionOf(index);
+        return position >= 0 ? blocks.evictBefore(position + 1, residentBlocks) : 0;
+    }
+
+    /**
+     * Nombre de blocs dont le corps est en mémoire.
+     */
+    public int getResidentCount() {
+        return chain.residentCount();
+    }
+
+    private BlockList newBlockList() {
+        return new BlockList(bodyLoader);
     }
 
     /**
@@ -191,13 +409,15 @@ public class BlockChain {
      * Efface tous les blocs sauf le genesis.
      */
     public void clear() {
-        chain.clear();
+        chain = newBlockList();
+        validationCheckpoint = null;
+        pending.clear();
         blockIndex = 0;
         
         // Recréer le genesis
-        Block genesis = new Block(blockIndex++, new ArrayList<>(), "0");
+        Block genesis = new Block(blockIndex++, new ArrayList<>(), BlockHash.ZERO);
         chain.add(genesis);
         
-        System.out.println("✓ Blockchain réinitialisée avec Genesis");
+        LOG.info("Blockchain réinitialisée avec Genesis");
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.mycompany.parfeu.Model.Rawen.blockchain;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Hash SHA-256 immuable (32 octets).
+ *
+ * Stocké en binaire ; l'hexadécimal n'est produit que pour l'affichage et le CSV.
+ * {@link #ZERO} (hash précédent du Genesis) s'écrit "0", comme dans les anciens historiques.
+ */
+public final class BlockHash {
+
+    public static final int LENGTH = 32;
+
+    /**
+     * Hash précédent du Genesis.
+     */
+    public static final BlockHash ZERO = new BlockHash(new byte[LENGTH]);
+
+    private final byte[] bytes;
+
+    /**
+     * Sans copie : réservé au paquetage, le tableau ne doit plus être modifié.
+     */
+    BlockHash(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Un hash SHA-256 fait " + LENGTH + " octets: " + bytes.length);
+        }
+        this.bytes = bytes;
+    }
+
+    public static BlockHash copyOf(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes ne peut pas être null");
+        return new BlockHash(bytes.clone());
+    }
+
+    /**
+     * Relit un hash hexadécimal ("0" = {@link #ZERO}).
+     * @throws IllegalArgumentException si la chaîne n'est pas un hash de 64 caractères hex
+     */
+    public static BlockHash fromHex(String hex) {
+        Objects.requireNonNull(hex, "hex ne peut pas être null");
+        if (hex.equals("0")) {
+            return ZERO;
+        }
+        if (hex.length() != LENGTH * 2) {
+            throw new IllegalArgumentException("Hash hex de longueur invalide: " + hex.length());
+        }
+        return new BlockHash(MerkleTree.fromHex(hex));
+    }
+
+    /**
+     * Copie des octets du hash.
+     */
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * Ajoute le hash à un calcul d'empreinte, sans copie.
+     */
+    public void updateDigest(MessageDigest digest) {
+        digest.update(bytes);
+    }
+
+    /**
+     * Compare au tableau fourni sans allouer.
+     */
+    public boolean matches(byte[] other) {
+        return Arrays.equals(bytes, other);
+    }
+
+    public String toHex() {
+        return this == ZERO || Arrays.equals(bytes, ZERO.bytes) ? "0" : MerkleTree.toHex(bytes);
+    }
+
+    /**
+     * Forme courte pour l'affichage (16 premiers caractères hex).
+     */
+    public String toShortHex() {
+        String hex = toHex();
+        return hex.length() <= 16 ? hex : hex.substring(0, 16) + "...";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof BlockHash other && Arrays.equals(bytes, other.bytes));
+    }
+
+    @Override
+    public int hashCode() {
+        // Les octets d'un SHA-256 sont déjà uniformément répartis
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
@@ -0,0 +1,224 @@
+package com.mycompany.parfeu.Model.Rawen.blockchain;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Suite de blocs en ajout seul, découpée en tranches de {@value #CHUNK_SIZE} blocs,
+ * avec accès direct par position.
+ *
+ * Un seul écrivain ({@link #add}, {@link #evictBefore}) ; les lecteurs peuvent
+ * être concurrents : la taille est publiée (volatile) après l'écriture du bloc,
+ * un lecteur ne voit donc jamais de case vide. {@link #view} et {@link #slice}
+ * sont des vues en lecture seule, figées à la taille du moment, sans copie.
+ *
+ * Éviction : le corps des tranches anciennes peut être libéré ; seuls l'index
+ * et le hash de chaque bloc restent en mémoire, le bloc complet est relu via
+ * le chargeur (historique sur disque, même position).
+ */
+final class BlockList {
+
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Tranche : blocs en mémoire, ou seulement leurs en-têtes après éviction.
+     */
+    private static final class Chunk {
+        volatile Block[] blocks = new Block[CHUNK_SIZE];
+        // Remplis à l'éviction, avant la libération des blocs
+        int[] indices;
+        byte[] hashes;
+    }
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile int size;
+    private final IntFunction<Block> loader;
+    private int evictedChunks;
+
+    /**
+     * @param loader relit le bloc à une position donnée, ou null (pas d'éviction)
+     */
+    BlockList(IntFunction<Block> loader) {
+        this.loader = loader;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(Block block) {
+        int position = size;
+        int chunkIndex = position >>> CHUNK_SHIFT;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            Chunk[] grown = new Chunk[current.length * 2];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+            chunks = grown;
+        }
+        if (current[chunkIndex] == null) {
+            current[chunkIndex] = new Chunk();
+        }
+        current[chunkIndex].blocks[position & CHUNK_MASK] = block;
+        size = position + 1;  // publication
+    }
+
+    Block get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " hors de la chaîne (" + size + ")");
+        }
+        Chunk chunk = chunks[position >>> CHUNK_SHIFT];
+        Block[] blocks = chunk.blocks;
+        if (blocks != null) {
+            return blocks[position & CHUNK_MASK];
+        }
+        Block block = loader.apply(position);
+        if (block.index() != chunk.indices[position & CHUNK_MASK]) {
+            throw new IllegalStateException("Bloc relu #" + block.index() + " à la position " + position +
+                " (attendu #" + chunk.indices[position & CHUNK_MASK] + ")");
+        }
+        return block;
+    }
+
+    Block last() {
+        return get(size - 1);
+    }
+
+    /**
+     * Index du bloc à une position, sans relire un bloc évincé.
+     */
+    int indexAt(int position) {
+        Chunk chunk = chunks[position >>> CHUNK_SHIFT];
+        Block[] blocks = chunk.blocks;
+        return blocks != null ? blocks[position & CHUNK_MASK].index() : chunk.indices[position & CHUNK_MASK];
+    }
+
+    /**
+     * Hash du bloc à une position, sans relire un bloc évincé.
+     */
+    BlockHash hashAt(int position) {
+        Chunk chunk = chunks[position >>> CHUNK_SHIFT];
+        Block[] blocks = chunk.blocks;
+        if (blocks != null) {
+            return blocks[position & CHUNK_MASK].hash();
+        }
+        byte[] hash = new byte[BlockHash.LENGTH];
+        System.arraycopy(chunk.hashes, (position & CHUNK_MASK) * BlockHash.LENGTH, hash, 0, BlockHash.LENGTH);
+        return new BlockHash(hash);
+    }
+
+    /**
+     * Position du bloc d'index donné (recherche dichotomique, index croissants),
+     * ou -(point d'insertion) - 1 s'il est absent.
+     */
+    int positionOf(int blockIndex) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int index = indexAt(mid);
+            if (index < blockIndex) {
+                low = mid + 1;
+            } else if (index > blockIndex) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Libère le corps des tranches complètes situées avant {@code position}
+     * (blocs déjà sur disque), en gardant au moins {@code resident} blocs en mémoire.
+     * @return le nombre de blocs évincés
+     */
+    int evictBefore(int position, int resident) {
+        if (loader == null) {
+            return 0;
+        }
+        int limit = Math.max(0, Math.min(position, size - resident)) >> CHUNK_SHIFT;
+        int evicted = 0;
+        Chunk[] current = chunks;
+        while (evictedChunks < limit) {
+            Chunk chunk = current[evictedChunks++];
+            Block[] blocks = chunk.blocks;
+            int[] indices = new int[CHUNK_SIZE];
+            byte[] hashes = new byte[CHUNK_SIZE * BlockHash.LENGTH];
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                indices[i] = blocks[i].index();
+                System.arraycopy(blocks[i].hash().toBytes(), 0, hashes, i * BlockHash.LENGTH, BlockHash.LENGTH);
+            }
+            chunk.indices = indices;
+            chunk.hashes = hashes;
+            chunk.blocks = null;  // publication des en-têtes avant libération
+            evicted += CHUNK_SIZE;
+        }
+        return evicted;
+    }
+
+    /**
+     * Nombre de blocs dont le corps est en mémoire.
+     */
+    int residentCount() {
+        return size - evictedChunks * CHUNK_SIZE;
+    }
+
+    /**
+     * Vue en lecture seule de toute la chaîne (taille figée à l'appel).
+     */
+    List<Block> view() {
+        return new View(this, 0, size);
+    }
+
+    /**
+     * Vue en lecture seule des positions [from, to).
+     */
+    List<Block> slice(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Tranche [" + from + ", " + to + ") hors de la chaîne (" + size + ")");
+        }
+        return new View(this, from, to);
+    }
+
+    private static final class View extends AbstractList<Block> implements RandomAccess {
+        private final BlockList list;
+        private final int from;
+        private final int to;
+
+        View(BlockList list, int from, int to) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Block get(int i) {
+            if (i < 0 || i >= to - from) {
+                throw new IndexOutOfBoundsException("Index " + i + " hors de la vue (" + (to - from) + ")");
+            }
+            return list.get(from + i);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public List<Block> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("Sous-liste [" + fromIndex + ", " + toIndex + ")");
+            }
+            return new View(list, from + fromIndex, from + toIndex);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.mycompany.parfeu.Model.Rawen.blockchain;
 
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -9,6 +12,8 @@ import java.util.Date;
  */
 public class BlockchainTableData {
     
+    private static final Logger LOG = Logging.getLogger(BlockchainTableData.class);
+    
     private final int index;
     private final String timestamp;
     private final String srcIP;
@@ -39,11 +44,11 @@ public class BlockchainTableData {
         this.isGenesis = block.index() == 0 && "0.0.0.0".equals(block.srcIP());
         
         // Hash tronqué
-        String hash = block.hash();
+        String hash = block.hash().toHex();
         this.hashFull = hash;
         this.hashShort = truncateHash(hash);
         
-        System.out.println("BlockchainTableData créé: #" + index + 
+        LOG.debug(() -> "BlockchainTableData créé: #" + index + 
                          " | " + srcIP + " -> " + destIP + 
                          " | " + protocol +
                          " | Decisions: " + decisions);
@@ -0,0 +1,157 @@
+package com.mycompany.parfeu.Model.Rawen.blockchain;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Validation de la chaîne : chaque bloc est recalculé (racine de Merkle depuis
+ * ses décisions, puis hash de l'en-tête) et relié au précédent.
+ *
+ * Les blocs sont découpés en tranches validées en parallèle ; le chaînage entre
+ * deux tranches est vérifié à leur frontière. Un {@link Checkpoint} (« vérifié
+ * jusqu'au bloc N ») permet aux validations suivantes de ne traiter que les
+ * nouveaux blocs : ceux qu'il couvre ne sont plus recalculés, seul le hash du
+ * bloc N est comparé. Un audit complet se fait sans point de départ.
+ *
+ * Les blocs ancien format (hash non recalculable) ne sont vérifiés que par chaînage.
+ *
+ * @author ZGARNI
+ */
+public final class ChainValidator {
+
+    // Tranche minimale : en dessous, le coût de répartition dépasse le gain
+    private static final int MIN_CHUNK = 1024;
+
+    private ChainValidator() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Bloc jusqu'auquel la chaîne a été vérifiée, identifié par son hash.
+     */
+    public record Checkpoint(int blockIndex, BlockHash hash) {
+        public Checkpoint {
+            Objects.requireNonNull(hash, "hash ne peut pas être null");
+        }
+    }
+
+    /**
+     * Cause du premier bloc invalide.
+     */
+    public enum Failure {
+        /** La racine de Merkle ne correspond plus aux décisions du bloc. */
+        MERKLE_ROOT,
+        /** Le hash stocké ne correspond plus à l'en-tête du bloc. */
+        HASH,
+        /** Le hash précédent ne correspond pas au hash du bloc qui précède. */
+        LINK,
+        /** Le bloc du point de reprise a changé (chaîne réécrite) : audit complet requis. */
+        CHECKPOINT
+    }
+
+    /**
+     * Avancement, appelé depuis les threads de validation après chaque tranche
+     * (les appels peuvent se chevaucher ; {@code checked} ne fait que croître).
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int checked, int total);
+    }
+
+    /**
+     * Résultat d'une validation.
+     * @param checkedBlocks blocs recalculés (hors blocs couverts par le point de reprise)
+     * @param firstInvalidIndex index du premier bloc invalide, -1 si la chaîne est valide
+     * @param failure cause, null si la chaîne est valide
+     * @param checkpoint point de reprise à conserver pour la prochaine validation
+     */
+    public record Result(boolean valid, int checkedBlocks, int firstInvalidIndex,
+                         Failure failure, Checkpoint checkpoint) {
+    }
+
+    /**
+     * Valide {@code blocks}, suite de la chaîne. Si {@code from} est fourni, le premier
+     * bloc doit être celui du point de reprise (il n'est alors pas recalculé).
+     * @param blocks blocs à accès direct (ArrayList)
+     * @param from point de reprise, ou null pour valider depuis le Genesis
+     * @param listener avancement, ou null
+     */
+    public static Result validate(List<Block> blocks, Checkpoint from, ProgressListener listener) {
+        Objects.requireNonNull(blocks, "blocks ne peut pas être null");
+        if (blocks.isEmpty()) {
+            // Bloc du point de reprise absent : chaîne tronquée ou remplacée
+            return from == null
+                ? new Result(true, 0, -1, null, null)
+                : new Result(false, 0, from.blockIndex(), Failure.CHECKPOINT, null);
+        }
+
+        int start = 0;
+        if (from != null) {
+            Block anchor = blocks.get(0);
+            if (anchor.index() != from.blockIndex() || !anchor.hash().equals(from.hash())) {
+                return new Result(false, 0, anchor.index(), Failure.CHECKPOINT, null);
+            }
+            start = 1;
+        } else if (!blocks.get(0).previousHash().equals(BlockHash.ZERO)) {
+            // Genesis : aucun prédécesseur
+            return new Result(false, 1, blocks.get(0).index(), Failure.LINK, null);
+        }
+
+        int total = blocks.size() - start;
+        int slices = Runtime.getRuntime().availableProcessors() * 4;
+        int chunk = Math.max(MIN_CHUNK, (total + slices - 1) / slices);
+        int chunks = (total + chunk - 1) / chunk;
+        int[] firstInvalid = new int[chunks];
+        Failure[] failures = new Failure[chunks];
+        AtomicInteger checked = new AtomicInteger();
+        int begin = start;
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int first = begin + c * chunk;
+            int to = Math.min(first + chunk, blocks.size());
+            firstInvalid[c] = -1;
+            for (int i = first; i < to; i++) {
+                Failure failure = check(blocks, i);
+                if (failure != null) {
+                    firstInvalid[c] = i;
+                    failures[c] = failure;
+                    break;
+                }
+            }
+            int done = checked.addAndGet(to - first);
+            if (listener != null) {
+                listener.onProgress(done, total);
+            }
+        });
+
+        for (int c = 0; c < chunks; c++) {
+            if (firstInvalid[c] >= 0) {
+                return new Result(false, total, blocks.get(firstInvalid[c]).index(), failures[c], from);
+            }
+        }
+        Block last = blocks.get(blocks.size() - 1);
+        return new Result(true, total, -1, null, new Checkpoint(last.index(), last.hash()));
+    }
+
+    /**
+     * Vérifie le bloc {@code i} : contenu, hash, puis chaînage au bloc {@code i - 1}
+     * (frontière de tranche comprise, le bloc précédent étant seulement lu).
+     */
+    private static Failure check(List<Block> blocks, int i) {
+        Block block = blocks.get(i);
+        if (block.isCurrentHashVersion()) {
+            if (block.merkleRoot() == null || !MerkleTree.rootHash(block.decisions()).equals(block.merkleRoot())) {
+                return Failure.MERKLE_ROOT;
+            }
+            if (!block.hasValidHash()) {
+                return Failure.HASH;
+            }
+        }
+        if (i > 0 && !block.previousHash().equals(blocks.get(i - 1).hash())) {
+            return Failure.LINK;
+        }
+        return null;
+    }
+}
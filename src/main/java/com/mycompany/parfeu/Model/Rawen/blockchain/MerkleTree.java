@@ -0,0 +1,226 @@
+package com.mycompany.parfeu.Model.Rawen.blockchain;
+
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Arbre de Merkle SHA-256 des décisions d'un bloc (structure RFC 6962).
+ *
+ * - feuille : H(0x00 || champs persistés de la décision)
+ * - nœud    : H(0x01 || gauche || droite), découpe à la plus grande puissance de 2
+ * - racine d'une liste vide : H("")
+ *
+ * Les préfixes 0x00/0x01 empêchent de faire passer un nœud interne pour une feuille.
+ * Une preuve d'inclusion contient log2(n) hash : elle se vérifie sans les autres décisions.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    });
+
+    /**
+     * Digest SHA-256 réutilisable du thread courant (partagé avec le hash des blocs).
+     */
+    static MessageDigest sha256() {
+        return SHA256.get();
+    }
+
+    private MerkleTree() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Preuve d'inclusion d'une feuille : hash frères de la feuille vers la racine (hex).
+     */
+    public record Proof(int leafIndex, int leafCount, List<String> path) {
+        public Proof {
+            if (leafIndex < 0 || leafIndex >= leafCount) {
+                throw new IllegalArgumentException("leafIndex hors limites: " + leafIndex + "/" + leafCount);
+            }
+            path = List.copyOf(Objects.requireNonNull(path, "path ne peut pas être null"));
+        }
+    }
+
+    // ========== FEUILLES ==========
+
+    /**
+     * Hash de feuille d'une décision.
+     * Seuls les champs persistés dans l'historique sont engagés, pour qu'une
+     * décision restaurée depuis le disque produise la même feuille.
+     */
+    public static byte[] leafHash(DecisionResult decision) {
+        var packet = decision.getPacket();
+        return leafHash(packet.getSrcIP(), packet.getDestIP(), packet.getSrcPort(), packet.getDestPort(),
+                        packet.getProtocol(), packet.getTimestamp(), decision.getAction().toString());
+    }
+
+    public static byte[] leafHash(String srcIP, String destIP, int srcPort, int destPort,
+                                  String protocol, LocalDateTime packetTimestamp, String action) {
+        String canonical = srcIP + '|' + destIP + '|' + srcPort + '|' + destPort + '|'
+                         + protocol + '|' + packetTimestamp + '|' + action;
+        MessageDigest digest = SHA256.get();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<byte[]> leafHashes(List<DecisionResult> decisions) {
+        List<byte[]> leaves = new ArrayList<>(decisions.size());
+        for (DecisionResult decision : decisions) {
+            leaves.add(leafHash(decision));
+        }
+        return leaves;
+    }
+
+    // ========== RACINE ==========
+
+    public static byte[] root(List<byte[]> leaves) {
+        if (leaves.isEmpty()) {
+            return SHA256.get().digest(new byte[0]);
+        }
+        return subtreeRoot(leaves, 0, leaves.size());
+    }
+
+    /**
+     * Racine de l'arbre des décisions.
+     */
+    public static BlockHash rootHash(List<DecisionResult> decisions) {
+        return new BlockHash(root(leafHashes(decisions)));
+    }
+
+    private static byte[] subtreeRoot(List<byte[]> leaves, int from, int to) {
+        int n = to - from;
+        if (n == 1) {
+            return leaves.get(from);
+        }
+        int k = splitPoint(n);
+        return nodeHash(subtreeRoot(leaves, from, from + k), subtreeRoot(leaves, from + k, to));
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = SHA256.get();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+
+    /**
+     * Plus grande puissance de 2 strictement inférieure à n (n >= 2).
+     */
+    private static int splitPoint(int n) {
+        return Integer.highestOneBit(n - 1);
+    }
+
+    // ========== PREUVES ==========
+
+    public static Proof prove(List<byte[]> leaves, int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= leaves.size()) {
+            throw new IllegalArgumentException("leafIndex hors limites: " + leafIndex + "/" + leaves.size());
+        }
+        List<String> path = new ArrayList<>();
+        collectPath(leaves, leafIndex, 0, leaves.size(), path);
+        return new Proof(leafIndex, leaves.size(), path);
+    }
+
+    private static void collectPath(List<byte[]> leaves, int m, int from, int to, List<String> path) {
+        int n = to - from;
+        if (n == 1) {
+            return;
+        }
+        int k = splitPoint(n);
+        if (m < k) {
+            collectPath(leaves, m, from, from + k, path);
+            path.add(toHex(subtreeRoot(leaves, from + k, to)));
+        } else {
+            collectPath(leaves, m - k, from + k, to, path);
+            path.add(toHex(subtreeRoot(leaves, from, from + k)));
+        }
+    }
+
+    /**
+     * Vérifie qu'une feuille appartient à l'arbre de racine donnée (RFC 9162, 2.1.3.2).
+     */
+    public static boolean verify(byte[] leafHash, Proof proof, String rootHex) {
+        if (rootHex == null || rootHex.isEmpty()) {
+            return false;
+        }
+        try {
+            return verify(leafHash, proof, BlockHash.fromHex(rootHex));
+        } catch (IllegalArgumentException e) {
+            return false;   // hex mal formé
+        }
+    }
+
+    public static boolean verify(byte[] leafHash, Proof proof, BlockHash root) {
+        if (leafHash == null || proof == null || root == null) {
+            return false;
+        }
+        try {
+            long fn = proof.leafIndex();
+            long sn = proof.leafCount() - 1L;
+            byte[] r = leafHash;
+            for (String siblingHex : proof.path()) {
+                if (sn == 0) {
+                    return false;
+                }
+                byte[] sibling = fromHex(siblingHex);
+                if ((fn & 1) == 1 || fn == sn) {
+                    r = nodeHash(sibling, r);
+                    while ((fn & 1) == 0 && fn != 0) {
+                        fn >>= 1;
+                        sn >>= 1;
+                    }
+                } else {
+                    r = nodeHash(r, sibling);
+                }
+                fn >>= 1;
+                sn >>= 1;
+            }
+            return sn == 0 && root.matches(r);
+        } catch (IllegalArgumentException e) {
+            return false;   // hex mal formé
+        }
+    }
+
+    // ========== HEX ==========
+
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    public static byte[] fromHex(String hex) {
+        if ((hex.length() & 1) != 0) {
+            throw new IllegalArgumentException("hex de longueur impaire");
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                throw new IllegalArgumentException("caractère hex invalide");
+            }
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return bytes;
+    }
+}
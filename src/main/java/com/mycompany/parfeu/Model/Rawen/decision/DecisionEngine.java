@@ -7,6 +7,7 @@ import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
 import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
 import com.mycompany.parfeu.Model.Mahran.generator.Packet;
 import com.mycompany.parfeu.Model.Mahran.generator.PaquetMalicieux;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut;
 
 import java.util.List;
 import java.util.Objects;
@@ -122,11 +123,17 @@ public final class DecisionEngine {
     public boolean shouldBlockImmediately(Packet packet) {
         Objects.requireNonNull(packet, "packet ne peut pas etre null");
         
-        if (config.getBlacklistedIPs().contains(packet.getSrcIP())) {
+        if (packet instanceof PaquetBrut raw) {
+            // Adresses deja en entiers : pas de chaine a construire
+            return config.isBlacklisted((int) raw.getSrcAddress())
+                || config.isBlacklisted((int) raw.getDestAddress());
+        }
+        
+        if (config.isBlacklisted(packet.getSrcIP())) {
             return true;
         }
         
-        if (config.getBlacklistedIPs().contains(packet.getDestIP())) {
+        if (config.isBlacklisted(packet.getDestIP())) {
             return true;
         }
         
@@ -8,17 +8,37 @@ package com.mycompany.parfeu.Model.Rawen.engine;
 import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
 import com.mycompany.parfeu.Model.Rawen.analyzer.PacketAnalyzer;
 import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
+import com.mycompany.parfeu.Model.Rawen.decision.Action;
 import com.mycompany.parfeu.Model.Rawen.decision.Actions;
 import com.mycompany.parfeu.Model.Rawen.decision.DecisionEngine;
 import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.logging.LogLevel;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
 import com.mycompany.parfeu.Model.Mahran.generator.Packet;
 import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.AbstractFilter;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.FilterChain;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.Rule;
+import com.mycompany.parfeu.Model.Mahran.initialPacketFiltering.TupleSpaceClassifier;
 import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsManager;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Moteur principal du pare-feu.
@@ -33,10 +53,40 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class FirewallEngine {
     
+    private static final Logger LOG = Logging.getLogger(FirewallEngine.class);
+    
+    // Taille minimale d'un lot confié à un thread en mode parallèle
+    private static final int MIN_PARALLEL_CHUNK = 64;
+    
+    // Verdicts de rejet par filtre, construits une fois (pas de concaténation par paquet)
+    private static final Map<String, HeaderVerdict> FILTER_VERDICTS = new ConcurrentHashMap<>();
+    
+    /**
+     * Verdict des étapes d'en-tête (filtres, blacklist, règles) : ne dépend que
+     * du 5-uplet et de la configuration, donc mis en cache par flux.
+     */
+    record HeaderVerdict(Action action, int score, String reason, boolean log) {
+        // Aucune étape d'en-tête ne décide : analyse du contenu
+        static final HeaderVerdict PASS = new HeaderVerdict(Actions.ACCEPT, 0, "", false);
+
+        DecisionResult toResult(Packet packet) {
+            return new DecisionResult(packet, List.of(), score, action, reason);
+        }
+    }
+    
     private final FirewallConfig config;
     private final PacketAnalyzer analyzer;
     private final DecisionEngine decisionEngine;
     private final List<AbstractFilter> filters;
+    // Filtres compilés, recompilés à chaque changement de la liste
+    private volatile FilterChain filterChain = FilterChain.empty();
+    // Politique de règles 5-uplet (première règle correspondante décide)
+    private volatile TupleSpaceClassifier<Action> ruleClassifier = TupleSpaceClassifier.empty();
+    // Version des filtres et règles ; ajoutée à celle de la configuration pour le cache de flux
+    private final AtomicLong headerGeneration = new AtomicLong();
+    private volatile FlowCache<HeaderVerdict> flowCache;
+    // Version de la configuration appliquée à l'analyseur
+    private volatile long analyzerGeneration;
     private final StatisticsManager statistics;
     
     private final AtomicBoolean running = new AtomicBoolean(false);
@@ -46,7 +96,7 @@ public final class FirewallEngine {
      */
     public FirewallEngine(FirewallConfig config) {
         this.config = Objects.requireNonNull(config, "config ne peut pas être null");
-        this.filters = new ArrayList<>();
+        this.filters = new CopyOnWriteArrayList<>();
         this.statistics = new StatisticsManager();
         
         // Initialiser l'analyseur SANS signatures
@@ -57,6 +107,7 @@ public final class FirewallEngine {
         );
         
         this.decisionEngine = new DecisionEngine(config);
+        this.analyzerGeneration = config.getGeneration();
         
         System.out.println("✓ Pare-feu initialisé (mode sans signatures)");
     }
@@ -71,12 +122,67 @@ public final class FirewallEngine {
     public void addFilter(AbstractFilter filter) {
         Objects.requireNonNull(filter, "filter ne peut pas être null");
         filters.add(filter);
-        System.out.println("✓ Filtre ajouté : " + filter.getClass().getSimpleName());
+        filterChain = FilterChain.compile(filters);
+        headerGeneration.incrementAndGet();
+        LOG.info(() -> "Filtre ajouté : " + filter.getClass().getSimpleName());
     }
 
     public void clearFilters() {
         filters.clear();
-        System.out.println("Tous les filtres ont été supprimés");
+        filterChain = FilterChain.empty();
+        headerGeneration.incrementAndGet();
+        LOG.info("Tous les filtres ont été supprimés");
+    }
+
+    /**
+     * Remplace la politique de règles. Une règle DROP, ALERT ou LOG correspondante
+     * décide directement (après filtres et blacklist, sans analyse). Une règle
+     * ACCEPT ne fait qu'écarter les règles moins prioritaires : le payload est
+     * toujours analysé. Sans règle correspondante, analyse habituelle.
+     * Liste vide = aucune règle.
+     */
+    public void setRules(Collection<Rule<Action>> rules) {
+        TupleSpaceClassifier<Action> classifier = TupleSpaceClassifier.build(rules);
+        ruleClassifier = classifier;
+        headerGeneration.incrementAndGet();
+        LOG.info(() -> classifier.ruleCount() + " règles compilées (" + classifier.tupleCount() + " tuples)");
+    }
+
+    /**
+     * Répercute les changements de mots suspects de la configuration
+     * sur l'analyseur (recompilation de l'automate si nécessaire).
+     * Fait automatiquement au premier paquet suivant une modification.
+     */
+    public void refreshConfiguration() {
+        analyzerGeneration = config.getGeneration();
+        analyzer.updateSuspiciousWords(config.getSuspiciousWords());
+    }
+
+    // ========== CACHE DE FLUX ==========
+
+    /**
+     * Active le cache des verdicts d'en-tête par flux : les paquets suivants d'un
+     * flux ne refont ni le filtrage, ni la blacklist, ni les règles (une recherche).
+     * Invalidé par toute modification de la configuration, des filtres ou des règles.
+     * @param capacity nombre maximal de flux (éviction CLOCK)
+     * @param idleTimeout inactivité au-delà de laquelle un flux est oublié
+     */
+    public void enableFlowCache(int capacity, Duration idleTimeout) {
+        Objects.requireNonNull(idleTimeout, "idleTimeout ne peut pas être null");
+        flowCache = new FlowCache<>(capacity, idleTimeout.toNanos());
+        LOG.info(() -> "Cache de flux activé (" + capacity + " flux, inactivité " + idleTimeout.toSeconds() + " s)");
+    }
+
+    public void disableFlowCache() {
+        flowCache = null;
+    }
+
+    /**
+     * Compteurs du cache de flux, ou null s'il est désactivé.
+     */
+    public FlowCache.Stats getFlowCacheStats() {
+        FlowCache<HeaderVerdict> cache = flowCache;
+        return cache != null ? cache.stats() : null;
     }
 
     public void start() {
@@ -110,7 +216,7 @@ public final class FirewallEngine {
      * Traite un paquet.
      * Workflow :
      * 1. Filtrage initial
-     * 2. Vérification blacklist
+     * 2. Vérification blacklist, puis règles
      * 3. Analyse (taille + mots + heuristique)
      * 4. Décision
      * 5. Statistiques
@@ -122,44 +228,126 @@ public final class FirewallEngine {
             throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
         }
 
-        // ÉTAPE 1 : Filtrage initial
-        for (AbstractFilter filter : filters) {
-            if (!filter.accept(packet)) {
-                DecisionResult result = new DecisionResult(
-                    packet,
-                    List.of(),
-                    0,
-                    Actions.DROP,
-                    "Bloqué par filtre : " + filter.getClass().getSimpleName()
-                );
-                statistics.recordDecision(result);
-                return result;
-            }
-        }
+        DecisionResult result = evaluate(packet);
 
-        // ÉTAPE 2 : Vérification blacklist
-        if (decisionEngine.shouldBlockImmediately(packet)) {
-            DecisionResult result = decisionEngine.createImmediateBlockResult(packet);
-            statistics.recordDecision(result);
-            logDecision(result);
+        // ÉTAPE 5 : Statistiques
+        statistics.recordDecision(result);
+
+        return result;
+    }
+
+    /**
+     * Étapes 1 à 4 et journal de la décision, sans les statistiques
+     * (enregistrées par paquet ou par lot selon l'appelant).
+     */
+    private DecisionResult evaluate(Packet packet) {
+        // ÉTAPES 1 et 2 : en-tête (filtres, blacklist, règles)
+        HeaderVerdict verdict = headerVerdict(packet);
+        if (verdict != HeaderVerdict.PASS) {
+            DecisionResult result = verdict.toResult(packet);
+            log(result, verdict.log());
             return result;
         }
 
         // ÉTAPE 3 : Analyse approfondie (3 détections)
-        List<DetectionSignal> signals = analyzer.analyze(packet);
+        List<DetectionSignal> signals = analyze(packet);
 
         // ÉTAPE 4 : Décision basée sur les signaux
-        DecisionResult result = decisionEngine.decide(packet, signals);
+        DecisionResult result = decide(packet, signals);
+
+        // ÉTAPE 6 : log si nécessaire
+        log(result, result.getAction() != Actions.ACCEPT);
+
+        return result;
+    }
+
+    // ========== ÉTAPES (partagées avec StagedFirewallEngine) ==========
+
+    /**
+     * Étapes 1 et 2, depuis le cache de flux si actif ; {@link HeaderVerdict#PASS}
+     * si le paquet doit être analysé.
+     */
+    HeaderVerdict headerVerdict(Packet packet) {
+        long configGeneration = config.getGeneration();
+        if (configGeneration != analyzerGeneration) {
+            refreshConfiguration();
+        }
+
+        FlowCache<HeaderVerdict> cache = flowCache;
+        if (cache == null) {
+            return evaluateHeader(packet);
+        }
+        long generation = configGeneration + headerGeneration.get();
+        long now = System.nanoTime();
+        HeaderVerdict verdict = cache.get(packet, generation, now);
+        if (verdict == null) {
+            verdict = evaluateHeader(packet);
+            cache.put(packet, verdict, generation, now);
+        }
+        return verdict;
+    }
+
+    List<DetectionSignal> analyze(Packet packet) {
+        return analyzer.analyze(packet);
+    }
+
+    void analyze(Packet packet, List<DetectionSignal> signals) {
+        analyzer.analyze(packet, signals);
+    }
+
+    DecisionResult decide(Packet packet, List<DetectionSignal> signals) {
+        return decisionEngine.decide(packet, signals);
+    }
 
-        // ÉTAPE 5 : Enregistrement statistiques
+    void record(DecisionResult result, boolean log) {
         statistics.recordDecision(result);
-        
-        // ÉTAPE 6 : Logger si nécessaire
-        if (!(result.getAction() == Actions.ACCEPT)) {
+        log(result, log);
+    }
+
+    private void log(DecisionResult result, boolean log) {
+        if (log && LOG.isEnabled(result.needsAlert() ? LogLevel.WARN : LogLevel.INFO)) {
             logDecision(result);
         }
+    }
+
+    /**
+     * Étapes d'en-tête, dans l'ordre : filtrage initial, blacklist, règles.
+     */
+    private HeaderVerdict evaluateHeader(Packet packet) {
+        // ÉTAPE 1 : Filtrage initial (chaîne compilée, filtre le plus sélectif en premier)
+        String rejectedBy = filterChain.reject(packet);
+        if (rejectedBy != null) {
+            return FILTER_VERDICTS.computeIfAbsent(rejectedBy,
+                name -> new HeaderVerdict(Actions.DROP, 0, "Bloqué par filtre : " + name, false));
+        }
 
-        return result;
+        // ÉTAPE 2 : Vérification blacklist
+        if (decisionEngine.shouldBlockImmediately(packet)) {
+            DecisionResult block = decisionEngine.createImmediateBlockResult(packet);
+            return new HeaderVerdict(block.getAction(), block.getTotalScore(), block.getReason(), true);
+        }
+
+        // ÉTAPE 2 bis : Politique de règles (classification par tuples)
+        // Une règle ACCEPT n'exempte pas de l'analyse du payload (mots, taille, heuristique)
+        Rule<Action> rule = ruleClassifier.classify(packet);
+        if (rule != null && rule.action() != Actions.ACCEPT) {
+            return new HeaderVerdict(rule.action(), 0, "Règle : " + rule.name(), true);
+        }
+        return HeaderVerdict.PASS;
+    }
+
+    /**
+     * Entrée en anneau pré-alloué : un producteur unique publie les paquets,
+     * trois threads les analysent, décident et enregistrent (puis {@code sink}).
+     * Fermer l'anneau (close) attend l'enregistrement de tous les paquets publiés.
+     * @param capacity nombre de cases, puissance de 2
+     * @param sink reçoit chaque décision (null = aucun)
+     */
+    public RingBufferIngest startRingIngest(int capacity, Consumer<DecisionResult> sink) {
+        if (!running.get()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+        return new RingBufferIngest(this, capacity, sink);
     }
 
     /**
@@ -174,11 +362,88 @@ public final class FirewallEngine {
             .toList();                               // ✅ COLLECTOR
     }
 
+    /**
+     * Traite plusieurs paquets en parallèle sur le pool ForkJoin commun.
+     */
+    public List<DecisionResult> processPacketsParallel(List<Packet> packets) {
+        return processPacketsParallel(packets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Traite plusieurs paquets en parallèle sur l'executor fourni
+     * (ForkJoinPool ou pool de threads classique).
+     * Les paquets sont découpés en lots contigus ; chaque résultat est écrit
+     * à la position de son paquet, l'ordre de la liste d'entrée est donc conservé.
+     * Les statistiques sont publiées une fois par lot, pas par paquet.
+     */
+    public List<DecisionResult> processPacketsParallel(List<Packet> packets, ExecutorService executor) {
+        Objects.requireNonNull(packets, "packets ne peut pas être null");
+        Objects.requireNonNull(executor, "executor ne peut pas être null");
+        
+        if (!running.get()) {
+            throw new IllegalStateException("Le pare-feu n'est pas démarré. Appelez start() d'abord.");
+        }
+        
+        int count = packets.size();
+        if (count == 0) {
+            return List.of();
+        }
+        
+        int parallelism = executor instanceof ForkJoinPool pool
+            ? pool.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        // ~4 lots par thread pour absorber les déséquilibres de charge
+        int chunkSize = Math.max(MIN_PARALLEL_CHUNK, (count + parallelism * 4 - 1) / (parallelism * 4));
+        
+        DecisionResult[] results = new DecisionResult[count];
+        List<Future<?>> futures = new ArrayList<>((count + chunkSize - 1) / chunkSize);
+        
+        for (int start = 0; start < count; start += chunkSize) {
+            int from = start;
+            int to = Math.min(count, start + chunkSize);
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = evaluate(Objects.requireNonNull(packets.get(i), "packet ne peut pas être null"));
+                }
+                statistics.recordDecisions(results, from, to);
+            }));
+        }
+        
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Traitement parallèle interrompu", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Erreur pendant le traitement parallèle", e.getCause());
+        }
+        
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Décision en un événement structuré ; le résumé détaillé d'une alerte
+     * n'est construit qu'en DEBUG.
+     */
     private void logDecision(DecisionResult result) {
-        System.out.println(result);
+        Packet packet = result.getPacket();
+        LOG.event(result.needsAlert() ? LogLevel.WARN : LogLevel.INFO, "Décision",
+            "action", result.getAction(),
+            "score", result.getTotalScore(),
+            "src", packet.getSrcIP() + ":" + packet.getSrcPort(),
+            "dest", packet.getDestIP() + ":" + packet.getDestPort(),
+            "protocol", packet.getProtocol(),
+            "reason", result.getReason());
         
-        if (result.needsAlert()) {
-            System.out.println(result.getDetailedSummary());
+        if (result.needsAlert() && LOG.isDebugEnabled()) {
+            LOG.debug(result.getDetailedSummary());
         }
     }
 
@@ -190,11 +455,11 @@ public final class FirewallEngine {
     public boolean isRunning() { return running.get(); }
     public FirewallConfig getConfig() { return config; }
     public StatisticsManager getStatistics() { return statistics; }
-    public int getTotalPackets() { return statistics.getTotalPackets(); }
-    public int getAcceptedPackets() { return statistics.getAcceptedPackets(); }
-    public int getDroppedPackets() { return statistics.getDroppedPackets(); }
-    public int getAlertedPackets() { return statistics.getAlertedPackets(); }
-    public int getLoggedPackets() { return statistics.getLoggedPackets(); }
+    public long getTotalPackets() { return statistics.getTotalPackets(); }
+    public long getAcceptedPackets() { return statistics.getAcceptedPackets(); }
+    public long getDroppedPackets() { return statistics.getDroppedPackets(); }
+    public long getAlertedPackets() { return statistics.getAlertedPackets(); }
+    public long getLoggedPackets() { return statistics.getLoggedPackets(); }
     
     public List<DecisionResult> getDecisionHistory() { 
         return statistics.getDecisionHistory();
@@ -203,4 +468,15 @@ public final class FirewallEngine {
     public List<AbstractFilter> getFilters() { 
         return new ArrayList<>(filters); 
     }
+    
+    public List<Rule<Action>> getRules() {
+        return ruleClassifier.rules();
+    }
+    
+    /**
+     * Rejets, taux de rejet et coût mesurés de chaque filtre compilé, dans l'ordre d'évaluation.
+     */
+    public List<FilterChain.FilterStats> getFilterStatistics() {
+        return filterChain.statistics();
+    }
 }
\ No newline at end of file
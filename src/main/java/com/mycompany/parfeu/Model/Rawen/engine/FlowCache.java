@@ -0,0 +1,303 @@
+package com.mycompany.parfeu.Model.Rawen.engine;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des verdicts d'en-tête par flux (srcIP, destIP, srcPort, destPort, protocole).
+ *
+ * Un verdict d'en-tête (filtres, blacklist, règles) ne dépend que du 5-uplet et
+ * de la configuration : tant que la génération ne change pas, les paquets
+ * suivants d'un flux n'ont besoin que d'une recherche dans ce cache.
+ *
+ * Taille bornée : éviction CLOCK (seconde chance) et expiration des flux
+ * inactifs depuis plus de {@code idleTimeoutNanos}. Une entrée d'une autre
+ * génération est ignorée puis remplacée.
+ *
+ * Segmenté (verrou par segment) pour le traitement parallèle.
+ *
+ * Clé : adresses d'un {@link PaquetBrut} en entiers, sans construire de chaîne ;
+ * celles des autres paquets en texte ("010.0.0.1" et "10.0.0.1" restent deux
+ * flux distincts, comme pour les filtres).
+ *
+ * @param <V> verdict stocké
+ * @author ZGARNI
+ */
+public final class FlowCache<V> {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Compteurs du cache.
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size, int capacity) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final Segment<V>[] segments;
+    private final long idleTimeoutNanos;
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param capacity nombre maximal de flux
+     * @param idleTimeoutNanos inactivité au-delà de laquelle un flux est oublié
+     */
+    public FlowCache(int capacity, long idleTimeoutNanos) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("capacity doit être >= " + SEGMENTS);
+        }
+        if (idleTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("idleTimeoutNanos doit être > 0");
+        }
+        this.capacity = capacity;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.segments = newSegments(SEGMENTS);
+        int perSegment = (capacity + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Verdict du flux du paquet, ou null (absent, expiré ou d'une autre génération).
+     */
+    public V get(Packet packet, long generation, long nowNanos) {
+        long src = srcKey(packet);
+        long dest = destKey(packet);
+        int hash = hash(packet, src, dest);
+        V verdict = segment(hash).get(packet, src, dest, hash, generation, nowNanos, this);
+        if (verdict != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return verdict;
+    }
+
+    /**
+     * Enregistre le verdict du flux du paquet pour la génération donnée.
+     */
+    public void put(Packet packet, V verdict, long generation, long nowNanos) {
+        Objects.requireNonNull(verdict, "verdict ne peut pas être null");
+        long src = srcKey(packet);
+        long dest = destKey(packet);
+        int hash = hash(packet, src, dest);
+        segment(hash).put(packet, src, dest, hash, verdict, generation, nowNanos, this);
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size, capacity);
+    }
+
+    // Tableaux génériques : seule création non vérifiée du cache
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Segment<V>[] newSegments(int length) {
+        return new Segment[length];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Entry<V>[] newEntries(int length) {
+        return new Entry[length];
+    }
+
+    private Segment<V> segment(int hash) {
+        // Bits de poids fort : les bits faibles servent aux seaux du segment
+        return segments[(hash >>> 28) & (SEGMENTS - 1)];
+    }
+
+    private static long srcKey(Packet packet) {
+        return packet instanceof PaquetBrut ? packet.getSrcAddress() : IPv4Address.INVALID;
+    }
+
+    private static long destKey(Packet packet) {
+        return packet instanceof PaquetBrut ? packet.getDestAddress() : IPv4Address.INVALID;
+    }
+
+    private static int hash(Packet packet, long src, long dest) {
+        int h = src == IPv4Address.INVALID ? packet.getSrcIP().hashCode() : (int) src;
+        h = h * 31 + (dest == IPv4Address.INVALID ? packet.getDestIP().hashCode() : (int) dest);
+        h = h * 31 + (packet.getSrcPort() << 16 | packet.getDestPort());
+        h = h * 31 + packet.getProtocol().hashCode();
+        return h ^ (h >>> 16) ^ (h * 0x9E3779B9);
+    }
+
+    // ========== SEGMENT ==========
+
+    private static final class Entry<V> {
+        final long srcAddress;
+        final long destAddress;
+        final String srcIP;      // texte si la clé n'est pas un entier (null sinon)
+        final String destIP;
+        final int srcPort;
+        final int destPort;
+        final String protocol;
+        final int hash;
+        final int slot;          // position dans l'anneau CLOCK
+        V verdict;
+        long generation;
+        long lastAccessNanos;
+        boolean referenced;
+        Entry<V> next;           // chaînage du seau
+
+        Entry(Packet packet, long src, long dest, int hash, int slot) {
+            this.srcAddress = src;
+            this.destAddress = dest;
+            this.srcIP = src == IPv4Address.INVALID ? packet.getSrcIP() : null;
+            this.destIP = dest == IPv4Address.INVALID ? packet.getDestIP() : null;
+            this.srcPort = packet.getSrcPort();
+            this.destPort = packet.getDestPort();
+            this.protocol = packet.getProtocol();
+            this.hash = hash;
+            this.slot = slot;
+        }
+
+        boolean matches(Packet packet, long src, long dest, int hash) {
+            return this.hash == hash
+                && srcAddress == src
+                && destAddress == dest
+                && srcPort == packet.getSrcPort()
+                && destPort == packet.getDestPort()
+                && (srcIP == null || srcIP.equals(packet.getSrcIP()))
+                && (destIP == null || destIP.equals(packet.getDestIP()))
+                && protocol.equals(packet.getProtocol());
+        }
+    }
+
+    private static final class Segment<V> {
+        private final Entry<V>[] buckets;
+        private final Entry<V>[] ring;
+        private int hand;
+        private int size;
+
+        Segment(int capacity) {
+            this.ring = newEntries(capacity);
+            this.buckets = newEntries(Integer.highestOneBit(capacity * 2 - 1) * 2);
+        }
+
+        synchronized V get(Packet packet, long src, long dest, int hash, long generation, long nowNanos,
+                           FlowCache<V> cache) {
+            Entry<V> entry = find(packet, src, dest, hash);
+            if (entry == null || entry.generation != generation) {
+                return null;
+            }
+            if (nowNanos - entry.lastAccessNanos > cache.idleTimeoutNanos) {
+                remove(entry);
+                cache.expirations.increment();
+                return null;
+            }
+            entry.lastAccessNanos = nowNanos;
+            entry.referenced = true;
+            return entry.verdict;
+        }
+
+        synchronized void put(Packet packet, long src, long dest, int hash, V verdict, long generation,
+                              long nowNanos, FlowCache<V> cache) {
+            Entry<V> entry = find(packet, src, dest, hash);
+            if (entry == null) {
+                int slot = freeSlot(nowNanos, cache);
+                entry = new Entry<>(packet, src, dest, hash, slot);
+                ring[slot] = entry;
+                int bucket = hash & (buckets.length - 1);
+                entry.next = buckets[bucket];
+                buckets[bucket] = entry;
+                size++;
+            }
+            entry.verdict = verdict;
+            entry.generation = generation;
+            entry.lastAccessNanos = nowNanos;
+            entry.referenced = false;  // seconde chance gagnée au premier accès
+        }
+
+        /**
+         * Case libre de l'anneau ; si l'anneau est plein, l'aiguille passe sur les
+         * entrées en retirant leur marque d'accès et évince la première non marquée
+         * (ou expirée).
+         */
+        private int freeSlot(long nowNanos, FlowCache<V> cache) {
+            if (size < ring.length) {
+                while (ring[hand] != null) {
+                    hand = (hand + 1) % ring.length;
+                }
+                return hand;
+            }
+            while (true) {
+                Entry<V> candidate = ring[hand];
+                if (nowNanos - candidate.lastAccessNanos > cache.idleTimeoutNanos) {
+                    cache.expirations.increment();
+                    break;
+                }
+                if (!candidate.referenced) {
+                    cache.evictions.increment();
+                    break;
+                }
+                candidate.referenced = false;
+                hand = (hand + 1) % ring.length;
+            }
+            int slot = hand;
+            remove(ring[slot]);
+            hand = (hand + 1) % ring.length;
+            return slot;
+        }
+
+        private Entry<V> find(Packet packet, long src, long dest, int hash) {
+            Entry<V> entry = buckets[hash & (buckets.length - 1)];
+            while (entry != null && !entry.matches(packet, src, dest, hash)) {
+                entry = entry.next;
+            }
+            return entry;
+        }
+
+        private void remove(Entry<V> entry) {
+            int bucket = entry.hash & (buckets.length - 1);
+            Entry<V> previous = null;
+            for (Entry<V> current = buckets[bucket]; current != null; current = current.next) {
+                if (current == entry) {
+                    if (previous == null) {
+                        buckets[bucket] = current.next;
+                    } else {
+                        previous.next = current.next;
+                    }
+                    ring[entry.slot] = null;
+                    size--;
+                    return;
+                }
+                previous = current;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(buckets, null);
+            Arrays.fill(ring, null);
+            size = 0;
+            hand = 0;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.mycompany.parfeu.Model.Rawen.engine;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
+import com.mycompany.parfeu.Model.Rawen.decision.Actions;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Entrée en anneau (à la Disruptor) pour {@link FirewallEngine} : un seul
+ * producteur, trois consommateurs en chaîne sur un tableau de cases
+ * pré-allouées.
+ *
+ * <pre>
+ *   publish → [analyse : en-tête + détections] → [décision] → [enregistrement] → sink
+ * </pre>
+ * Pas de file ni de verrou : chaque acteur avance son propre compteur de
+ * séquence ; un consommateur lit jusqu'à la séquence de l'acteur qui le
+ * précède (barrière), le producteur ne réutilise une case qu'une fois
+ * enregistrée. Un consommateur en retard traite d'un coup tout ce qui est
+ * disponible et ne publie sa séquence qu'une fois par lot.
+ *
+ * Les cases et leur liste de signaux sont réutilisées ; la liste n'est copiée
+ * que si elle n'est pas vide. Limite : une {@link DecisionResult} reste allouée
+ * par paquet, car les destinataires (historique des statistiques, sink) la
+ * conservent ; le paquet lui-même est fourni par l'appelant.
+ *
+ * Attente (anneau plein ou vide) : quelques tours actifs, puis cession du
+ * processeur, puis mise en sommeil courte ; pas de thread bloqué indéfiniment.
+ *
+ * {@link #publish} ne doit être appelé que depuis un seul thread.
+ *
+ * @author ZGARNI
+ */
+public final class RingBufferIngest implements AutoCloseable {
+
+    private static final Logger LOG = Logging.getLogger(RingBufferIngest.class);
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Compteurs de l'anneau.
+     * @param backlog paquets publiés pas encore enregistrés
+     * @param producerWaits attentes du producteur sur un anneau plein (contre-pression)
+     */
+    public record Stats(long published, long recorded, long backlog, int capacity, long producerWaits, long errors) {
+    }
+
+    // ========== SÉQUENCES ==========
+
+    // Bourrage de part et d'autre de la valeur : une ligne de cache par séquence,
+    // pas de faux partage entre producteur et consommateurs
+    @SuppressWarnings("unused")
+    private static class LeftPadding {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class SequenceValue extends LeftPadding {
+        volatile long value = -1;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Sequence extends SequenceValue {
+        long q1, q2, q3, q4, q5, q6, q7;
+    }
+
+    /**
+     * Case de l'anneau, réutilisée à chaque tour.
+     */
+    private static final class Slot {
+        Packet packet;
+        final List<DetectionSignal> signals = new ArrayList<>(4);
+        FirewallEngine.HeaderVerdict verdict;
+        DecisionResult result;
+        boolean failed;
+
+        void reset(Packet packet) {
+            this.packet = packet;
+            this.signals.clear();
+            this.verdict = null;
+            this.result = null;
+            this.failed = false;
+        }
+    }
+
+    private final FirewallEngine engine;
+    private final Consumer<DecisionResult> sink;
+    private final Slot[] slots;
+    private final int mask;
+
+    // Dernière séquence publiée par le producteur, puis par chaque consommateur
+    private final Sequence cursor = new Sequence();
+    private final Sequence analyzed = new Sequence();
+    private final Sequence decided = new Sequence();
+    private final Sequence recorded = new Sequence();
+
+    // Accédés par le seul producteur
+    private long nextSequence = 0;
+    private long cachedRecorded = -1;
+
+    private final LongAdder producerWaits = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Thread[] consumers;
+    private volatile boolean closed = false;
+
+    RingBufferIngest(FirewallEngine engine, int capacity, Consumer<DecisionResult> sink) {
+        this.engine = Objects.requireNonNull(engine, "engine ne peut pas être null");
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity doit être une puissance de 2 >= 2");
+        }
+        this.sink = sink != null ? sink : result -> { };
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.consumers = new Thread[] {
+            consumer("parfeu-ring-analyse", cursor, analyzed, this::analyze),
+            consumer("parfeu-ring-decision", analyzed, decided, this::decide),
+            consumer("parfeu-ring-record", decided, recorded, this::record)
+        };
+        for (Thread thread : consumers) {
+            thread.start();
+        }
+    }
+
+    // ========== PRODUCTEUR ==========
+
+    /**
+     * Publie un paquet ; attend si l'anneau est plein (le plus lent des
+     * consommateurs n'a pas encore libéré la case).
+     */
+    public void publish(Packet packet) {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        if (closed) {
+            throw new IllegalStateException("Anneau fermé");
+        }
+        long sequence = nextSequence;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedRecorded) {
+            int idle = 0;
+            long gate;
+            while (wrapPoint > (gate = recorded.value)) {
+                if (idle == 0) {
+                    producerWaits.increment();
+                }
+                idle = idle(idle);
+            }
+            cachedRecorded = gate;
+        }
+        slots[(int) sequence & mask].reset(packet);
+        nextSequence = sequence + 1;
+        cursor.value = sequence;
+    }
+
+    // ========== CONSOMMATEURS ==========
+
+    private Thread consumer(String name, Sequence barrier, Sequence own, Consumer<Slot> handler) {
+        Thread thread = new Thread(() -> {
+            long next = own.value + 1;
+            int idle = 0;
+            while (true) {
+                long available = barrier.value;
+                if (available >= next) {
+                    // Lot : tout ce qui est disponible, une seule publication de séquence
+                    for (long sequence = next; sequence <= available; sequence++) {
+                        Slot slot = slots[(int) sequence & mask];
+                        if (!slot.failed) {
+                            try {
+                                handler.accept(slot);
+                            } catch (RuntimeException e) {
+                                slot.failed = true;
+                                errors.increment();
+                                LOG.error(name + " : " + e.getMessage(), e);
+                            }
+                        }
+                    }
+                    own.value = available;
+                    next = available + 1;
+                    idle = 0;
+                } else if (closed && next > cursor.value) {
+                    return;
+                } else {
+                    idle = idle(idle);
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void analyze(Slot slot) {
+        slot.verdict = engine.headerVerdict(slot.packet);
+        if (slot.verdict == FirewallEngine.HeaderVerdict.PASS) {
+            engine.analyze(slot.packet, slot.signals);
+        }
+    }
+
+    private void decide(Slot slot) {
+        if (slot.verdict != FirewallEngine.HeaderVerdict.PASS) {
+            slot.result = slot.verdict.toResult(slot.packet);
+        } else {
+            // La décision garde ses signaux : copie (List.of() si aucun, sans allocation)
+            slot.result = engine.decide(slot.packet, List.copyOf(slot.signals));
+        }
+    }
+
+    private void record(Slot slot) {
+        DecisionResult result = slot.result;
+        boolean log = slot.verdict != FirewallEngine.HeaderVerdict.PASS
+            ? slot.verdict.log()
+            : result.getAction() != Actions.ACCEPT;
+        engine.record(result, log);
+        sink.accept(result);
+        // Libère les références avant que la case ne soit réutilisée
+        slot.packet = null;
+        slot.result = null;
+    }
+
+    /**
+     * Attente progressive : actif, puis cession du processeur, puis sommeil court.
+     */
+    private static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+    // ========== ARRÊT ET STATISTIQUES ==========
+
+    /**
+     * Plus de publication ; attend que les consommateurs aient tout enregistré.
+     * Interrompu pendant l'attente : rend la main (consommateurs laissés finir
+     * en arrière-plan) en conservant l'interruption.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            for (Thread thread : consumers) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Fermeture de l'anneau interrompue : " + stats().backlog() + " paquets non enregistrés");
+        }
+    }
+
+    public Stats stats() {
+        long published = cursor.value + 1;
+        long done = recorded.value + 1;
+        return new Stats(published, done, published - done, slots.length, producerWaits.sum(), errors.sum());
+    }
+}
@@ -0,0 +1,402 @@
+package com.mycompany.parfeu.Model.Rawen.engine;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Rawen.analyzer.DetectionSignal;
+import com.mycompany.parfeu.Model.Rawen.decision.Actions;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Moteur en pipeline : les étapes de {@link FirewallEngine#processPacket} tournent
+ * chacune sur ses propres threads, reliées par des files bornées.
+ *
+ * <pre>
+ *   submit → [filtrage] → [analyse] → [décision] → [enregistrement] → sink
+ *                 └──────── verdict d'en-tête ─────────┘
+ * </pre>
+ * - filtrage : filtres, blacklist, règles (et cache de flux) ; un paquet décidé
+ *   ici passe directement à l'enregistrement,
+ * - analyse : taille, mots suspects, heuristique,
+ * - décision : score et action,
+ * - enregistrement : statistiques, log, puis le sink (historique, blockchain...).
+ *
+ * Contre-pression : une file pleine bloque l'étape précédente, et en bout de
+ * chaîne {@link #submit} ; la source de paquets ralentit au rythme de l'étape
+ * la plus lente, sans mémoire non bornée. Un enregistrement lent ne freine
+ * plus le filtrage tant que les files absorbent l'écart.
+ *
+ * Configuration (filtres, règles, cache de flux, statistiques) : celle du
+ * {@link FirewallEngine} fourni. Avec plusieurs threads par étape, les
+ * décisions peuvent sortir dans un autre ordre que les paquets.
+ *
+ * @author ZGARNI
+ */
+public final class StagedFirewallEngine implements AutoCloseable {
+
+    private static final Logger LOG = Logging.getLogger(StagedFirewallEngine.class);
+
+    /**
+     * Étapes du pipeline, dans l'ordre.
+     */
+    public enum Stage {
+        FILTER("filtrage"),
+        ANALYZE("analyse"),
+        DECIDE("décision"),
+        RECORD("enregistrement");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Mesures d'une étape.
+     * @param queueDepth paquets en attente dans la file d'entrée de l'étape
+     * @param averageWaitNanos attente moyenne dans la file, en nanosecondes
+     * @param averageServiceNanos traitement moyen par l'étape, en nanosecondes
+     */
+    public record StageStats(Stage stage, int workers, int queueDepth, int queueCapacity,
+                             long processed, long errors, double averageWaitNanos, double averageServiceNanos) {
+    }
+
+    /**
+     * Paquet en transit et résultats intermédiaires.
+     */
+    private static final class Work {
+        final Packet packet;
+        List<DetectionSignal> signals;
+        DecisionResult result;
+        boolean log;
+        long enqueuedNanos;
+
+        Work(Packet packet) {
+            this.packet = packet;
+        }
+    }
+
+    // Fin de flux, propagée d'étape en étape une fois la précédente vidée
+    private static final Work POISON = new Work(null);
+
+    private final class StageRunner {
+        final Stage stage;
+        final BlockingQueue<Work> queue;
+        int workers = 1;
+        StageRunner next;
+        final List<Thread> threads = new ArrayList<>();
+        final AtomicInteger alive = new AtomicInteger();
+        final LongAdder processed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder serviceNanos = new LongAdder();
+
+        StageRunner(Stage stage, int queueCapacity) {
+            this.stage = stage;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void start() {
+            alive.set(workers);
+            for (int i = 0; i < workers; i++) {
+                Thread thread = new Thread(this::work, "parfeu-" + stage.name().toLowerCase(Locale.ROOT) + "-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void work() {
+            try {
+                Work work;
+                while ((work = queue.take()) != POISON) {
+                    long start = System.nanoTime();
+                    waitNanos.add(start - work.enqueuedNanos);
+                    StageRunner target;
+                    try {
+                        target = handle(stage, work);
+                    } catch (RuntimeException e) {
+                        // Paquet abandonné : il ne sera jamais enregistré
+                        abandon();
+                        LOG.error("Étape " + stage.label() + " : " + e.getMessage(), e);
+                        continue;
+                    }
+                    serviceNanos.add(System.nanoTime() - start);
+                    processed.increment();
+                    if (target != null) {
+                        try {
+                            target.put(work);
+                        } catch (InterruptedException e) {
+                            abandon();
+                            throw e;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Étape " + stage.label() + " : thread interrompu");
+            } finally {
+                // Dernier thread de l'étape (fin normale ou non) : la suivante peut s'arrêter à son tour
+                if (alive.decrementAndGet() == 0 && next != null) {
+                    next.stop();
+                }
+            }
+        }
+
+        private void abandon() {
+            errors.increment();
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * Un POISON par thread, déposé même si l'appelant est interrompu.
+         */
+        void stop() {
+            boolean interrupted = Thread.interrupted();
+            for (int i = 0; i < workers; i++) {
+                while (true) {
+                    try {
+                        queue.put(POISON);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void put(Work work) throws InterruptedException {
+            work.enqueuedNanos = System.nanoTime();
+            queue.put(work);
+        }
+
+        StageStats stats() {
+            long count = processed.sum();
+            return new StageStats(stage, workers, queue.size(), queue.size() + queue.remainingCapacity(),
+                count, errors.sum(),
+                count == 0 ? 0 : (double) waitNanos.sum() / count,
+                count == 0 ? 0 : (double) serviceNanos.sum() / count);
+        }
+    }
+
+    private final FirewallEngine engine;
+    private final Consumer<DecisionResult> sink;
+    private final Map<Stage, StageRunner> stages = new EnumMap<>(Stage.class);
+    // Paquets soumis pas encore enregistrés
+    private final AtomicLong inFlight = new AtomicLong();
+    private volatile boolean started = false;
+    private volatile boolean closed = false;
+    // submit (lecture) et close (écriture) exclusifs : aucun paquet déposé après le POISON
+    private final ReentrantReadWriteLock submitGate = new ReentrantReadWriteLock();
+
+    /**
+     * @param engine moteur dont les étapes, la configuration et les statistiques sont utilisées
+     * @param queueCapacity capacité de la file d'entrée de chaque étape
+     * @param sink reçoit chaque décision après l'enregistrement (null = aucun)
+     */
+    public StagedFirewallEngine(FirewallEngine engine, int queueCapacity, Consumer<DecisionResult> sink) {
+        this.engine = Objects.requireNonNull(engine, "engine ne peut pas être null");
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity doit être >= 1");
+        }
+        this.sink = sink != null ? sink : result -> { };
+        StageRunner previous = null;
+        for (Stage stage : Stage.values()) {
+            StageRunner runner = new StageRunner(stage, queueCapacity);
+            if (previous != null) {
+                previous.next = runner;
+            }
+            stages.put(stage, runner);
+            previous = runner;
+        }
+    }
+
+    /**
+     * Nombre de threads d'une étape (1 par défaut), avant {@link #start()}.
+     */
+    public StagedFirewallEngine setWorkers(Stage stage, int workers) {
+        Objects.requireNonNull(stage, "stage ne peut pas être null");
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers doit être >= 1");
+        }
+        if (started) {
+            throw new IllegalStateException("Pipeline déjà démarré");
+        }
+        stages.get(stage).workers = workers;
+        return this;
+    }
+
+    /**
+     * Démarre le moteur sous-jacent (si nécessaire) et les threads des étapes.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        if (!engine.isRunning()) {
+            engine.start();
+        }
+        started = true;
+        stages.values().forEach(StageRunner::start);
+        LOG.info(() -> "Pipeline démarré : " + describe());
+    }
+
+    // ========== TRAITEMENT ==========
+
+    /**
+     * Confie un paquet au pipeline ; bloque tant que la file de filtrage est pleine.
+     */
+    public void submit(Packet packet) throws InterruptedException {
+        Objects.requireNonNull(packet, "packet ne peut pas être null");
+        submitGate.readLock().lockInterruptibly();
+        try {
+            if (!started || closed) {
+                throw new IllegalStateException("Le pipeline n'est pas démarré ou est fermé");
+            }
+            inFlight.incrementAndGet();
+            try {
+                stages.get(Stage.FILTER).put(new Work(packet));
+            } catch (InterruptedException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        } finally {
+            submitGate.readLock().unlock();
+        }
+    }
+
+    private StageRunner handle(Stage stage, Work work) {
+        switch (stage) {
+            case FILTER -> {
+                FirewallEngine.HeaderVerdict verdict = engine.headerVerdict(work.packet);
+                if (verdict == FirewallEngine.HeaderVerdict.PASS) {
+                    return stages.get(Stage.ANALYZE);
+                }
+                work.result = verdict.toResult(work.packet);
+                work.log = verdict.log();
+                return stages.get(Stage.RECORD);
+            }
+            case ANALYZE -> {
+                work.signals = engine.analyze(work.packet);
+                return stages.get(Stage.DECIDE);
+            }
+            case DECIDE -> {
+                work.result = engine.decide(work.packet, work.signals);
+                work.log = work.result.getAction() != Actions.ACCEPT;
+                return stages.get(Stage.RECORD);
+            }
+            default -> {
+                engine.record(work.result, work.log);
+                sink.accept(work.result);
+                inFlight.decrementAndGet();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Attend que tous les paquets soumis soient enregistrés.
+     * @return false si le délai a expiré avant
+     */
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Refuse les nouveaux paquets, laisse le pipeline se vider étape par étape
+     * puis attend la fin des threads. Si l'appelant est interrompu pendant
+     * l'attente, les threads des étapes sont interrompus (paquets en cours
+     * abandonnés) et l'interruption est rétablie.
+     */
+    @Override
+    public synchronized void close() {
+        // Attend les submit en cours : le POISON est le dernier élément déposé
+        submitGate.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            submitGate.writeLock().unlock();
+        }
+        if (!started) {
+            return;
+        }
+        stages.get(Stage.FILTER).stop();
+        try {
+            for (StageRunner runner : stages.values()) {
+                for (Thread thread : runner.threads) {
+                    thread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            stages.values().forEach(runner -> runner.threads.forEach(Thread::interrupt));
+            Thread.currentThread().interrupt();
+            LOG.warn("Fermeture du pipeline interrompue : " + inFlight.get() + " paquets abandonnés");
+        }
+    }
+
+    // ========== STATISTIQUES ==========
+
+    /**
+     * Mesures par étape, dans l'ordre du pipeline.
+     */
+    public List<StageStats> getStageStatistics() {
+        List<StageStats> result = new ArrayList<>(stages.size());
+        for (StageRunner runner : stages.values()) {
+            result.add(runner.stats());
+        }
+        return result;
+    }
+
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    public FirewallEngine getEngine() {
+        return engine;
+    }
+
+    private String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (StageRunner runner : stages.values()) {
+            if (!sb.isEmpty()) {
+                sb.append(" → ");
+            }
+            sb.append(runner.stage.label()).append(" x").append(runner.workers);
+        }
+        return sb.toString();
+    }
+}
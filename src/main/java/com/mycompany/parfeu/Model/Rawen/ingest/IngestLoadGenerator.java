@@ -0,0 +1,169 @@
+package com.mycompany.parfeu.Model.Rawen.ingest;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PacketFrameCodec;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetSimple;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Client de charge pour {@link IngestServer} : plusieurs connexions (TCP) ou
+ * émetteurs (UDP) simultanés, chacun sur son propre thread (virtuel si disponible).
+ *
+ * Les trames sont encodées une fois avant l'envoi (au plus {@value #DISTINCT_FRAMES}
+ * paquets distincts, repris en boucle) : seul l'envoi est mesuré.
+ *
+ * En ligne de commande :
+ * <pre>
+ *   java -cp target/classes com.mycompany.parfeu.Model.Rawen.ingest.IngestLoadGenerator tcp|udp &lt;port&gt; &lt;connexions&gt; &lt;paquets par connexion&gt;
+ * </pre>
+ *
+ * @author ZGARNI
+ */
+public final class IngestLoadGenerator {
+
+    static final int DISTINCT_FRAMES = 1024;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    /**
+     * Bilan d'une charge.
+     */
+    public record Result(long packets, long bytes, long elapsedNanos) {
+
+        public double packetsPerSecond() {
+            return elapsedNanos == 0 ? 0 : packets * 1e9 / elapsedNanos;
+        }
+    }
+
+    private IngestLoadGenerator() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Envoie {@code packetsPerConnection} trames sur chacune des {@code connections}
+     * connexions TCP, puis les ferme. Le client est freiné si le serveur ne suit pas.
+     */
+    public static Result tcp(int port, int connections, int packetsPerConnection, IntFunction<Packet> packets)
+            throws IOException, InterruptedException {
+        byte[][] frames = encode(packets, packetsPerConnection);
+        return run(connections, packetsPerConnection, frames, () -> {
+            long sent = 0;
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), WRITE_BUFFER);
+                for (int i = 0; i < packetsPerConnection; i++) {
+                    byte[] frame = frames[i % frames.length];
+                    out.write(frame);
+                    sent += frame.length;
+                }
+                out.flush();
+            }
+            return sent;
+        });
+    }
+
+    /**
+     * Envoie {@code packetsPerSender} datagrammes depuis chacun des {@code senders} émetteurs.
+     * Sans contre-pression : le serveur peut en perdre.
+     */
+    public static Result udp(int port, int senders, int packetsPerSender, IntFunction<Packet> packets)
+            throws IOException, InterruptedException {
+        byte[][] frames = encode(packets, packetsPerSender);
+        InetSocketAddress target = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        return run(senders, packetsPerSender, frames, () -> {
+            long sent = 0;
+            try (DatagramSocket socket = new DatagramSocket()) {
+                DatagramPacket datagram = new DatagramPacket(new byte[0], 0, target);
+                for (int i = 0; i < packetsPerSender; i++) {
+                    byte[] frame = frames[i % frames.length];
+                    datagram.setData(frame);
+                    socket.send(datagram);
+                    sent += frame.length;
+                }
+            }
+            return sent;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Sender {
+        long send() throws IOException;
+    }
+
+    private static Result run(int clients, int packetsPerClient, byte[][] frames, Sender sender)
+            throws IOException, InterruptedException {
+        if (clients < 1 || packetsPerClient < 0) {
+            throw new IllegalArgumentException("clients >= 1 et paquets >= 0 attendus");
+        }
+        ExecutorService executor = VirtualThreads.perTaskExecutor("parfeu-load");
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(sender::send));
+            }
+            long bytes = 0;
+            for (Future<Long> future : futures) {
+                try {
+                    bytes += future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException io) {
+                        throw io;
+                    }
+                    throw new IllegalStateException("Erreur du client de charge", e.getCause());
+                }
+            }
+            return new Result((long) clients * packetsPerClient, bytes, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[][] encode(IntFunction<Packet> packets, int count) {
+        Objects.requireNonNull(packets, "packets ne peut pas être null");
+        byte[][] frames = new byte[Math.max(1, Math.min(count, DISTINCT_FRAMES))][];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = PacketFrameCodec.encode(packets.apply(i));
+        }
+        return frames;
+    }
+
+    /**
+     * Paquets de test : sources et ports variés, payload HTTP banal.
+     */
+    public static Packet samplePacket(int i) {
+        return new PaquetSimple("192.168." + (i >>> 8 & 0xFF) + "." + (i & 0xFF), "10.0.0." + (i % 4 + 1),
+            1024 + i % 50_000, i % 2 == 0 ? 80 : 443, "TCP", "GET /index.html HTTP/1.1");
+    }
+
+    // ========== LIGNE DE COMMANDE ==========
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 4 || !(args[0].equals("tcp") || args[0].equals("udp"))) {
+            System.err.println("Usage: IngestLoadGenerator tcp|udp <port> <connexions> <paquets par connexion>");
+            System.exit(2);
+            return;
+        }
+        int port = Integer.parseInt(args[1]);
+        int clients = Integer.parseInt(args[2]);
+        int count = Integer.parseInt(args[3]);
+        Result result = args[0].equals("tcp")
+            ? tcp(port, clients, count, IngestLoadGenerator::samplePacket)
+            : udp(port, clients, count, IngestLoadGenerator::samplePacket);
+        System.out.printf("✓ %d paquets (%d octets) en %d ms : %.0f paquets/s%n",
+            result.packets(), result.bytes(), result.elapsedNanos() / 1_000_000, result.packetsPerSecond());
+    }
+}
@@ -0,0 +1,283 @@
+package com.mycompany.parfeu.Model.Rawen.ingest;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PacketFrameCodec;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serveur d'ingestion local : reçoit des paquets en trames {@link PacketFrameCodec}
+ * sur TCP et/ou UDP, liés à l'adresse de bouclage uniquement, et les confie au
+ * {@link PacketHandler}.
+ *
+ * TCP : une connexion par collecteur, servie par son propre thread (virtuel en
+ * Java 21, voir {@link VirtualThreads}). Le thread lit une trame, la traite,
+ * puis lit la suivante : tant que le traitement n'a pas rendu la main, la
+ * connexion n'est plus lue, son tampon de réception se remplit et TCP bloque
+ * l'écriture du client. Chaque collecteur est freiné séparément ; la taille
+ * du tampon ({@link #setReceiveBufferSize}) borne les octets en attente par
+ * connexion. Une longueur de trame invalide ferme la connexion (flux
+ * désynchronisé) ; un corps mal formé est compté puis ignoré.
+ *
+ * UDP : un datagramme par trame, un seul thread de réception. Pas de
+ * contre-pression possible : si le traitement ne suit pas, le système perd
+ * des datagrammes.
+ *
+ * Les trames deviennent des {@link com.mycompany.parfeu.Model.Mahran.generator.PaquetBrut}
+ * posés sur une copie exacte de leurs octets : le payload n'est décodé en
+ * chaîne que si un consommateur le demande.
+ *
+ * @author ZGARNI
+ */
+public final class IngestServer implements AutoCloseable {
+
+    private static final Logger LOG = Logging.getLogger(IngestServer.class);
+    private static final int ACCEPT_BACKLOG = 128;
+    private static final int READ_BUFFER = 64 * 1024;
+
+    /**
+     * Compteurs du serveur.
+     * @param malformedFrames trames rejetées (corps ou longueur invalide, datagramme tronqué)
+     * @param handlerErrors paquets dont le traitement a levé une exception
+     */
+    public record Stats(long connections, int activeConnections, long packets, long bytes,
+                        long malformedFrames, long handlerErrors) {
+    }
+
+    private final PacketHandler handler;
+    private final ExecutorService executor;
+    private final Set<Socket> activeSockets = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket tcpSocket;
+    private volatile DatagramSocket udpSocket;
+    private volatile boolean open = true;
+    private int receiveBufferSize = 0;
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder packets = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder malformedFrames = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+
+    public IngestServer(PacketHandler handler) {
+        this.handler = Objects.requireNonNull(handler, "handler ne peut pas être null");
+        this.executor = VirtualThreads.perTaskExecutor("parfeu-ingest");
+    }
+
+    /**
+     * Taille du tampon de réception de chaque connexion TCP (avant {@link #startTcp}) ;
+     * 0 = valeur du système.
+     */
+    public void setReceiveBufferSize(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes doit être >= 0");
+        }
+        this.receiveBufferSize = bytes;
+    }
+
+    // ========== TCP ==========
+
+    /**
+     * Écoute en TCP sur l'adresse de bouclage.
+     * @param port port, 0 = choisi par le système
+     * @return port effectivement utilisé
+     */
+    public synchronized int startTcp(int port) throws IOException {
+        if (tcpSocket != null) {
+            throw new IllegalStateException("Écoute TCP déjà démarrée");
+        }
+        ServerSocket server = new ServerSocket();
+        if (receiveBufferSize > 0) {
+            // Fixé avant bind : hérité par les connexions acceptées
+            server.setReceiveBufferSize(receiveBufferSize);
+        }
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), ACCEPT_BACKLOG);
+        tcpSocket = server;
+        Thread acceptor = new Thread(() -> accept(server), "parfeu-ingest-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOG.info("Ingestion TCP sur " + server.getLocalSocketAddress()
+            + (VirtualThreads.available() ? " (threads virtuels)" : ""));
+        return server.getLocalPort();
+    }
+
+    private void accept(ServerSocket server) {
+        while (open) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (open) {
+                    LOG.error("Ingestion TCP : " + e.getMessage(), e);
+                }
+                return;
+            }
+            connections.increment();
+            activeSockets.add(socket);
+            try {
+                executor.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                // arrêt en cours
+                activeSockets.remove(socket);
+                closeQuietly(socket);
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), READ_BUFFER));
+            while (open) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;  // fin normale : le client a fermé
+                }
+                try {
+                    PacketFrameCodec.checkBodyLength(length);
+                } catch (IllegalArgumentException e) {
+                    malformedFrames.increment();
+                    LOG.warn("Connexion " + socket.getRemoteSocketAddress() + " fermée : " + e.getMessage());
+                    return;
+                }
+                // Un tableau par trame : le paquet brut le garde comme payload
+                byte[] body = new byte[length];
+                in.readFully(body);
+                bytes.add(PacketFrameCodec.LENGTH_BYTES + length);
+                dispatch(ByteBuffer.wrap(body), false);
+            }
+        } catch (IOException e) {
+            if (open) {
+                LOG.warn("Connexion interrompue : " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeSockets.remove(socket);
+        }
+    }
+
+    // ========== UDP ==========
+
+    /**
+     * Écoute en UDP sur l'adresse de bouclage (un datagramme = une trame complète).
+     * @param port port, 0 = choisi par le système
+     * @return port effectivement utilisé
+     */
+    public synchronized int startUdp(int port) throws IOException {
+        if (udpSocket != null) {
+            throw new IllegalStateException("Écoute UDP déjà démarrée");
+        }
+        DatagramSocket socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        udpSocket = socket;
+        executor.execute(() -> receive(socket));
+        LOG.info("Ingestion UDP sur " + socket.getLocalSocketAddress());
+        return socket.getLocalPort();
+    }
+
+    private void receive(DatagramSocket socket) {
+        byte[] buffer = new byte[PacketFrameCodec.MAX_FRAME];
+        DatagramPacket datagram = new DatagramPacket(buffer, buffer.length);
+        try {
+            while (open) {
+                datagram.setLength(buffer.length);
+                socket.receive(datagram);
+                bytes.add(datagram.getLength());
+                dispatch(ByteBuffer.wrap(Arrays.copyOf(buffer, datagram.getLength())), true);
+            }
+        } catch (IOException e) {
+            if (open) {
+                LOG.error("Ingestion UDP : " + e.getMessage(), e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== TRAITEMENT ==========
+
+    /**
+     * @param frame corps de trame (TCP) ou trame complète (UDP)
+     */
+    private void dispatch(ByteBuffer frame, boolean withLength) throws InterruptedException {
+        Packet packet;
+        try {
+            packet = withLength ? PacketFrameCodec.wrapFrame(frame) : PacketFrameCodec.wrapBody(frame);
+        } catch (IllegalArgumentException e) {
+            malformedFrames.increment();
+            return;
+        }
+        packets.increment();
+        try {
+            handler.handle(packet);
+        } catch (RuntimeException e) {
+            handlerErrors.increment();
+            LOG.error("Traitement du paquet reçu : " + e.getMessage(), e);
+        }
+    }
+
+    // ========== ARRÊT ET STATISTIQUES ==========
+
+    /**
+     * Ferme l'écoute et toutes les connexions, puis attend la fin des threads.
+     */
+    @Override
+    public void close() {
+        open = false;
+        closeQuietly(tcpSocket);
+        closeQuietly(udpSocket);
+        for (Socket socket : activeSockets) {
+            closeQuietly(socket);
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // fermeture best-effort
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(connections.sum(), activeSockets.size(), packets.sum(), bytes.sum(),
+            malformedFrames.sum(), handlerErrors.sum());
+    }
+
+    public boolean usesVirtualThreads() {
+        return VirtualThreads.available();
+    }
+}
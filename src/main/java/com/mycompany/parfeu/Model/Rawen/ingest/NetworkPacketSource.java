@@ -0,0 +1,84 @@
+package com.mycompany.parfeu.Model.Rawen.ingest;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PacketSource;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source de paquets alimentée par un {@link IngestServer} : les connexions
+ * déposent leurs paquets dans une file bornée, {@link #next()} les en retire.
+ * File pleine : les connexions cessent de lire, leurs clients sont freinés.
+ *
+ * @author ZGARNI
+ */
+public final class NetworkPacketSource implements PacketSource {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<Packet> queue;
+    private final IngestServer server;
+    private final int port;
+    private volatile boolean closed = false;
+
+    private NetworkPacketSource(int queueCapacity, boolean udp, int port) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.server = new IngestServer(queue::put);
+        this.port = udp ? server.startUdp(port) : server.startTcp(port);
+    }
+
+    /**
+     * Écoute TCP sur l'adresse de bouclage.
+     * @param port port, 0 = choisi par le système
+     */
+    public static NetworkPacketSource tcp(int port, int queueCapacity) throws IOException {
+        return new NetworkPacketSource(queueCapacity, false, port);
+    }
+
+    /**
+     * Écoute UDP sur l'adresse de bouclage.
+     * @param port port, 0 = choisi par le système
+     */
+    public static NetworkPacketSource udp(int port, int queueCapacity) throws IOException {
+        return new NetworkPacketSource(queueCapacity, true, port);
+    }
+
+    /**
+     * Paquet suivant, quelle que soit la connexion ; null une fois la source fermée.
+     */
+    @Override
+    public Packet next() throws IOException {
+        try {
+            while (true) {
+                Packet packet = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (packet != null) {
+                    return packet;
+                }
+                if (closed) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("lecture interrompue");
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public IngestServer.Stats stats() {
+        return server.stats();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        server.close();
+    }
+}
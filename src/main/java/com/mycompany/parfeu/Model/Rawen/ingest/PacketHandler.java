@@ -0,0 +1,31 @@
+package com.mycompany.parfeu.Model.Rawen.ingest;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Traitement d'un paquet reçu, appelé sur le thread de sa connexion.
+ * Un traitement qui bloque (file pleine, moteur lent) suspend la lecture de
+ * cette connexion : c'est la contre-pression vers le client.
+ *
+ * @author ZGARNI
+ */
+@FunctionalInterface
+public interface PacketHandler {
+
+    void handle(Packet packet) throws InterruptedException;
+
+    /**
+     * Traite chaque paquet avec le moteur, sur le thread de la connexion.
+     * @param sink reçoit chaque décision (null = aucun)
+     */
+    static PacketHandler processing(FirewallEngine engine, Consumer<DecisionResult> sink) {
+        Objects.requireNonNull(engine, "engine ne peut pas être null");
+        Consumer<DecisionResult> target = sink != null ? sink : result -> { };
+        return packet -> target.accept(engine.processPacket(packet));
+    }
+}
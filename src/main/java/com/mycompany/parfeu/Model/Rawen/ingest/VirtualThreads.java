@@ -0,0 +1,57 @@
+package com.mycompany.parfeu.Model.Rawen.ingest;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Un thread par tâche : virtuel si la JVM le permet (Java 21+), sinon un
+ * thread système (démon). Recherché par réflexion : le code reste compilable
+ * en Java 17 et profite des threads virtuels à l'exécution en Java 21.
+ *
+ * @author ZGARNI
+ */
+final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    private static Method lookup() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // Java 19-20 : API en aperçu, refusée sans --enable-preview
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static boolean available() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Exécuteur démarrant un thread par tâche soumise.
+     * @param name préfixe du nom des threads système (repli sans threads virtuels)
+     */
+    static ExecutorService perTaskExecutor(String name) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // improbable : déjà invoquée avec succès au chargement
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journalisation asynchrone : les événements sont déposés dans une file
+ * bornée, un thread dédié les écrit dans la destination réelle.
+ *
+ * Le thread qui journalise ne bloque jamais : file pleine, l'événement est
+ * perdu et compté ; le nombre de pertes est signalé dans le journal dès que
+ * la file se vide. La destination est vidée (flush) chaque fois que la file
+ * est vide, pas après chaque événement.
+ *
+ * @author ZGARNI
+ */
+public final class AsyncLogSink implements LogSink {
+
+    private static final int BATCH = 256;
+
+    private final LogSink delegate;
+    private final BlockingQueue<LogRecord> queue;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private volatile long written = 0;
+    private volatile boolean closed = false;
+
+    public AsyncLogSink(LogSink delegate, int capacity) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate ne peut pas être null");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "parfeu-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void write(LogRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        accepted.incrementAndGet();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(BATCH);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                LogRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+                for (LogRecord record : batch) {
+                    writeQuietly(record);
+                }
+                written += batch.size();
+                batch.clear();
+                if (queue.isEmpty()) {
+                    long drops = dropped.get();
+                    if (drops != reportedDrops) {
+                        writeQuietly(new LogRecord(System.currentTimeMillis(), LogLevel.WARN, "AsyncLogSink",
+                            writer.getName(), "Événements perdus (file pleine)", new Object[] { "count", drops - reportedDrops }, null));
+                        reportedDrops = drops;
+                    }
+                    delegate.flush();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("✗ Journal : " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeQuietly(LogRecord record) {
+        try {
+            delegate.write(record);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("✗ Journal : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attend l'écriture de tous les événements acceptés jusqu'ici (au plus une seconde).
+     */
+    @Override
+    public void flush() throws IOException {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (written < target && writer.isAlive() && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Écrit ce qui reste en file, puis ferme la destination.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
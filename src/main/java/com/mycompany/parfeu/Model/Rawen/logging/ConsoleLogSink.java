@@ -0,0 +1,62 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Journal lisible sur la console : WARN et ERROR sur la sortie d'erreur,
+ * le reste sur la sortie standard.
+ * <pre>09:41:07.123 INFO  [FirewallEngine] Décision action=DROP score=4 src=10.0.0.1</pre>
+ *
+ * @author ZGARNI
+ */
+public final class ConsoleLogSink implements LogSink {
+
+    private static final DateTimeFormatter TIME =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ConsoleLogSink() {
+        this(System.out, System.err);
+    }
+
+    public ConsoleLogSink(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void write(LogRecord record) {
+        StringBuilder line = new StringBuilder(128)
+            .append(TIME.format(Instant.ofEpochMilli(record.epochMillis()))).append(' ')
+            .append(String.format("%-5s", record.level())).append(" [").append(record.logger()).append("] ")
+            .append(record.message());
+        Object[] fields = record.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=').append(fields[i + 1]);
+        }
+        PrintStream target = record.level().compareTo(LogLevel.WARN) >= 0 ? err : out;
+        synchronized (target) {
+            target.println(line);
+            if (record.error() != null) {
+                record.error().printStackTrace(target);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+        err.flush();
+    }
+
+    @Override
+    public void close() {
+        // flux du système : vidés, jamais fermés
+        flush();
+    }
+}
@@ -0,0 +1,112 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Journal structuré, un objet JSON par ligne :
+ * <pre>{"ts":"2026-01-05T09:41:07.123Z","level":"INFO","logger":"FirewallEngine","thread":"main","msg":"Décision","action":"DROP","score":4}</pre>
+ * Les champs de l'événement deviennent des attributs (nombres et booléens
+ * tels quels, le reste en chaîne) ; l'exception éventuelle est dans "error".
+ * Écrit à travers un tampon : vidé par {@link #flush()}.
+ *
+ * @author ZGARNI
+ */
+public final class JsonLinesLogSink implements LogSink {
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public JsonLinesLogSink(OutputStream out) {
+        Objects.requireNonNull(out, "out ne peut pas être null");
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Fichier ouvert en ajout (créé si absent).
+     */
+    public static JsonLinesLogSink toFile(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new JsonLinesLogSink(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+    }
+
+    @Override
+    public synchronized void write(LogRecord record) throws IOException {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.epochMillis())).append('"');
+        line.append(",\"level\":\"").append(record.level()).append('"');
+        appendString("logger", record.logger());
+        appendString("thread", record.thread());
+        appendString("msg", record.message());
+        Object[] fields = record.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            Object value = fields[i + 1];
+            if (value instanceof Number || value instanceof Boolean) {
+                line.append(",\"");
+                escape(String.valueOf(fields[i]));
+                line.append("\":").append(value);
+            } else {
+                appendString(String.valueOf(fields[i]), String.valueOf(value));
+            }
+        }
+        if (record.error() != null) {
+            StringWriter trace = new StringWriter();
+            record.error().printStackTrace(new PrintWriter(trace));
+            appendString("error", trace.toString());
+        }
+        line.append("}\n");
+        writer.append(line);
+    }
+
+    private void appendString(String key, String value) {
+        line.append(",\"");
+        escape(key);
+        line.append("\":\"");
+        escape(value);
+        line.append('"');
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.util.Locale;
+
+/**
+ * Niveaux de journalisation, du plus bavard au plus grave.
+ * OFF désactive tout.
+ *
+ * @author ZGARNI
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Niveau depuis son nom, sans tenir compte de la casse.
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    public static LogLevel parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("niveau de journalisation inconnu: " + name, e);
+        }
+    }
+}
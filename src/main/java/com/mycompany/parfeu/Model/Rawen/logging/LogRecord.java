@@ -0,0 +1,13 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+/**
+ * Événement de journal, construit seulement si son niveau est actif.
+ *
+ * @param epochMillis instant de l'événement
+ * @param fields paires clé, valeur (clés String), jamais null
+ * @param error exception associée, ou null
+ * @author ZGARNI
+ */
+public record LogRecord(long epochMillis, LogLevel level, String logger, String thread,
+                        String message, Object[] fields, Throwable error) {
+}
@@ -0,0 +1,24 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination des événements de journal (console, fichier JSON...).
+ * Peut être appelée depuis plusieurs threads : une destination bloquante
+ * est placée derrière un {@link AsyncLogSink}.
+ *
+ * @author ZGARNI
+ */
+public interface LogSink extends Closeable {
+
+    void write(LogRecord record) throws IOException;
+
+    default void flush() throws IOException {
+    }
+
+    @Override
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.util.function.Supplier;
+
+/**
+ * Journal d'un composant, obtenu par {@link Logging#getLogger(Class)}.
+ *
+ * Un niveau désactivé coûte une comparaison d'entiers : le message n'est pas
+ * construit (chaîne constante, ou {@link Supplier} jamais appelé). Sur les
+ * chemins critiques, tester {@link #isEnabled} avant de préparer les champs
+ * d'un {@link #event} évite aussi l'allocation du tableau d'arguments.
+ *
+ * @author ZGARNI
+ */
+public final class Logger {
+
+    private static final Object[] NO_FIELDS = new Object[0];
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= Logging.threshold;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, message.get(), null);
+        }
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        log(LogLevel.WARN, message, error);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(LogLevel.ERROR, message, error);
+    }
+
+    /**
+     * Événement structuré : message fixe et champs clé, valeur
+     * ({@code "action", action, "score", 4}).
+     */
+    public void event(LogLevel level, String message, Object... fields) {
+        if (isEnabled(level)) {
+            emit(level, message, fields, null);
+        }
+    }
+
+    private void log(LogLevel level, String message, Throwable error) {
+        if (isEnabled(level)) {
+            emit(level, message, NO_FIELDS, error);
+        }
+    }
+
+    private void emit(LogLevel level, String message, Object[] fields, Throwable error) {
+        Logging.emit(new LogRecord(System.currentTimeMillis(), level, name,
+            Thread.currentThread().getName(), message, fields, error));
+    }
+}
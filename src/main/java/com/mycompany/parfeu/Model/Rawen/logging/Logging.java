@@ -0,0 +1,131 @@
+package com.mycompany.parfeu.Model.Rawen.logging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuration globale de la journalisation : niveau et destination.
+ *
+ * Par défaut (propriétés système, lues au premier usage) :
+ * <pre>
+ *   -Dparfeu.log.level=INFO        TRACE | DEBUG | INFO | WARN | ERROR | OFF
+ *   -Dparfeu.log.json=&lt;fichier&gt;    journal JSON (une ligne par événement) au lieu de la console
+ *   -Dparfeu.log.async=true        écriture par un thread dédié, file de {@value #QUEUE_CAPACITY}
+ * </pre>
+ * La destination est vidée et fermée par le propriétaire de l'application,
+ * en dernière étape de son arrêt ({@link #shutdown()}).
+ *
+ * @author ZGARNI
+ */
+public final class Logging {
+
+    static final int QUEUE_CAPACITY = 16_384;
+
+    // Ordinal du niveau minimal journalisé, lu sans verrou par les Logger
+    static volatile int threshold;
+    private static volatile LogSink sink;
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    static {
+        threshold = LogLevel.parse(System.getProperty("parfeu.log.level", "INFO")).ordinal();
+        LogSink base = new ConsoleLogSink();
+        String json = System.getProperty("parfeu.log.json");
+        if (json != null && !json.isBlank()) {
+            try {
+                base = JsonLinesLogSink.toFile(Path.of(json));
+            } catch (IOException e) {
+                System.err.println("⚠️  Journal JSON indisponible, console utilisée : " + e.getMessage());
+            }
+        }
+        sink = Boolean.parseBoolean(System.getProperty("parfeu.log.async", "true"))
+            ? new AsyncLogSink(base, QUEUE_CAPACITY)
+            : base;
+    }
+
+    private Logging() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getSimpleName());
+    }
+
+    public static Logger getLogger(String name) {
+        Objects.requireNonNull(name, "name ne peut pas être null");
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    public static LogLevel getLevel() {
+        return LogLevel.values()[threshold];
+    }
+
+    public static void setLevel(LogLevel level) {
+        threshold = Objects.requireNonNull(level, "level ne peut pas être null").ordinal();
+    }
+
+    /**
+     * Remplace la destination ; l'ancienne est vidée puis fermée.
+     * Une destination bloquante (fichier, console) gagne à être enveloppée
+     * dans un {@link AsyncLogSink}.
+     */
+    public static void setSink(LogSink newSink) {
+        Objects.requireNonNull(newSink, "sink ne peut pas être null");
+        LogSink previous;
+        synchronized (Logging.class) {
+            previous = sink;
+            sink = newSink;
+        }
+        closeQuietly(previous);
+    }
+
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Vide la destination courante (attend l'écriture des événements en file).
+     */
+    public static void flush() {
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            System.err.println("✗ Journal : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vide et ferme la destination courante ; les événements émis ensuite
+     * (autres crochets d'arrêt) sont écrits directement sur la console.
+     */
+    public static void shutdown() {
+        LogSink previous;
+        synchronized (Logging.class) {
+            previous = sink;
+            if (previous instanceof ConsoleLogSink) {
+                flush();
+                return;
+            }
+            sink = new ConsoleLogSink();
+        }
+        closeQuietly(previous);
+    }
+
+    static void emit(LogRecord record) {
+        try {
+            sink.write(record);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("✗ Journal : " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(LogSink target) {
+        try {
+            target.close();
+        } catch (IOException e) {
+            System.err.println("✗ Fermeture du journal : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index secondaires des segments de blocs : IP source et IP destination
+ * vers les positions des blocs (listes triées, une entrée par bloc), plus
+ * l'ordre chronologique des horodatages qui sert d'index temporel.
+ *
+ * Les clés d'IP sont les valeurs stockées dans les enregistrements :
+ * IPv4 sur 32 bits, ou identifiant de symbole marqué du bit 32.
+ * Tenu à jour par {@link BlockSegmentStore} à chaque ajout.
+ */
+final class BlockIndex {
+
+    private final Map<Long, Postings> bySource = new HashMap<>();
+    private final Map<Long, Postings> byDestination = new HashMap<>();
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private boolean timeOrdered = true;
+
+    static long key(int value, boolean symbol) {
+        return symbol ? (1L << 32) | (value & 0xFFFFFFFFL) : value & 0xFFFFFFFFL;
+    }
+
+    void addSource(long key, int position) {
+        bySource.computeIfAbsent(key, k -> new Postings()).add(position);
+    }
+
+    void addDestination(long key, int position) {
+        byDestination.computeIfAbsent(key, k -> new Postings()).add(position);
+    }
+
+    void addTimestamp(long timestamp) {
+        if (timestamp < lastTimestamp) {
+            // Horloge revenue en arrière : recherche par intervalle désactivée (filtrage seul)
+            timeOrdered = false;
+        }
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    Postings source(long key) {
+        return bySource.get(key);
+    }
+
+    Postings destination(long key) {
+        return byDestination.get(key);
+    }
+
+    /**
+     * Vrai si les horodatages croissent avec la position (recherche dichotomique possible).
+     */
+    boolean isTimeOrdered() {
+        return timeOrdered;
+    }
+
+    /**
+     * Positions croissantes des blocs d'une clé.
+     */
+    static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            // Plusieurs décisions d'un même bloc : une seule entrée
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(positions, 0, grown, 0, size);
+                positions = grown;
+            }
+            positions[size++] = position;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return positions[i];
+        }
+
+        /**
+         * Nombre d'entrées strictement inférieures à {@code position}.
+         */
+        int countBelow(int position) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[mid] < position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
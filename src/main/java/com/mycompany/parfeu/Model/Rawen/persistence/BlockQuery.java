@@ -0,0 +1,81 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import com.mycompany.parfeu.Model.Rawen.decision.Action;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Critères de recherche dans l'historique des blocs (voir {@link StorageManager#queryBlocks}).
+ *
+ * Un bloc correspond si l'une de ses décisions vérifie tous les critères
+ * renseignés (null = indifférent) et si son horodatage de scellement est
+ * dans [fromMillis, toMillis]. Au plus {@code limit} blocs, les plus récents.
+ * <pre>
+ *   BlockQuery.all().fromSource("10.0.0.5").withAction(Actions.DROP).since(Duration.ofHours(1))
+ * </pre>
+ *
+ * @author ZGARNI
+ */
+public record BlockQuery(
+    String srcIP,
+    String destIP,
+    Action action,
+    long fromMillis,
+    long toMillis,
+    int limit
+) {
+
+    public static final int DEFAULT_LIMIT = 10_000;
+
+    public BlockQuery {
+        if (fromMillis > toMillis) {
+            throw new IllegalArgumentException("Intervalle de temps invalide: " + fromMillis + " > " + toMillis);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit doit être >= 1");
+        }
+    }
+
+    /**
+     * Tous les blocs (dans la limite par défaut).
+     */
+    public static BlockQuery all() {
+        return new BlockQuery(null, null, null, Long.MIN_VALUE, Long.MAX_VALUE, DEFAULT_LIMIT);
+    }
+
+    public BlockQuery fromSource(String ip) {
+        Objects.requireNonNull(ip, "ip ne peut pas être null");
+        return new BlockQuery(ip, destIP, action, fromMillis, toMillis, limit);
+    }
+
+    public BlockQuery toDestination(String ip) {
+        Objects.requireNonNull(ip, "ip ne peut pas être null");
+        return new BlockQuery(srcIP, ip, action, fromMillis, toMillis, limit);
+    }
+
+    public BlockQuery withAction(Action action) {
+        Objects.requireNonNull(action, "action ne peut pas être null");
+        return new BlockQuery(srcIP, destIP, action, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * Blocs scellés entre les deux instants (millisecondes epoch, bornes incluses).
+     */
+    public BlockQuery between(long fromMillis, long toMillis) {
+        return new BlockQuery(srcIP, destIP, action, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * Blocs scellés pendant la dernière {@code window}.
+     */
+    public BlockQuery since(Duration window) {
+        Objects.requireNonNull(window, "window ne peut pas être null");
+        long now = System.currentTimeMillis();
+        return between(now - window.toMillis(), now);
+    }
+
+    public BlockQuery limit(int maxBlocks) {
+        return new BlockQuery(srcIP, destIP, action, fromMillis, toMillis, maxBlocks);
+    }
+}
@@ -0,0 +1,648 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import com.mycompany.parfeu.Model.Mahran.generator.IPv4Address;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.blockchain.BlockHash;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Historique des blocs en segments binaires à enregistrements de taille fixe,
+ * lus et écrits via {@link MappedByteBuffer}.
+ *
+ * Deux séries de segments dans le même répertoire :
+ * <ul>
+ *   <li>blocks-NNNNNN.seg : un enregistrement de {@value #BLOCK_RECORD} octets par bloc
+ *       (champs du premier paquet, score, les trois hash de 32 octets) ;</li>
+ *   <li>decisions-NNNNNN.seg : un enregistrement de {@value #DECISION_RECORD} octets par
+ *       décision des blocs en lot (un bloc d'une décision n'en a pas).</li>
+ * </ul>
+ * Le bloc N est à la position N : accès direct en O(1). Les IPv4 sont stockées en int,
+ * les ports en char ; protocoles, actions et IP non IPv4 passent par le dictionnaire
+ * symbols.txt. L'octet de validation d'un bloc est écrit en dernier : un enregistrement
+ * incomplet (arrêt brutal) est ignoré à la réouverture puis réécrit.
+ *
+ * Les index secondaires ({@link BlockIndex}) sont dérivés des enregistrements :
+ * reconstruits à l'ouverture par une lecture des champs bruts, puis tenus à jour
+ * à chaque ajout. Les positions y sont des int (2^31 blocs au plus).
+ *
+ * Non thread-safe en écriture : l'appelant sérialise {@link #append}.
+ */
+final class BlockSegmentStore implements AutoCloseable {
+
+    static final int BLOCK_RECORD = 160;
+    static final int DECISION_RECORD = 48;
+    static final int SEGMENT_RECORDS = 1 << 16;
+
+    private static final String BLOCK_SEGMENT = "blocks-%06d.seg";
+    private static final String DECISION_SEGMENT = "decisions-%06d.seg";
+    private static final String SYMBOLS_FILE = "symbols.txt";
+
+    private static final byte COMMITTED = 0x5A;
+    private static final int FLAG_SRC_SYMBOL = 1;
+    private static final int FLAG_DEST_SYMBOL = 1 << 1;
+    private static final int FLAG_MERKLE = 1 << 2;
+
+    // Enregistrement bloc
+    private static final int B_MARKER = 0;
+    private static final int B_FLAGS = 1;
+    private static final int B_HASH_VERSION = 2;
+    private static final int B_INDEX = 4;
+    private static final int B_TIMESTAMP = 8;
+    private static final int B_PACKET_SECONDS = 16;
+    private static final int B_PACKET_NANOS = 24;
+    private static final int B_SRC_IP = 28;
+    private static final int B_DEST_IP = 32;
+    private static final int B_SRC_PORT = 36;
+    private static final int B_DEST_PORT = 38;
+    private static final int B_PROTOCOL = 40;
+    private static final int B_ACTION = 42;
+    private static final int B_SIZE = 44;
+    private static final int B_SCORE = 48;
+    private static final int B_DECISION_COUNT = 52;
+    private static final int B_FIRST_DECISION = 56;
+    private static final int B_PREVIOUS_HASH = 64;
+    private static final int B_HASH = 96;
+    private static final int B_MERKLE_ROOT = 128;
+
+    // Enregistrement décision
+    private static final int D_FLAGS = 1;
+    private static final int D_PROTOCOL = 2;
+    private static final int D_ACTION = 4;
+    private static final int D_SRC_PORT = 6;
+    private static final int D_DEST_PORT = 8;
+    private static final int D_SRC_IP = 12;
+    private static final int D_DEST_IP = 16;
+    private static final int D_SIZE = 20;
+    private static final int D_SCORE = 24;
+    private static final int D_PACKET_NANOS = 28;
+    private static final int D_PACKET_SECONDS = 32;
+    private static final int D_BLOCK_INDEX = 40;
+
+    // Clés de requête hors index : critère absent, IP jamais stockée
+    private static final long ANY = -1L;
+    private static final long MISSING = -2L;
+
+    private final Path directory;
+    // Liste copiée à l'écriture : un segment est ajouté toutes les 65536 entrées
+    private final List<MappedByteBuffer> blockSegments = new CopyOnWriteArrayList<>();
+    private final List<MappedByteBuffer> decisionSegments = new CopyOnWriteArrayList<>();
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private FileChannel symbolChannel;
+    private final BlockIndex index = new BlockIndex();
+
+    private volatile long blockCount;
+    private long decisionCount;
+
+    BlockSegmentStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadSymbols();
+        while (Files.exists(segmentPath(BLOCK_SEGMENT, blockSegments.size()))) {
+            blockSegments.add(map(BLOCK_SEGMENT, blockSegments.size(), BLOCK_RECORD));
+        }
+        while (Files.exists(segmentPath(DECISION_SEGMENT, decisionSegments.size()))) {
+            decisionSegments.add(map(DECISION_SEGMENT, decisionSegments.size(), DECISION_RECORD));
+        }
+        recoverCounts();
+        rebuildIndex();
+    }
+
+    long size() {
+        return blockCount;
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    // ========== ÉCRITURE ==========
+
+    void append(Block block) throws IOException {
+        long ordinal = blockCount;
+        List<DecisionResult> decisions = block.decisions();
+        long firstDecision = decisionCount;
+
+        // Décisions d'abord (blocs en lot) : le bloc n'est validé qu'ensuite
+        if (block.isBatch()) {
+            for (DecisionResult decision : decisions) {
+                writeDecision(decisionCount++, (int) ordinal, block.index(), decision);
+            }
+        }
+
+        ByteBuffer segment = blockSegment(ordinal);
+        int at = offset(ordinal, BLOCK_RECORD);
+        int flags = 0;
+        int srcIP = encodeIP(block.srcIP());
+        if (srcIP == -1 && !block.srcIP().equals("255.255.255.255")) {
+            srcIP = symbol(block.srcIP());
+            flags |= FLAG_SRC_SYMBOL;
+        }
+        int destIP = encodeIP(block.destIP());
+        if (destIP == -1 && !block.destIP().equals("255.255.255.255")) {
+            destIP = symbol(block.destIP());
+            flags |= FLAG_DEST_SYMBOL;
+        }
+        if (block.merkleRoot() != null) {
+            flags |= FLAG_MERKLE;
+        }
+        int score = decisions.isEmpty() ? 0 : decisions.get(0).getTotalScore();
+
+        segment.put(at + B_MARKER, (byte) 0);
+        segment.put(at + B_FLAGS, (byte) flags);
+        segment.put(at + B_HASH_VERSION, (byte) block.hashVersion());
+        segment.putInt(at + B_INDEX, block.index());
+        segment.putLong(at + B_TIMESTAMP, block.timestamp());
+        segment.putLong(at + B_PACKET_SECONDS, block.packetTimestamp().toEpochSecond(ZoneOffset.UTC));
+        segment.putInt(at + B_PACKET_NANOS, block.packetTimestamp().getNano());
+        segment.putInt(at + B_SRC_IP, srcIP);
+        segment.putInt(at + B_DEST_IP, destIP);
+        segment.putChar(at + B_SRC_PORT, (char) block.srcPort());
+        segment.putChar(at + B_DEST_PORT, (char) block.destPort());
+        segment.putShort(at + B_PROTOCOL, (short) symbol(block.protocol()));
+        segment.putShort(at + B_ACTION, (short) symbol(block.action()));
+        segment.putInt(at + B_SIZE, block.size());
+        segment.putInt(at + B_SCORE, score);
+        segment.putInt(at + B_DECISION_COUNT, decisions.size());
+        // Pour un bloc d'une décision : fin des décisions écrites jusqu'ici (reprise)
+        segment.putLong(at + B_FIRST_DECISION, firstDecision);
+        segment.put(at + B_PREVIOUS_HASH, block.previousHash().toBytes());
+        segment.put(at + B_HASH, block.hash().toBytes());
+        segment.put(at + B_MERKLE_ROOT, block.merkleRoot() != null
+            ? block.merkleRoot().toBytes() : new byte[BlockHash.LENGTH]);
+        segment.put(at + B_MARKER, COMMITTED);
+
+        if (decisions.size() == 1) {
+            index.addSource(BlockIndex.key(srcIP, (flags & FLAG_SRC_SYMBOL) != 0), (int) ordinal);
+            index.addDestination(BlockIndex.key(destIP, (flags & FLAG_DEST_SYMBOL) != 0), (int) ordinal);
+        }
+        index.addTimestamp(block.timestamp());
+        blockCount = ordinal + 1;
+    }
+
+    private void writeDecision(long ordinal, int position, int blockIndex, DecisionResult decision) throws IOException {
+        Packet packet = decision.getPacket();
+        ByteBuffer segment = decisionSegment(ordinal);
+        int at = offset(ordinal, DECISION_RECORD);
+        int flags = 0;
+        int srcIP = encodeIP(packet.getSrcIP());
+        if (srcIP == -1 && !packet.getSrcIP().equals("255.255.255.255")) {
+            srcIP = symbol(packet.getSrcIP());
+            flags |= FLAG_SRC_SYMBOL;
+        }
+        int destIP = encodeIP(packet.getDestIP());
+        if (destIP == -1 && !packet.getDestIP().equals("255.255.255.255")) {
+            destIP = symbol(packet.getDestIP());
+            flags |= FLAG_DEST_SYMBOL;
+        }
+        LocalDateTime timestamp = packet.getTimestamp();
+
+        segment.put(at + D_FLAGS, (byte) flags);
+        segment.putShort(at + D_PROTOCOL, (short) symbol(packet.getProtocol()));
+        segment.putShort(at + D_ACTION, (short) symbol(decision.getAction().toString()));
+        segment.putChar(at + D_SRC_PORT, (char) packet.getSrcPort());
+        segment.putChar(at + D_DEST_PORT, (char) packet.getDestPort());
+        segment.putInt(at + D_SRC_IP, srcIP);
+        segment.putInt(at + D_DEST_IP, destIP);
+        segment.putInt(at + D_SIZE, packet.getSize());
+        segment.putInt(at + D_SCORE, decision.getTotalScore());
+        segment.putInt(at + D_PACKET_NANOS, timestamp.getNano());
+        segment.putLong(at + D_PACKET_SECONDS, timestamp.toEpochSecond(ZoneOffset.UTC));
+        segment.putInt(at + D_BLOCK_INDEX, blockIndex);
+
+        index.addSource(BlockIndex.key(srcIP, (flags & FLAG_SRC_SYMBOL) != 0), position);
+        index.addDestination(BlockIndex.key(destIP, (flags & FLAG_DEST_SYMBOL) != 0), position);
+    }
+
+    /**
+     * Écrit les pages modifiées sur disque (fsync).
+     */
+    void force() throws IOException {
+        if (blockCount == 0) {
+            return;
+        }
+        blockSegments.get(segmentOf(blockCount - 1)).force();
+        if (decisionCount > 0) {
+            decisionSegments.get(segmentOf(decisionCount - 1)).force();
+        }
+        if (symbolChannel != null) {
+            symbolChannel.force(false);
+        }
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Bloc à la position donnée, décisions comprises.
+     */
+    Block read(long ordinal) {
+        if (ordinal < 0 || ordinal >= blockCount) {
+            throw new IndexOutOfBoundsException("Bloc " + ordinal + " hors de l'historique (" + blockCount + ")");
+        }
+        ByteBuffer segment = blockSegments.get(segmentOf(ordinal));
+        int at = offset(ordinal, BLOCK_RECORD);
+        int flags = segment.get(at + B_FLAGS);
+
+        int index = segment.getInt(at + B_INDEX);
+        String srcIP = decodeIP(segment.getInt(at + B_SRC_IP), (flags & FLAG_SRC_SYMBOL) != 0);
+        String destIP = decodeIP(segment.getInt(at + B_DEST_IP), (flags & FLAG_DEST_SYMBOL) != 0);
+        int srcPort = segment.getChar(at + B_SRC_PORT);
+        int destPort = segment.getChar(at + B_DEST_PORT);
+        String protocol = symbols.get(segment.getChar(at + B_PROTOCOL));
+        String action = symbols.get(segment.getChar(at + B_ACTION));
+        LocalDateTime packetTimestamp = LocalDateTime.ofEpochSecond(
+            segment.getLong(at + B_PACKET_SECONDS), segment.getInt(at + B_PACKET_NANOS), ZoneOffset.UTC);
+        int decisionTotal = segment.getInt(at + B_DECISION_COUNT);
+
+        List<DecisionResult> decisions;
+        if (decisionTotal == 0) {
+            decisions = List.of();
+        } else if (decisionTotal == 1) {
+            // Décision unique : portée par l'enregistrement du bloc
+            decisions = List.of(StoredDecisions.restore(srcIP, destIP, srcPort, destPort, protocol,
+                packetTimestamp, action, segment.getInt(at + B_SCORE)));
+        } else {
+            long first = segment.getLong(at + B_FIRST_DECISION);
+            decisions = new ArrayList<>(decisionTotal);
+            for (int i = 0; i < decisionTotal; i++) {
+                decisions.add(readDecision(first + i));
+            }
+        }
+
+        return new Block(
+            index,
+            decisions,
+            hashAt(segment, at + B_PREVIOUS_HASH),
+            segment.getLong(at + B_TIMESTAMP),
+            hashAt(segment, at + B_HASH),
+            srcIP,
+            destIP,
+            srcPort,
+            destPort,
+            protocol,
+            index == 0 ? protocol : "Restored",
+            segment.getInt(at + B_SIZE),
+            packetTimestamp,
+            action,
+            (flags & FLAG_MERKLE) != 0 ? hashAt(segment, at + B_MERKLE_ROOT) : null,
+            segment.get(at + B_HASH_VERSION),
+            true
+        );
+    }
+
+    private DecisionResult readDecision(long ordinal) {
+        ByteBuffer segment = decisionSegments.get(segmentOf(ordinal));
+        int at = offset(ordinal, DECISION_RECORD);
+        int flags = segment.get(at + D_FLAGS);
+        return StoredDecisions.restore(
+            decodeIP(segment.getInt(at + D_SRC_IP), (flags & FLAG_SRC_SYMBOL) != 0),
+            decodeIP(segment.getInt(at + D_DEST_IP), (flags & FLAG_DEST_SYMBOL) != 0),
+            segment.getChar(at + D_SRC_PORT),
+            segment.getChar(at + D_DEST_PORT),
+            symbols.get(segment.getChar(at + D_PROTOCOL)),
+            LocalDateTime.ofEpochSecond(
+                segment.getLong(at + D_PACKET_SECONDS), segment.getInt(at + D_PACKET_NANOS), ZoneOffset.UTC),
+            symbols.get(segment.getChar(at + D_ACTION)),
+            segment.getInt(at + D_SCORE)
+        );
+    }
+
+    private static BlockHash hashAt(ByteBuffer segment, int at) {
+        byte[] bytes = new byte[BlockHash.LENGTH];
+        segment.get(at, bytes);
+        return BlockHash.copyOf(bytes);
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Blocs correspondant à la requête, dans l'ordre de la chaîne (les plus récents
+     * si la limite est atteinte). Les candidats viennent de l'index d'IP le plus
+     * sélectif, sinon de l'intervalle de positions couvert par la plage de temps ;
+     * les autres critères sont vérifiés sur les champs bruts avant toute lecture de bloc.
+     */
+    List<Block> query(BlockQuery query) {
+        int count = (int) Math.min(blockCount, Integer.MAX_VALUE);
+        long srcKey = lookupKey(query.srcIP());
+        long destKey = lookupKey(query.destIP());
+        int actionId = -1;
+        if (query.action() != null) {
+            Integer id = symbolIds.get(query.action().toString());
+            if (id == null) {
+                return List.of();
+            }
+            actionId = id;
+        }
+        if (srcKey == MISSING || destKey == MISSING) {
+            return List.of();
+        }
+
+        // Positions [low, high) dont l'horodatage peut être dans l'intervalle
+        int low = 0;
+        int high = count;
+        if (index.isTimeOrdered()) {
+            low = query.fromMillis() == Long.MIN_VALUE ? 0 : firstPositionAfter(query.fromMillis() - 1, count);
+            high = query.toMillis() == Long.MAX_VALUE ? count : firstPositionAfter(query.toMillis(), count);
+        }
+
+        // Liste d'IP la plus courte comme candidats, l'autre critère est vérifié ensuite
+        BlockIndex.Postings candidates = null;
+        if (srcKey != ANY) {
+            candidates = index.source(srcKey);
+            if (candidates == null) {
+                return List.of();
+            }
+        }
+        if (destKey != ANY) {
+            BlockIndex.Postings byDestination = index.destination(destKey);
+            if (byDestination == null) {
+                return List.of();
+            }
+            if (candidates == null || byDestination.size() < candidates.size()) {
+                candidates = byDestination;
+            }
+        }
+
+        List<Block> results = new ArrayList<>();
+        if (candidates != null) {
+            for (int i = candidates.countBelow(high) - 1; i >= 0 && results.size() < query.limit(); i--) {
+                int position = candidates.get(i);
+                if (position < low) {
+                    break;
+                }
+                if (matches(position, srcKey, destKey, actionId, query)) {
+                    results.add(read(position));
+                }
+            }
+        } else {
+            for (int position = high - 1; position >= low && results.size() < query.limit(); position--) {
+                if (matches(position, srcKey, destKey, actionId, query)) {
+                    results.add(read(position));
+                }
+            }
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Clé d'index d'une IP de requête : ANY sans critère, MISSING si l'IP n'a jamais été stockée.
+     */
+    private long lookupKey(String ip) {
+        if (ip == null) {
+            return ANY;
+        }
+        long address = IPv4Address.tryParse(ip);
+        if (address != IPv4Address.INVALID) {
+            return BlockIndex.key((int) address, false);
+        }
+        Integer id = symbolIds.get(ip);
+        return id == null ? MISSING : BlockIndex.key(id, true);
+    }
+
+    /**
+     * Première position dont l'horodatage de bloc dépasse {@code millis} (horodatages croissants).
+     */
+    private int firstPositionAfter(long millis, int count) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockSegments.get(segmentOf(mid)).getLong(offset(mid, BLOCK_RECORD) + B_TIMESTAMP) <= millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vérifie les critères sur les champs bruts : horodatage du bloc, puis
+     * une décision (celle du bloc, ou l'une des décisions d'un lot) qui les vérifie tous.
+     */
+    private boolean matches(int position, long srcKey, long destKey, int actionId, BlockQuery query) {
+        if (position >= blockCount) {
+            return false;
+        }
+        ByteBuffer segment = blockSegments.get(segmentOf(position));
+        int at = offset(position, BLOCK_RECORD);
+        long timestamp = segment.getLong(at + B_TIMESTAMP);
+        if (timestamp < query.fromMillis() || timestamp > query.toMillis()) {
+            return false;
+        }
+        if (srcKey == ANY && destKey == ANY && actionId < 0) {
+            return true;
+        }
+        int decisions = segment.getInt(at + B_DECISION_COUNT);
+        if (decisions == 1) {
+            int flags = segment.get(at + B_FLAGS);
+            return matches(segment, at, flags, B_SRC_IP, B_DEST_IP, B_ACTION, srcKey, destKey, actionId);
+        }
+        long first = segment.getLong(at + B_FIRST_DECISION);
+        for (int i = 0; i < decisions; i++) {
+            long ordinal = first + i;
+            ByteBuffer decisionSegment = decisionSegments.get(segmentOf(ordinal));
+            int d = offset(ordinal, DECISION_RECORD);
+            int flags = decisionSegment.get(d + D_FLAGS);
+            if (matches(decisionSegment, d, flags, D_SRC_IP, D_DEST_IP, D_ACTION, srcKey, destKey, actionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(ByteBuffer segment, int at, int flags, int srcField, int destField,
+                                   int actionField, long srcKey, long destKey, int actionId) {
+        return (srcKey == ANY
+                || BlockIndex.key(segment.getInt(at + srcField), (flags & FLAG_SRC_SYMBOL) != 0) == srcKey)
+            && (destKey == ANY
+                || BlockIndex.key(segment.getInt(at + destField), (flags & FLAG_DEST_SYMBOL) != 0) == destKey)
+            && (actionId < 0 || segment.getChar(at + actionField) == actionId);
+    }
+
+    /**
+     * Reconstruit les index depuis les enregistrements (champs bruts, sans créer de bloc).
+     */
+    private void rebuildIndex() {
+        for (long i = 0; i < blockCount; i++) {
+            int position = (int) i;
+            ByteBuffer segment = blockSegments.get(segmentOf(i));
+            int at = offset(i, BLOCK_RECORD);
+            int decisions = segment.getInt(at + B_DECISION_COUNT);
+            if (decisions == 1) {
+                int flags = segment.get(at + B_FLAGS);
+                index.addSource(BlockIndex.key(segment.getInt(at + B_SRC_IP), (flags & FLAG_SRC_SYMBOL) != 0), position);
+                index.addDestination(BlockIndex.key(segment.getInt(at + B_DEST_IP), (flags & FLAG_DEST_SYMBOL) != 0), position);
+            } else if (decisions > 1) {
+                long first = segment.getLong(at + B_FIRST_DECISION);
+                for (long d = first; d < first + decisions; d++) {
+                    ByteBuffer decisionSegment = decisionSegments.get(segmentOf(d));
+                    int da = offset(d, DECISION_RECORD);
+                    int flags = decisionSegment.get(da + D_FLAGS);
+                    index.addSource(BlockIndex.key(decisionSegment.getInt(da + D_SRC_IP), (flags & FLAG_SRC_SYMBOL) != 0), position);
+                    index.addDestination(BlockIndex.key(decisionSegment.getInt(da + D_DEST_IP), (flags & FLAG_DEST_SYMBOL) != 0), position);
+                }
+            }
+            index.addTimestamp(segment.getLong(at + B_TIMESTAMP));
+        }
+    }
+
+    // ========== CYCLE DE VIE ==========
+
+    @Override
+    public void close() throws IOException {
+        force();
+        blockSegments.clear();
+        decisionSegments.clear();
+        if (symbolChannel != null) {
+            symbolChannel.close();
+            symbolChannel = null;
+        }
+    }
+
+    /**
+     * Supprime les fichiers d'un répertoire de segments.
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Recompte les blocs validés (recherche dichotomique dans le dernier segment)
+     * et les décisions référencées par le dernier bloc.
+     */
+    private void recoverCounts() {
+        blockCount = 0;
+        decisionCount = 0;
+        if (blockSegments.isEmpty()) {
+            return;
+        }
+        int last = blockSegments.size() - 1;
+        ByteBuffer segment = blockSegments.get(last);
+        int low = 0;
+        int high = SEGMENT_RECORDS;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segment.get(mid * BLOCK_RECORD + B_MARKER) == COMMITTED) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        blockCount = (long) last * SEGMENT_RECORDS + low;
+        if (blockCount == 0) {
+            return;
+        }
+
+        // Décisions au-delà du dernier bloc validé : orphelines, réécrites ensuite
+        ByteBuffer tail = blockSegments.get(segmentOf(blockCount - 1));
+        int at = offset(blockCount - 1, BLOCK_RECORD);
+        int decisions = tail.getInt(at + B_DECISION_COUNT);
+        decisionCount = tail.getLong(at + B_FIRST_DECISION) + (decisions > 1 ? decisions : 0);
+    }
+
+    private ByteBuffer blockSegment(long ordinal) throws IOException {
+        int index = segmentOf(ordinal);
+        while (blockSegments.size() <= index) {
+            blockSegments.add(map(BLOCK_SEGMENT, blockSegments.size(), BLOCK_RECORD));
+        }
+        return blockSegments.get(index);
+    }
+
+    private ByteBuffer decisionSegment(long ordinal) throws IOException {
+        int index = segmentOf(ordinal);
+        while (decisionSegments.size() <= index) {
+            decisionSegments.add(map(DECISION_SEGMENT, decisionSegments.size(), DECISION_RECORD));
+        }
+        return decisionSegments.get(index);
+    }
+
+    private MappedByteBuffer map(String pattern, int index, int recordSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(pattern, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Le mappage reste valide après fermeture du canal
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SEGMENT_RECORDS * recordSize);
+        }
+    }
+
+    private Path segmentPath(String pattern, int index) {
+        return directory.resolve(String.format(pattern, index));
+    }
+
+    private static int segmentOf(long ordinal) {
+        return (int) (ordinal / SEGMENT_RECORDS);
+    }
+
+    private static int offset(long ordinal, int recordSize) {
+        return (int) (ordinal % SEGMENT_RECORDS) * recordSize;
+    }
+
+    // ========== DICTIONNAIRE ==========
+
+    private void loadSymbols() throws IOException {
+        Path path = directory.resolve(SYMBOLS_FILE);
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                symbolIds.put(line, symbols.size());
+                symbols.add(line);
+            }
+        }
+        symbolChannel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private int symbol(String value) throws IOException {
+        Integer id = symbolIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (symbols.size() > Character.MAX_VALUE || value.indexOf('\n') >= 0) {
+            throw new IOException("Symbole non stockable: " + value);
+        }
+        ByteBuffer line = ByteBuffer.wrap((value + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            symbolChannel.write(line);
+        }
+        int newId = symbols.size();
+        symbols.add(value);
+        symbolIds.put(value, newId);
+        return newId;
+    }
+
+    private static int encodeIP(String ip) {
+        long address = IPv4Address.tryParse(ip);
+        return address == IPv4Address.INVALID ? -1 : (int) address;
+    }
+
+    private String decodeIP(int value, boolean symbol) {
+        return symbol ? symbols.get(value) : IPv4Address.format(value);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+/**
+ * Découpe une ligne de l'historique CSV en champs, dans un tableau réutilisé.
+ *
+ * Même grammaire que l'ancien parseCSVLine (guillemets ôtés, virgules protégées
+ * entre guillemets, espaces de bord ignorés), sans StringBuilder ni liste
+ * intermédiaire : un seul substring par champ.
+ */
+final class CsvLineTokenizer {
+
+    private String[] fields;
+
+    CsvLineTokenizer(int expectedFields) {
+        this.fields = new String[Math.max(1, expectedFields)];
+    }
+
+    /**
+     * Découpe la ligne ; les champs sont lisibles via {@link #field(int)}.
+     * @return le nombre de champs
+     */
+    int tokenize(String line) {
+        int count = 0;
+        int length = line.length();
+        int start = 0;
+        // indexOf (intrinsèque) plutôt qu'un charAt par caractère
+        int quote = line.indexOf('"');
+
+        while (start <= length) {
+            int comma = nextComma(line, start);
+            if (quote >= 0 && quote < comma) {
+                // Champ entre guillemets : la virgule de fin est après le guillemet fermant
+                int close = line.indexOf('"', quote + 1);
+                while (close >= 0) {
+                    comma = nextComma(line, close + 1);
+                    int reopen = line.indexOf('"', close + 1);
+                    if (reopen < 0 || reopen > comma) {
+                        break;
+                    }
+                    close = line.indexOf('"', reopen + 1);
+                }
+                if (close < 0) {
+                    comma = length;  // guillemet non fermé : reste de la ligne
+                }
+                store(count++, unquote(line, start, comma));
+                quote = comma < length ? line.indexOf('"', comma + 1) : -1;
+            } else {
+                store(count++, trimmed(line, start, comma));
+            }
+            start = comma + 1;
+        }
+        return count;
+    }
+
+    private static int nextComma(String line, int from) {
+        int comma = line.indexOf(',', from);
+        return comma < 0 ? line.length() : comma;
+    }
+
+    String field(int i) {
+        return fields[i];
+    }
+
+    private void store(int i, String value) {
+        if (i == fields.length) {
+            String[] grown = new String[fields.length * 2];
+            System.arraycopy(fields, 0, grown, 0, fields.length);
+            fields = grown;
+        }
+        fields[i] = value;
+    }
+
+    private static String trimmed(String line, int from, int to) {
+        while (from < to && line.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && line.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return line.substring(from, to);
+    }
+
+    private static String unquote(String line, int from, int to) {
+        // Cas courant : "valeur" encadrée, sans autre guillemet
+        int first = line.indexOf('"', from);
+        int last = line.lastIndexOf('"', to - 1);
+        if (first < last && line.indexOf('"', first + 1) == last
+                && line.substring(from, first).isBlank() && line.substring(last + 1, to).isBlank()) {
+            return trimmed(line, first + 1, last);
+        }
+        StringBuilder value = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c != '"') {
+                value.append(c);
+            }
+        }
+        return value.toString().trim();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+/**
+ * Politique de durabilité du writer asynchrone de l'historique.
+ * Détermine quand un fsync est effectué après l'écriture d'un lot de blocs.
+ *
+ * - PER_BLOCK     : fsync à chaque lot (chaque bloc est durable avant l'acquittement du lot)
+ * - PER_N_BLOCKS  : fsync dès que {@code blocksPerSync} blocs sont en attente de synchronisation
+ * - PER_INTERVAL  : fsync au plus tard toutes les {@code syncIntervalMillis} millisecondes
+ */
+public record DurabilityPolicy(Mode mode, int blocksPerSync, long syncIntervalMillis) {
+
+    public enum Mode { PER_BLOCK, PER_N_BLOCKS, PER_INTERVAL }
+
+    public DurabilityPolicy {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode ne peut pas être null");
+        }
+        if (mode == Mode.PER_N_BLOCKS && blocksPerSync < 1) {
+            throw new IllegalArgumentException("blocksPerSync doit être >= 1");
+        }
+        if (mode == Mode.PER_INTERVAL && syncIntervalMillis < 1) {
+            throw new IllegalArgumentException("syncIntervalMillis doit être >= 1");
+        }
+    }
+
+    public static DurabilityPolicy perBlock() {
+        return new DurabilityPolicy(Mode.PER_BLOCK, 1, 0);
+    }
+
+    public static DurabilityPolicy everyBlocks(int blocks) {
+        return new DurabilityPolicy(Mode.PER_N_BLOCKS, blocks, 0);
+    }
+
+    public static DurabilityPolicy everyInterval(long millis) {
+        return new DurabilityPolicy(Mode.PER_INTERVAL, 0, millis);
+    }
+
+    /**
+     * Indique si un fsync est nécessaire.
+     * @param unsyncedBlocks blocs écrits depuis le dernier fsync
+     * @param millisSinceSync temps écoulé depuis le dernier fsync
+     */
+    boolean shouldSync(long unsyncedBlocks, long millisSinceSync) {
+        if (unsyncedBlocks == 0) {
+            return false;
+        }
+        return switch (mode) {
+            case PER_BLOCK -> true;
+            case PER_N_BLOCKS -> unsyncedBlocks >= blocksPerSync;
+            case PER_INTERVAL -> millisSinceSync >= syncIntervalMillis;
+        };
+    }
+}
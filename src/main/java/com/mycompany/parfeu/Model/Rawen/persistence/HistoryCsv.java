@@ -0,0 +1,363 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.blockchain.BlockHash;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Format CSV de l'historique (historique_blocs.csv).
+ *
+ * Ce n'est plus le stockage courant (voir {@link BlockSegmentStore}) : lecture
+ * des anciens historiques à importer, et export/import hors ligne via
+ * {@link HistoryCsvTool}.
+ */
+final class HistoryCsv {
+
+    static final String FILE_NAME = "historique_blocs.csv";
+
+    private HistoryCsv() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    // ========== ÉCRITURE ==========
+
+    /**
+     * Ligne du bloc suivie, pour un bloc en lot, des lignes de ses décisions :
+     * un bloc et ses décisions sont toujours écrits par le même appel.
+     */
+    static void appendCSV(StringBuilder lines, Block block) {
+        lines.append(block.toCSV()).append(System.lineSeparator());
+        for (String decisionLine : block.decisionsToCSV()) {
+            lines.append(decisionLine).append(System.lineSeparator());
+        }
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Parcourt le fichier en une passe et transmet chaque bloc, décisions
+     * en lot comprises, dès qu'il est complet. La mémoire utilisée est bornée
+     * par le plus gros bloc, pas par la taille de l'historique.
+     * @return le nombre de blocs transmis
+     */
+    static long forEachRow(Path csvPath, Consumer<BlockData> visitor) throws IOException {
+        CsvLineTokenizer tokenizer = new CsvLineTokenizer(16);
+        BlockData current = null;
+        long visited = 0;
+        long legacyRows = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(csvPath, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();  // en-tête
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    int count = tokenizer.tokenize(line);
+
+                    // Décision d'un bloc en lot : rattachée au bloc qui la précède
+                    if (tokenizer.field(0).equals(Block.DECISION_CSV_PREFIX)) {
+                        int blockIndex = Integer.parseInt(tokenizer.field(1));
+                        if (current == null || current.index != blockIndex || count < 11) {
+                            System.err.println("⚠️ Décision orpheline ignorée (bloc #" + blockIndex + ")");
+                            continue;
+                        }
+                        current.decisions.add(parseDecision(tokenizer));
+                        continue;
+                    }
+
+                    // COMPATIBILITÉ : 11 colonnes (sans action), 12 (sans Merkle), 14 (sans version), 15 (actuel)
+                    if (count < 11) {
+                        System.err.println("⚠️ Ligne invalide (colonnes: " + count + "): " + line);
+                        continue;
+                    }
+                    if (count < 12) {
+                        legacyRows++;
+                    }
+
+                    BlockData next = parseBlock(tokenizer, count);
+                    if (current != null) {
+                        visitor.accept(current);
+                        visited++;
+                    }
+                    current = next;
+
+                } catch (RuntimeException e) {
+                    System.err.println("⚠️ Erreur parsing ligne: " + e.getMessage());
+                    System.err.println("   Ligne: " + line);
+                }
+            }
+        }
+
+        if (current != null) {
+            visitor.accept(current);
+            visited++;
+        }
+        if (legacyRows > 0) {
+            System.out.println("  ⚠️ " + legacyRows + " blocs ancien format (sans action), action=LOG par défaut");
+        }
+        return visited;
+    }
+
+    private static BlockData parseBlock(CsvLineTokenizer t, int count) {
+        // Ancien format sans action : LOG par défaut
+        String action = count >= 12 ? t.field(11) : "LOG";
+
+        String merkleRoot = "";
+        int decisionCount = 1;
+        if (count >= 14) {
+            merkleRoot = t.field(12);
+            decisionCount = Integer.parseInt(t.field(13));
+        }
+
+        // Sans colonne de version : hash ancien format (chaîne de caractères)
+        int hashVersion = count >= 15
+            ? Integer.parseInt(t.field(14))
+            : Block.HASH_VERSION_LEGACY;
+
+        return new BlockData(
+            Integer.parseInt(t.field(0)),      // index
+            t.field(1),                         // srcIP
+            t.field(2),                         // destIP
+            Integer.parseInt(t.field(3)),      // srcPort
+            Integer.parseInt(t.field(4)),      // destPort
+            t.field(5),                         // protocol
+            Integer.parseInt(t.field(6)),      // size
+            Long.parseLong(t.field(7)),        // timestamp
+            t.field(8),                         // packetTimestamp
+            t.field(9),                         // previousHash
+            t.field(10),                        // hash
+            action,                             // 🔥 action
+            merkleRoot,                         // racine de Merkle ("" = ancien format)
+            decisionCount,                      // nombre de décisions
+            hashVersion                         // version du hash
+        );
+    }
+
+    private static DecisionData parseDecision(CsvLineTokenizer t) {
+        return new DecisionData(
+            t.field(2),                         // srcIP
+            t.field(3),                         // destIP
+            Integer.parseInt(t.field(4)),      // srcPort
+            Integer.parseInt(t.field(5)),      // destPort
+            t.field(6),                         // protocol
+            Integer.parseInt(t.field(7)),      // size
+            t.field(8),                         // packetTimestamp
+            t.field(9),                         // action
+            Integer.parseInt(t.field(10))      // score
+        );
+    }
+
+    // ========== CONVERSION ==========
+
+    /**
+     * Recrée un bloc persisté avec son hash d'origine (sans recalcul).
+     */
+    static Block toBlock(BlockData blockData) {
+        LocalDateTime packetTimestamp = parseTimestamp(blockData.packetTimestamp);
+
+        // Décisions du bloc : aucune pour le Genesis, une par ligne D pour un bloc
+        // en lot, sinon la décision portée par la ligne du bloc
+        List<DecisionResult> decisions;
+        if (blockData.index == 0) {
+            decisions = List.of();
+        } else if (blockData.decisions.isEmpty()) {
+            decisions = List.of(StoredDecisions.restore(
+                blockData.srcIP, blockData.destIP, blockData.srcPort, blockData.destPort,
+                blockData.protocol, packetTimestamp, blockData.action, 0));
+        } else {
+            if (blockData.decisions.size() != blockData.decisionCount) {
+                System.err.println("  ⚠️  Bloc #" + blockData.index + ": " +
+                    blockData.decisions.size() + "/" + blockData.decisionCount + " décisions");
+            }
+            decisions = new ArrayList<>(blockData.decisions.size());
+            for (DecisionData d : blockData.decisions) {
+                decisions.add(StoredDecisions.restore(
+                    d.srcIP, d.destIP, d.srcPort, d.destPort, d.protocol,
+                    parseTimestamp(d.packetTimestamp), d.action, d.score));
+            }
+        }
+
+        return new Block(
+            blockData.index,
+            decisions,
+            BlockHash.fromHex(blockData.previousHash),
+            blockData.timestamp,
+            BlockHash.fromHex(blockData.hash),  //  Hash original du CSV
+            blockData.srcIP,
+            blockData.destIP,
+            blockData.srcPort,
+            blockData.destPort,
+            blockData.protocol,
+            blockData.index == 0 ? blockData.protocol : "Restored",
+            blockData.size,
+            packetTimestamp,
+            blockData.action,
+            parseMerkleRoot(blockData.merkleRoot),
+            blockData.hashVersion,
+            true  // fromCSV
+        );
+    }
+
+    private static BlockHash parseMerkleRoot(String hex) {
+        return hex == null || hex.isEmpty() ? null : BlockHash.fromHex(hex);
+    }
+
+    /**
+     * Parsing du timestamp (format ISO écrit par LocalDateTime.toString,
+     * 0 à 9 décimales)
+     */
+    private static LocalDateTime parseTimestamp(String timestampStr) {
+        if (timestampStr == null || timestampStr.isBlank()) {
+            return LocalDateTime.now();
+        }
+        LocalDateTime fast = parseIsoTimestamp(timestampStr);
+        if (fast != null) {
+            return fast;
+        }
+        try {
+            return LocalDateTime.parse(timestampStr.trim());
+        } catch (DateTimeParseException e) {
+            System.err.println("  ⚠️  Impossible de parser timestamp: " + timestampStr);
+            return LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Lecture directe de yyyy-MM-ddTHH:mm:ss[.f...] (forme produite à l'écriture),
+     * sans le HashMap de champs de DateTimeFormatter.
+     * @return null si la chaîne a une autre forme (le parseur général prend le relais)
+     */
+    private static LocalDateTime parseIsoTimestamp(String s) {
+        int length = s.length();
+        if (length < 19 || length > 29 || s.charAt(4) != '-' || s.charAt(7) != '-'
+                || s.charAt(10) != 'T' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        int hour = digits(s, 11, 13);
+        int minute = digits(s, 14, 16);
+        int second = digits(s, 17, 19);
+        int nano = 0;
+        if (length > 19) {
+            if (s.charAt(19) != '.' || length == 20) {
+                return null;
+            }
+            nano = digits(s, 20, length);
+            for (int i = length; i < 29; i++) {
+                nano *= 10;
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    // ========== CLASSES INTERNES POUR DONNÉES DE BLOC ==========
+
+    /**
+      Objet structuré pour une ligne de bloc avec ACTION
+     */
+    static class BlockData {
+        final int index;
+        final String srcIP;
+        final String destIP;
+        final int srcPort;
+        final int destPort;
+        final String protocol;
+        final int size;
+        final long timestamp;
+        final String packetTimestamp;
+        final String previousHash;
+        final String hash;
+        final String action;  //  ACTION
+        final String merkleRoot;     // "" pour l'ancien format
+        final int decisionCount;
+        final int hashVersion;
+        // Décisions d'un bloc en lot (vide pour un bloc d'une décision)
+        final List<DecisionData> decisions = new ArrayList<>();
+
+        BlockData(int index, String srcIP, String destIP, int srcPort,
+                  int destPort, String protocol, int size, long timestamp,
+                  String packetTimestamp, String previousHash, String hash,
+                  String action, String merkleRoot, int decisionCount, int hashVersion) {
+            this.index = index;
+            this.srcIP = srcIP;
+            this.destIP = destIP;
+            this.srcPort = srcPort;
+            this.destPort = destPort;
+            this.protocol = protocol;
+            this.size = size;
+            this.timestamp = timestamp;
+            this.packetTimestamp = packetTimestamp;
+            this.previousHash = previousHash;
+            this.hash = hash;
+            this.action = action;
+            this.merkleRoot = merkleRoot;
+            this.decisionCount = decisionCount;
+            this.hashVersion = hashVersion;
+        }
+    }
+
+    /**
+     * Décision individuelle d'un bloc en lot.
+     */
+    static class DecisionData {
+        final String srcIP;
+        final String destIP;
+        final int srcPort;
+        final int destPort;
+        final String protocol;
+        final int size;
+        final String packetTimestamp;
+        final String action;
+        final int score;
+
+        DecisionData(String srcIP, String destIP, int srcPort, int destPort,
+                     String protocol, int size, String packetTimestamp,
+                     String action, int score) {
+            this.srcIP = srcIP;
+            this.destIP = destIP;
+            this.srcPort = srcPort;
+            this.destPort = destPort;
+            this.protocol = protocol;
+            this.size = size;
+            this.packetTimestamp = packetTimestamp;
+            this.action = action;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsManager;
+import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writer asynchrone "group commit" de l'historique des blocs.
+ *
+ * Les producteurs déposent les blocs dans une file bornée (bloquante si pleine).
+ * Un thread dédié vide la file par lots : un seul write et au plus un fsync
+ * par lot, selon la {@link DurabilityPolicy}. Les statistiques demandées
+ * pendant un lot sont écrites une seule fois à la fin de ce lot.
+ * Un point de reprise des statistiques force le fsync des blocs qui le
+ * précèdent avant d'être écrit.
+ *
+ * En cas d'échec, les blocs non écrits sont gardés et réessayés avant tout
+ * bloc plus récent (l'historique sur disque reste sans trou) ; tant qu'ils ne
+ * sont pas écrits, les nouveaux blocs sont refusés (le producteur les redépose
+ * plus tard). Un bloc n'est acquitté ({@link StorageManager#getDurableIndex()})
+ * qu'après son fsync.
+ */
+final class HistoryWriter {
+
+    private static final Logger LOG = Logging.getLogger(HistoryWriter.class);
+
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final StorageManager storage;
+    private final DurabilityPolicy policy;
+    // Contient des Block, des points de reprise et des barrières de flush (CountDownLatch), dans l'ordre d'arrivée
+    private final BlockingQueue<Object> queue;
+    private final AtomicReference<StatisticsManager> pendingStatistics = new AtomicReference<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile DatabaseException lastError;
+    // Blocs d'un lot en échec en attente de nouvel essai
+    private volatile boolean retrying;
+
+    private long unsyncedBlocks = 0;
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    HistoryWriter(StorageManager storage, DurabilityPolicy policy, int capacity) {
+        this.storage = storage;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "parfeu-history-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Dépose un bloc ; bloque si la file est pleine (contre-pression).
+     */
+    void enqueue(Block block) throws DatabaseException {
+        ensureRunning();
+        if (retrying) {
+            DatabaseException error = lastError;
+            throw new DatabaseException("Bloc #" + block.index() + " refusé : écriture de l'historique en échec"
+                + (error != null ? " (" + error.getMessage() + ")" : ""));
+        }
+        try {
+            queue.put(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrompu pendant la mise en file du bloc #" + block.index(), e);
+        }
+    }
+
+    /**
+     * Dépose un point de reprise : écrit après les blocs déposés avant lui.
+     */
+    void enqueue(StatisticsSnapshot snapshot) throws DatabaseException {
+        ensureRunning();
+        try {
+            queue.put(snapshot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrompu pendant la mise en file du point de reprise", e);
+        }
+    }
+
+    /**
+     * Demande l'écriture des statistiques au prochain lot (les demandes sont fusionnées).
+     */
+    void requestStatisticsSave(StatisticsManager statistics) {
+        pendingStatistics.set(statistics);
+    }
+
+    /**
+     * Attend que tous les blocs déposés avant l'appel soient écrits ET synchronisés.
+     */
+    void flush() throws DatabaseException {
+        if (!running) {
+            return;
+        }
+        CountDownLatch barrier = new CountDownLatch(1);
+        try {
+            queue.put(barrier);
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrompu pendant le flush de l'historique", e);
+        }
+        if (lastError != null) {
+            DatabaseException error = lastError;
+            lastError = null;
+            throw error;
+        }
+    }
+
+    /**
+     * Vide la file, synchronise et arrête le thread.
+     */
+    void close() throws DatabaseException {
+        try {
+            flush();
+        } finally {
+            running = false;
+            queue.offer(new CountDownLatch(1));  // réveille le thread
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void ensureRunning() throws DatabaseException {
+        if (!running) {
+            throw new DatabaseException("Le writer de l'historique est arrêté");
+        }
+    }
+
+    private void run() {
+        List<Object> drained = new ArrayList<>(MAX_BATCH);
+        // Blocs à écrire, dans l'ordre ; ceux d'un lot en échec restent en tête
+        List<Block> batch = new ArrayList<>(MAX_BATCH);
+        List<CountDownLatch> barriers = new ArrayList<>();
+        // Seul le dernier point de reprise est écrit (il remplace les précédents)
+        StatisticsSnapshot checkpoint = null;
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(pollTimeoutMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                    queue.drainTo(drained, MAX_BATCH - 1);
+                }
+            } catch (InterruptedException e) {
+                // Pas d'arrêt sur interruption : seul close() arrête le writer
+                continue;
+            }
+
+            for (Object item : drained) {
+                if (item instanceof Block block) {
+                    batch.add(block);
+                } else if (item instanceof StatisticsSnapshot snapshot) {
+                    checkpoint = snapshot;
+                } else if (item instanceof CountDownLatch barrier) {
+                    barriers.add(barrier);
+                }
+            }
+            drained.clear();
+
+            try {
+                if (!batch.isEmpty()) {
+                    int pending = batch.size();
+                    try {
+                        storage.writeHistoryBatch(batch);
+                        batch.clear();
+                        retrying = false;
+                    } finally {
+                        // En échec, seuls les blocs retirés du lot ont été écrits
+                        unsyncedBlocks += pending - batch.size();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (!barriers.isEmpty() || checkpoint != null
+                        || policy.shouldSync(unsyncedBlocks, now - lastSyncMillis)) {
+                    if (unsyncedBlocks > 0) {
+                        storage.syncHistory();
+                    }
+                    unsyncedBlocks = 0;
+                    lastSyncMillis = now;
+                }
+                if (checkpoint != null) {
+                    storage.saveStatisticsSnapshot(checkpoint);
+                    checkpoint = null;
+                }
+                saveStatisticsIfRequested();
+                lastError = null;
+            } catch (DatabaseException e) {
+                lastError = e;
+                retrying = !batch.isEmpty();
+                LOG.error("Writer historique (" + batch.size() + " blocs en attente de nouvel essai) : "
+                    + e.getMessage(), e);
+            } finally {
+                barriers.forEach(CountDownLatch::countDown);
+                barriers.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            LOG.error("Writer historique arrêté : " + batch.size() + " blocs non écrits (dès le bloc #"
+                + batch.get(0).index() + ")");
+        }
+    }
+
+    private long pollTimeoutMillis() {
+        if (policy.mode() == DurabilityPolicy.Mode.PER_INTERVAL && unsyncedBlocks > 0) {
+            long remaining = policy.syncIntervalMillis() - (System.currentTimeMillis() - lastSyncMillis);
+            return Math.max(1, remaining);
+        }
+        return IDLE_POLL_MILLIS;
+    }
+
+    private void saveStatisticsIfRequested() throws DatabaseException {
+        StatisticsManager statistics = pendingStatistics.getAndSet(null);
+        if (statistics == null) {
+            return;
+        }
+        try {
+            storage.saveStatistics(statistics);
+        } catch (RuntimeException e) {
+            // Statistiques modifiées pendant la lecture : nouvel essai au prochain lot
+            pendingStatistics.compareAndSet(null, statistics);
+        }
+    }
+}
@@ -1,22 +1,27 @@
 package com.mycompany.parfeu.Model.Rawen.persistence;
 
 import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
-import com.mycompany.parfeu.Model.Mahran.generator.Packet;
-import com.mycompany.parfeu.Model.Mahran.generator.PaquetSimple;
 import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
 import com.mycompany.parfeu.Model.Rawen.blockchain.BlockChain;
+import com.mycompany.parfeu.Model.Rawen.blockchain.ChainValidator;
 import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsManager;
+import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsSnapshot;
 import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
-import com.mycompany.parfeu.Model.Rawen.decision.Actions;
 import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.logging.LogLevel;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public final class SharedDataManager {
     
+    private static final Logger LOG = Logging.getLogger(SharedDataManager.class);
+    
     private static SharedDataManager instance;
     private final StatisticsManager statistics;
     private final StorageManager storage;
@@ -24,15 +29,32 @@ public final class SharedDataManager {
     private FirewallConfig configuration;
     
     private boolean isReconstructing = false;
+    private boolean isShutdown = false;
+    
+    // Index du dernier bloc confié au stockage, et du dernier acquitté (écrit et
+    // synchronisé) : seuls les blocs acquittés sont évinçables (-1 = aucun)
+    private int lastEnqueuedIndex = -1;
+    private int lastPersistedIndex = -1;
+    
+    // Point de reprise des statistiques tous les N blocs (et à l'arrêt)
+    private static final int CHECKPOINT_INTERVAL_BLOCKS = 1000;
+    private int lastCheckpointIndex = -1;
+    
+    // Mode lot (blocs de plusieurs décisions) et scellement périodique des lots en attente
+    private int batchSize = 1;
+    private long batchDelayMillis = 0;
+    private ScheduledExecutorService batchFlusher;
+    
+    // Blocs gardés entiers en mémoire ; au-delà, seuls index et hash (corps relus sur disque)
+    private static final int DEFAULT_RESIDENT_BLOCKS = 65_536;
+    private int residentBlocks = DEFAULT_RESIDENT_BLOCKS;
     
     private SharedDataManager() {
         this.statistics = new StatisticsManager();
         
         StorageManager tempStorage = null;
         try {
-            System.out.println("\n╔══════════════════════════════════════════════════════════╗");
-            System.out.println("║        INITIALISATION SHARED DATA MANAGER               ║");
-            System.out.println("╚══════════════════════════════════════════════════════════╝\n");
+            LOG.info("Initialisation du SharedDataManager");
             
             tempStorage = new StorageManager();
             this.blockchain = new BlockChain();
@@ -40,20 +62,34 @@ public final class SharedDataManager {
             // Chargement des données
             loadAllData(tempStorage);
             
-            System.out.println("✅ SharedDataManager prêt\n");
-            printSummary();
+            LOG.event(LogLevel.INFO, "SharedDataManager prêt",
+                "blocs", blockchain.getSize(),
+                "paquets", statistics.getTotalPackets(),
+                "seuilBlocage", configuration.getBlockThreshold(),
+                "seuilAlerte", configuration.getAlertThreshold());
             
         } catch (DatabaseException e) {
-            System.err.println("⚠️  Erreur init: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Erreur init : " + e.getMessage(), e);
             try {
                 tempStorage = new StorageManager();
             } catch (DatabaseException ex) {
-                System.err.println("⚠️  Impossible de créer StorageManager: " + ex.getMessage());
+                LOG.error("Impossible de créer StorageManager : " + ex.getMessage(), ex);
             }
         } finally {
             this.storage = tempStorage != null ? tempStorage : createDummyStorage();
         }
+        
+        // Écritures hors du thread appelant (thread JavaFX) : group commit
+        try {
+            storage.startAsyncWriter(DurabilityPolicy.perBlock());
+        } catch (DatabaseException e) {
+            LOG.warn("Writer asynchrone indisponible, écritures synchrones : " + e.getMessage(), e);
+        }
+        // Le journal est fermé en dernier, une fois les données persistées
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            shutdown();
+            Logging.shutdown();
+        }, "parfeu-shutdown"));
     }
     
     private StorageManager createDummyStorage() {
@@ -75,255 +111,402 @@ public final class SharedDataManager {
      * Chargement complet au démarrage
      */
     private void loadAllData(StorageManager storage) {
-        System.out.println("🔄 Chargement des données persistantes...\n");
+        LOG.info("Chargement des données persistantes");
         
         try {
             isReconstructing = true;
             
             // 1️⃣ CONFIGURATION
-            System.out.println("📋 1. Configuration...");
             try {
                 configuration = storage.loadConfiguration();
-                if (configuration != null) {
-                    System.out.println("  ✅ Configuration chargée");
-                } else {
+                if (configuration == null) {
                     configuration = new FirewallConfig();
-                    System.out.println("  ℹ️  Configuration par défaut");
+                    LOG.info("Configuration par défaut");
                 }
             } catch (DatabaseException e) {
                 configuration = new FirewallConfig();
-                System.out.println("  ⚠️  Configuration par défaut");
+                LOG.warn("Configuration illisible, valeurs par défaut : " + e.getMessage(), e);
             }
             
             // 2️⃣ BLOCKCHAIN
-            System.out.println("\n🔗 2. Blockchain...");
-            reconstructBlockchainFromCSV(storage);
+            blockchain.enableEviction(residentBlocks, storage::readBlock);
+            reconstructBlockchainFromHistory(storage);
             
             // 3️⃣ STATISTIQUES
-            System.out.println("\n📊 3. Statistiques finales...");
-            System.out.println("  ✅ Total paquets: " + statistics.getTotalPackets());
-            System.out.println("  ✅ Acceptés: " + statistics.getAcceptedPackets());
-            System.out.println("  ✅ Bloqués: " + statistics.getDroppedPackets());
-            System.out.println("  ✅ Alertes: " + statistics.getAlertedPackets());
+            LOG.event(LogLevel.INFO, "Statistiques restaurées",
+                "total", statistics.getTotalPackets(),
+                "acceptés", statistics.getAcceptedPackets(),
+                "bloqués", statistics.getDroppedPackets(),
+                "alertes", statistics.getAlertedPackets());
             
             isReconstructing = false;
-            System.out.println("\n✅ Chargement terminé avec succès!");
+            LOG.info("Chargement terminé");
             
         } catch (Exception e) {
             isReconstructing = false;
-            System.err.println("⚠️  Erreur chargement: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Erreur chargement : " + e.getMessage(), e);
         }
     }
     
     /**
-     * 🔥 RECONSTRUCTION BLOCKCHAIN - Restaure le Genesis depuis CSV
+     * 🔥 RECONSTRUCTION BLOCKCHAIN - Restaure le Genesis depuis l'historique
+     * Lecture en flux : chaque bloc est restauré et compté dès sa lecture,
+     * sans liste intermédiaire ni affichage par bloc.
      */
-    private void reconstructBlockchainFromCSV(StorageManager storage) {
+    private void reconstructBlockchainFromHistory(StorageManager storage) {
+        //  DÉMARRER la restauration (vide la chaîne)
+        blockchain.startRestoration();
+        
+        // Statistiques : reprise depuis l'instantané, seuls les blocs suivants sont rejoués
+        StatisticsSnapshot snapshot = storage.loadStatisticsSnapshot();
+        if (snapshot != null) {
+            statistics.restore(snapshot);
+        }
+        int coveredIndex = snapshot != null ? snapshot.blockIndex() : -1;
+        boolean[] snapshotMatched = {false};
+        
+        long[] restored = {0};
+        long[] replayed = {0};
+        long[] errors = {0};
+        long startNanos = System.nanoTime();
+        
         try {
-            List<StorageManager.BlockData> blocks = storage.loadBlockHistory();
-            
-            if (blocks.isEmpty()) {
-                System.out.println("  ℹ️  Aucun historique, création du Genesis");
-                blockchain.clear();  // Créera le Genesis
-                return;
-            }
-            
-            System.out.println("  📂 " + blocks.size() + " blocs trouvés dans le CSV");
-            
-            //  DÉMARRER la restauration (vide la chaîne)
-            blockchain.startRestoration();
-            
-            int restored = 0;
-            int errors = 0;
-            
-            for (StorageManager.BlockData blockData : blocks) {
+            storage.forEachBlock(block -> {
                 try {
-                    LocalDateTime packetTimestamp = parseTimestamp(blockData.packetTimestamp);
-                    
-                    //  RESTAURER LE GENESIS tel quel depuis le CSV
-                    if (blockData.index == 0) {
-                        Block genesisBlock = new Block(
-                            blockData.index,
-                            new ArrayList<>(),
-                            blockData.previousHash,
-                            blockData.timestamp,
-                            blockData.hash,  // Hash original du CSV
-                            blockData.srcIP,
-                            blockData.destIP,
-                            blockData.srcPort,
-                            blockData.destPort,
-                            blockData.protocol,
-                            blockData.protocol,
-                            blockData.size,
-                            packetTimestamp,
-                            blockData.action,
-                            true  // fromCSV
-                        );
-                        
-                        blockchain.restoreBlock(genesisBlock);
-                        restored++;
-                        continue;
-                    }
-                    
-                    // Créer un paquet pour les autres blocs
-                    Packet packet = new PaquetSimple(
-                        blockData.srcIP,
-                        blockData.destIP,
-                        blockData.srcPort,
-                        blockData.destPort,
-                        blockData.protocol,
-                        "Restored from blockchain history",
-                        packetTimestamp
-                    );
-                    
-                    // Convertir l'action
-                    com.mycompany.parfeu.Model.Rawen.decision.Action action;
-                    try {
-                        action = Actions.fromString(blockData.action);
-                    } catch (IllegalArgumentException e) {
-                        System.err.println("  ⚠️  Action invalide: " + blockData.action);
-                        action = Actions.LOG;
+                    blockchain.restoreBlock(block);
+                    if (block.index() <= coveredIndex) {
+                        if (block.index() == coveredIndex) {
+                            snapshotMatched[0] = block.hash().toHex().equals(snapshot.blockHash());
+                        }
+                        block.decisions().forEach(statistics::rememberDecision);
+                    } else {
+                        for (DecisionResult decision : block.decisions()) {
+                            statistics.recordDecision(decision);
+                        }
+                        replayed[0]++;
                     }
-                    
-                    // Créer la décision
-                    DecisionResult decision = new DecisionResult(
-                        packet,
-                        new ArrayList<>(),
-                        0,
-                        action,
-                        "Restored from blockchain"
-                    );
-                    
-                    // Créer le bloc avec hash original
-                    Block restoredBlock = new Block(
-                        blockData.index,
-                        List.of(decision),
-                        blockData.previousHash,
-                        blockData.timestamp,
-                        blockData.hash,  //  Hash original
-                        blockData.srcIP,
-                        blockData.destIP,
-                        blockData.srcPort,
-                        blockData.destPort,
-                        blockData.protocol,
-                        "Restored",
-                        blockData.size,
-                        packetTimestamp,
-                        blockData.action,
-                        true
-                    );
-                    
-                    blockchain.restoreBlock(restoredBlock);
-                    statistics.recordDecision(decision);
-                    
-                    restored++;
-                    
-                } catch (Exception e) {
-                    errors++;
-                    System.err.println("  ⚠️  Erreur bloc #" + blockData.index + ": " + e.getMessage());
+                    restored[0]++;
+                } catch (RuntimeException e) {
+                    errors[0]++;
+                    LOG.warn("Erreur bloc #" + block.index() + " : " + e.getMessage(), e);
                 }
+            });
+        } catch (DatabaseException e) {
+            LOG.error("Erreur lecture historique : " + e.getMessage(), e);
+        }
+        
+        //  TERMINER la restauration (crée le Genesis si rien n'a été restauré)
+        blockchain.finishRestoration();
+        
+        if (restored[0] == 0) {
+            LOG.info("Aucun historique, création du Genesis");
+            statistics.reset();
+            lastEnqueuedIndex = -1;  // Genesis à écrire au premier ajout
+            lastPersistedIndex = -1;
+            return;
+        }
+        
+        // Instantané ne correspondant pas à l'historique (réécrit, tronqué) : recomptage complet
+        if (snapshot != null && !snapshotMatched[0]) {
+            LOG.warn("Point de reprise des statistiques périmé, recomptage complet");
+            statistics.reset();
+            for (Block block : blockchain.getChain()) {
+                block.decisions().forEach(statistics::recordDecision);
             }
-            
-            //  TERMINER la restauration
-            blockchain.finishRestoration();
-            
-            // Rapport
-            System.out.println("\n  📊 Rapport de reconstruction:");
-            System.out.println("     - Blocs dans CSV: " + blocks.size());
-            System.out.println("     - Blocs restaurés: " + restored);
-            System.out.println("     - Erreurs: " + errors);
-            System.out.println("     - Blockchain.getSize(): " + blockchain.getSize());
-            
-            //VÉRIFICATION automatique
-            boolean valid = blockchain.isChainValid();
-            if (valid) {
-                System.out.println("  ✅ Blockchain restaurée et VALIDE!");
-            } else {
-                System.out.println("  ❌ Blockchain restaurée mais INVALIDE!");
-                blockchain.printChain();  // Afficher les détails
-            }
-            
+            replayed[0] = restored[0];
+        }
+        
+        // MIGRATION des hash ancien format (copie de sauvegarde puis réécriture)
+        if (errors[0] == 0 && blockchain.hasLegacyHashes()) {
+            migrateLegacyHashes(storage);
+            replayed[0] = restored[0];  // hash changés : le point de reprise doit être réécrit
+        }
+        
+        // Les blocs restaurés sont déjà sur disque
+        lastPersistedIndex = blockchain.getLastBlock().index();
+        lastEnqueuedIndex = lastPersistedIndex;
+        blockchain.markPersisted(lastPersistedIndex);
+        lastCheckpointIndex = snapshotMatched[0] ? coveredIndex : -1;
+        if (replayed[0] > 0) {
+            checkpointStatistics(storage);
+        }
+        
+        // Rapport
+        LOG.event(errors[0] == 0 ? LogLevel.INFO : LogLevel.WARN, "Reconstruction de la blockchain",
+            "restaurés", restored[0],
+            "rejoués", replayed[0],
+            "erreurs", errors[0],
+            "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        
+        //VÉRIFICATION automatique : seuls les blocs postérieurs au dernier point de reprise
+        blockchain.setValidationCheckpoint(storage.loadValidationCheckpoint());
+        long validationStart = System.nanoTime();
+        ChainValidator.Result result = blockchain.validate(null);
+        saveValidationCheckpoint(storage, result);
+        if (result.valid()) {
+            LOG.info(() -> "Blockchain restaurée et VALIDE (" + result.checkedBlocks() + " blocs vérifiés en "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - validationStart) + " ms)");
+        } else {
+            LOG.error("Blockchain restaurée mais INVALIDE : premier bloc invalide #"
+                + result.firstInvalidIndex() + " (" + result.failure() + ")");
+        }
+    }
+    
+    private static void saveValidationCheckpoint(StorageManager storage, ChainValidator.Result result) {
+        try {
+            storage.saveValidationCheckpoint(result.valid() ? result.checkpoint() : null);
         } catch (DatabaseException e) {
-            System.out.println("  ⚠️  Erreur lecture CSV: " + e.getMessage());
-            e.printStackTrace();
+            LOG.warn("Point de reprise de validation non enregistré : " + e.getMessage(), e);
         }
     }
     
     /**
-     * Parsing robuste du timestamp
+     * Valide les blocs ajoutés depuis la dernière validation et enregistre le point de reprise.
      */
-    private LocalDateTime parseTimestamp(String timestampStr) {
-        if (timestampStr == null || timestampStr.trim().isEmpty()) {
-            return LocalDateTime.now();
-        }
-        
-        DateTimeFormatter[] formatters = {
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
-            DateTimeFormatter.ISO_LOCAL_DATE_TIME
-        };
-        
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDateTime.parse(timestampStr, formatter);
-            } catch (Exception e) {
-                // Essayer le format suivant
-            }
+    public synchronized ChainValidator.Result validateChain(ChainValidator.ProgressListener listener) {
+        ChainValidator.Result result = blockchain.validate(listener);
+        saveValidationCheckpoint(storage, result);
+        return result;
+    }
+    
+    /**
+     * Audit complet de la chaîne (tous les hash recalculés), point de reprise enregistré.
+     */
+    public synchronized ChainValidator.Result auditChain(ChainValidator.ProgressListener listener) {
+        ChainValidator.Result result = blockchain.audit(listener);
+        saveValidationCheckpoint(storage, result);
+        return result;
+    }
+    
+    /**
+     * Rescelle la chaîne au hash binaire courant et réécrit l'historique.
+     * Les anciens segments sont conservés (blocks.v1.bak).
+     */
+    private void migrateLegacyHashes(StorageManager storage) {
+        try {
+            Path backup = storage.backupHistory("v" + Block.HASH_VERSION_LEGACY);
+            int resealed = blockchain.migrateHashes();
+            storage.rewriteHistory(blockchain.getChain());
+            LOG.info("Hash migrés (v" + Block.HASH_VERSION + ") : " + resealed
+                + " blocs rescellés, sauvegarde : " + backup);
+        } catch (DatabaseException e) {
+            LOG.error("Migration des hash impossible : " + e.getMessage(), e);
         }
-        
-        System.err.println("  ⚠️  Impossible de parser timestamp: " + timestampStr);
-        return LocalDateTime.now();
     }
     
     /**
      * Ajout d'une nouvelle décision
      */
-    public void addDecision(DecisionResult decision) {
+    public synchronized void addDecision(DecisionResult decision) {
         if (isReconstructing) {
             blockchain.addDecision(decision);
             statistics.recordDecision(decision);
             return;
         }
+        if (isShutdown) {
+            LOG.warn("Décision ignorée : arrêt en cours");
+            return;
+        }
         
         try {
-            System.out.println("\n💾 Nouvelle décision...");
-            System.out.println("   Action: " + decision.getAction());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Nouvelle décision : " + decision.getAction());
+            }
             
             blockchain.addDecision(decision);
             statistics.recordDecision(decision);
             
             saveAllData();
             
-            System.out.println("✅ Décision sauvegardée\n");
-            
         } catch (Exception e) {
-            System.err.println("✗ Erreur: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Décision non sauvegardée : " + e.getMessage(), e);
         }
     }
     
     /**
-     * Sauvegarde complète
+     * Sauvegarde incrémentale : seuls les blocs pas encore confiés au stockage
+     * (en pratique le nouveau bloc, plus le Genesis au premier ajout, ou ceux
+     * refusés après un échec d'écriture) sont confiés au writer asynchrone,
+     * avec les statistiques.
+     * La configuration est sauvegardée explicitement et à l'arrêt.
      */
     private void saveAllData() throws DatabaseException {
-        List<Block> chain = blockchain.getChain();
-        if (!chain.isEmpty()) {
-            storage.clearHistory();
-            for (Block block : chain) {
-                storage.saveBlockToHistory(block);
-            }
+        for (Block block : blockchain.getBlocksAfter(lastEnqueuedIndex)) {
+            storage.enqueueBlock(block);
+            lastEnqueuedIndex = block.index();
         }
+        markDurableBlocks();
         
-        storage.saveStatistics(statistics);
+        storage.requestStatisticsSave(statistics);
         
-        if (configuration != null) {
-            storage.saveConfiguration(configuration);
+        if (lastEnqueuedIndex - lastCheckpointIndex >= CHECKPOINT_INTERVAL_BLOCKS) {
+            checkpointStatistics(storage);
+        }
+    }
+    
+    /**
+     * Avance l'index persisté jusqu'au dernier bloc acquitté par le stockage ;
+     * le corps des blocs acquittés devient évinçable.
+     */
+    private void markDurableBlocks() {
+        int durable = storage.getDurableIndex();
+        if (durable > lastPersistedIndex) {
+            lastPersistedIndex = durable;
+            blockchain.markPersisted(durable);
         }
     }
     
+    /**
+     * Point de reprise des statistiques au dernier bloc persisté.
+     * Sans effet si des décisions sont en attente de bloc : elles sont déjà
+     * comptées mais pas encore dans la chaîne.
+     */
+    private void checkpointStatistics(StorageManager storage) {
+        if (lastEnqueuedIndex < 0 || blockchain.getPendingCount() > 0) {
+            return;
+        }
+        Block last = blockchain.getLastBlock();
+        try {
+            storage.checkpointStatistics(statistics.snapshot(last.index(), last.hash().toHex()));
+            lastCheckpointIndex = last.index();
+        } catch (DatabaseException e) {
+            LOG.error("Point de reprise : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Change la politique de durabilité (les blocs en attente sont d'abord écrits).
+     */
+    public void setDurabilityPolicy(DurabilityPolicy policy) {
+        try {
+            storage.startAsyncWriter(policy);
+        } catch (DatabaseException e) {
+            LOG.error("Erreur writer : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Regroupe les décisions en blocs : un bloc (un seul hash d'en-tête) par lot de
+     * {@code maxDecisions} décisions, scellé au plus tard après {@code maxDelayMillis}.
+     * (1, 0) rétablit un bloc par décision. Le lot en cours est d'abord scellé.
+     */
+    public synchronized void setBlockBatching(int maxDecisions, long maxDelayMillis) {
+        flushPendingBlock();
+        blockchain.setBatching(maxDecisions, maxDelayMillis);
+        this.batchSize = maxDecisions;
+        this.batchDelayMillis = maxDelayMillis;
+        
+        if (batchFlusher != null) {
+            batchFlusher.shutdownNow();
+            batchFlusher = null;
+        }
+        if (maxDecisions > 1 && maxDelayMillis > 0) {
+            batchFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "parfeu-block-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, maxDelayMillis / 2);
+            batchFlusher.scheduleAtFixedRate(this::flushDueBlock, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Scelle et persiste le lot en attente (sans effet hors mode lot).
+     */
+    public synchronized void flushPendingBlock() {
+        persistIfSealed(blockchain.flushPending());
+    }
+    
+    private synchronized void flushDueBlock() {
+        if (!isShutdown) {
+            persistIfSealed(blockchain.flushIfDue());
+        }
+    }
+    
+    private void persistIfSealed(Block block) {
+        if (block == null) {
+            return;
+        }
+        try {
+            saveAllData();
+        } catch (DatabaseException e) {
+            LOG.error("Écriture du lot : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Nombre de blocs gardés entiers en mémoire (les plus récents) ; le corps des
+     * plus anciens est libéré puis relu depuis l'historique à la demande.
+     */
+    public synchronized void setResidentBlocks(int residentBlocks) {
+        blockchain.enableEviction(residentBlocks, storage::readBlock);
+        this.residentBlocks = residentBlocks;
+    }
+    
+    /**
+     * Attend que toutes les décisions enregistrées soient sur disque.
+     */
+    public void flush() throws DatabaseException {
+        storage.flush();
+        synchronized (this) {
+            markDurableBlocks();
+        }
+    }
+    
+    /**
+     * Arrêt propre : vide le writer, fsync, sauvegarde statistiques et configuration.
+     * Idempotent (appelé par App.stop() et par le hook d'arrêt de la JVM).
+     */
+    public synchronized void shutdown() {
+        if (isShutdown) {
+            return;
+        }
+        if (batchFlusher != null) {
+            batchFlusher.shutdownNow();
+        }
+        flushPendingBlock();
+        if (lastCheckpointIndex != lastEnqueuedIndex) {
+            checkpointStatistics(storage);
+        }
+        isShutdown = true;
+        try {
+            storage.close();
+            storage.saveStatistics(statistics);
+            if (configuration != null) {
+                storage.saveConfiguration(configuration);
+            }
+            LOG.info("Données persistées, arrêt terminé");
+        } catch (DatabaseException e) {
+            LOG.error("Erreur arrêt : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Compaction explicite : réécrit l'historique complet depuis la chaîne en mémoire.
+     */
+    public void compactHistory() {
+        try {
+            // Blocs évincés relus depuis l'historique : il doit être à jour
+            storage.flush();
+            List<Block> chain = blockchain.getChain();
+            storage.rewriteHistory(chain);
+            lastPersistedIndex = chain.isEmpty() ? -1 : chain.get(chain.size() - 1).index();
+            lastEnqueuedIndex = lastPersistedIndex;
+        } catch (DatabaseException e) {
+            LOG.error("Erreur compaction : " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Recherche dans l'historique persisté (enquête sur incident), après
+     * écriture des blocs encore en attente dans le writer.
+     * Les décisions d'un lot non encore scellé ne sont pas visibles.
+     */
+    public List<Block> queryBlocks(BlockQuery query) throws DatabaseException {
+        return storage.queryBlocks(query);
+    }
+    
     /**
      * Sauvegarde configuration explicite
      */
@@ -331,10 +514,9 @@ public final class SharedDataManager {
         try {
             this.configuration = config;
             storage.saveConfiguration(config);
-            System.out.println("✓ Configuration sauvegardée");
+            LOG.info("Configuration sauvegardée");
         } catch (DatabaseException e) {
-            System.err.println("✗ Erreur config: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Erreur config : " + e.getMessage(), e);
         }
     }
     
@@ -358,13 +540,17 @@ public final class SharedDataManager {
         try {
             statistics.reset();
             blockchain = new BlockChain();
+            blockchain.enableEviction(residentBlocks, storage::readBlock);
             blockchain.clear();
+            blockchain.setBatching(batchSize, batchDelayMillis);
             storage.clearAll();
+            lastEnqueuedIndex = -1;
+            lastPersistedIndex = -1;
+            lastCheckpointIndex = -1;
             configuration = new FirewallConfig();
-            System.out.println("✓ Reset complet");
+            LOG.info("Reset complet");
         } catch (DatabaseException e) {
-            System.err.println("✗ Erreur reset: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Erreur reset : " + e.getMessage(), e);
         }
     }
     
@@ -2,35 +2,73 @@ package com.mycompany.parfeu.Model.Rawen.persistence;
 
 import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
 import com.mycompany.parfeu.Model.Rawen.blockchain.Block;
+import com.mycompany.parfeu.Model.Rawen.blockchain.BlockHash;
+import com.mycompany.parfeu.Model.Rawen.blockchain.ChainValidator;
 import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.logging.Logger;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
 import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsManager;
+import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsSnapshot;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 
 public final class StorageManager {
     
+    private static final Logger LOG = Logging.getLogger(StorageManager.class);
+    
     private static final String DATA_DIR = "firewall_data";
-    private static final String HISTORY_FILE = "historique_blocs.csv";
+    private static final String HISTORY_DIR = "blocks";
     private static final String STATS_FILE = "statistiques.txt";
+    private static final String STATS_SNAPSHOT_FILE = "statistiques.snapshot";
+    private static final int STATS_SNAPSHOT_VERSION = 1;
+    private static final String VALIDATION_CHECKPOINT_FILE = "validation.checkpoint";
     private static final String CONFIG_FILE = "configuration.properties";
     
     private final Path dataDirectory;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private static final int DEFAULT_WRITER_CAPACITY = 8192;
+    
+    // Segments binaires de l'historique (remplacés lors d'une réécriture)
+    private BlockSegmentStore store;
+    
+    // Writer asynchrone (null = écritures synchrones) ; remplacé sous verrou en écriture,
+    // les dépôts prennent le verrou en lecture (jamais le moniteur : le writer en a besoin)
+    private volatile HistoryWriter writer;
+    private final ReentrantReadWriteLock writerLock = new ReentrantReadWriteLock();
+    
+    // Index du dernier bloc écrit (sous le moniteur) et du dernier bloc écrit puis
+    // synchronisé (-1 = aucun depuis l'ouverture)
+    private int lastWrittenIndex = -1;
+    private volatile int durableIndex = -1;
 
     public StorageManager() throws DatabaseException {
-        this.dataDirectory = Paths.get(DATA_DIR);
+        this(Paths.get(DATA_DIR));
+    }
+
+    /**
+     * Stockage dans un répertoire donné (benchmarks, outils, tests).
+     */
+    public StorageManager(Path dataDirectory) throws DatabaseException {
+        this.dataDirectory = Objects.requireNonNull(dataDirectory, "dataDirectory ne peut pas être null");
         try {
             Files.createDirectories(dataDirectory);
-            System.out.println("✓ Répertoire de stockage initialisé : " + dataDirectory.toAbsolutePath());
+            LOG.info(() -> "Répertoire de stockage initialisé : " + dataDirectory.toAbsolutePath());
             initializeFiles();
         } catch (IOException e) {
             throw new DatabaseException("Impossible de créer le répertoire de données", e);
@@ -38,21 +76,9 @@ public final class StorageManager {
     }
     
     private void initializeFiles() throws DatabaseException {
-        // Initialiser historique
-        Path historyPath = dataDirectory.resolve(HISTORY_FILE);
-        if (!Files.exists(historyPath)) {
-            try (BufferedWriter writer = new BufferedWriter(
-                    new OutputStreamWriter(
-                        new FileOutputStream(historyPath.toFile()),
-                        StandardCharsets.UTF_8
-                    ))) {
-                writer.write(Block.getCSVHeader());
-                writer.newLine();
-                System.out.println("✓ Fichier historique créé");
-            } catch (IOException e) {
-                throw new DatabaseException("Erreur création fichier historique", e);
-            }
-        }
+        // Historique : segments binaires, import unique d'un ancien historique CSV
+        openStore();
+        importLegacyHistory();
         
         // Initialiser configuration
         Path configPath = dataDirectory.resolve(CONFIG_FILE);
@@ -60,214 +86,463 @@ public final class StorageManager {
             try {
                 FirewallConfig defaultConfig = new FirewallConfig();
                 saveConfiguration(defaultConfig);
-                System.out.println("✓ Fichier configuration créé avec valeurs par défaut");
+                LOG.info("Fichier configuration créé avec valeurs par défaut");
             } catch (Exception e) {
-                System.err.println("⚠ Impossible de créer configuration par défaut: " + e.getMessage());
+                LOG.warn("Impossible de créer configuration par défaut : " + e.getMessage(), e);
             }
         }
     }
 
+    private void openStore() throws DatabaseException {
+        try {
+            store = new BlockSegmentStore(dataDirectory.resolve(HISTORY_DIR));
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur ouverture de l'historique des blocs", e);
+        }
+    }
+
+    /**
+     * Premier démarrage après passage aux segments : l'historique CSV est importé
+     * puis renommé en historique_blocs.csv.imported (jamais supprimé).
+     */
+    private void importLegacyHistory() throws DatabaseException {
+        Path csvPath = dataDirectory.resolve(HistoryCsv.FILE_NAME);
+        if (store.size() > 0 || !Files.exists(csvPath)) {
+            return;
+        }
+        long imported = importHistoryCsv(csvPath);
+        try {
+            Files.move(csvPath, dataDirectory.resolve(HistoryCsv.FILE_NAME + ".imported"),
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur lors du renommage de l'historique CSV importé", e);
+        }
+        LOG.info(() -> "Historique CSV importé : " + imported + " blocs");
+    }
+
     // ========== GESTION HISTORIQUE BLOCS ==========
 
     /**
-     *  Parse une ligne CSV en gérant les virgules dans les timestamps
+     *  Sauvegarde d'un bloc dans l'historique
+     */
+    public void saveBlockToHistory(Block block) throws DatabaseException {
+        appendBlock(block);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Bloc #" + block.index() + " sauvegardé | Action: " + block.action());
+        }
+    }
+
+    /**
+     * Ajoute le bloc à la fin des segments (écriture en mémoire projetée).
+     * Rien n'est jamais réécrit : coût constant par bloc.
      */
-    private String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
+    public synchronized void appendBlock(Block block) throws DatabaseException {
+        try {
+            store.append(block);
+            lastWrittenIndex = block.index();
+            durableIndex = lastWrittenIndex;  // écriture synchrone : acquittée au retour
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur lors de la sauvegarde du bloc", e);
+        }
+    }
+
+    /**
+     * Réécriture complète de l'historique (compaction, migration).
+     * Écrit dans un répertoire temporaire puis le substitue.
+     */
+    public void rewriteHistory(List<Block> blocks) throws DatabaseException {
+        flush();
+        synchronized (this) {
+            replaceHistoryLocked(sink -> blocks.forEach(sink));
+        }
+        LOG.info(() -> "Historique compacté : " + blocks.size() + " blocs");
+    }
+
+    /**
+     * Remplit un nouvel ensemble de segments via {@code producer}, puis remplace
+     * l'historique courant : l'ancien n'est supprimé qu'une fois le nouveau complet.
+     * @return le nombre de blocs écrits
+     */
+    private long replaceHistoryLocked(Consumer<Consumer<Block>> producer) throws DatabaseException {
+        Path historyDir = dataDirectory.resolve(HISTORY_DIR);
+        Path tempDir = dataDirectory.resolve(HISTORY_DIR + ".tmp");
+        Path oldDir = dataDirectory.resolve(HISTORY_DIR + ".old");
+        long written;
         
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString().trim());
-                current.setLength(0);
+        try {
+            BlockSegmentStore.deleteDirectory(tempDir);
+            int[] lastIndex = {-1};
+            try (BlockSegmentStore temp = new BlockSegmentStore(tempDir)) {
+                producer.accept(block -> {
+                    try {
+                        temp.append(block);
+                        lastIndex[0] = block.index();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                written = temp.size();
+            }
+            lastWrittenIndex = lastIndex[0];
+            durableIndex = lastIndex[0];  // segments synchronisés à la fermeture
+            
+            store.close();
+            BlockSegmentStore.deleteDirectory(oldDir);
+            Files.move(historyDir, oldDir);
+            Files.move(tempDir, historyDir);
+            BlockSegmentStore.deleteDirectory(oldDir);
+        } catch (IOException | UncheckedIOException e) {
+            throw new DatabaseException("Erreur lors de la réécriture de l'historique", e);
+        } finally {
+            if (!Files.exists(historyDir) && Files.exists(oldDir)) {
+                try {
+                    Files.move(oldDir, historyDir);
+                } catch (IOException e) {
+                    LOG.error("Restauration de l'historique impossible : " + e.getMessage(), e);
+                }
+            }
+            openStore();
+        }
+        return written;
+    }
+
+    // ========== ÉCRITURE ASYNCHRONE (GROUP COMMIT) ==========
+
+    /**
+     * Démarre (ou redémarre) le writer asynchrone avec la politique donnée.
+     */
+    public void startAsyncWriter(DurabilityPolicy policy) throws DatabaseException {
+        startAsyncWriter(policy, DEFAULT_WRITER_CAPACITY);
+    }
+
+    public void startAsyncWriter(DurabilityPolicy policy, int capacity) throws DatabaseException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit être >= 1");
+        }
+        writerLock.writeLock().lock();
+        try {
+            stopAsyncWriterLocked();
+            writer = new HistoryWriter(this, policy, capacity);
+        } finally {
+            writerLock.writeLock().unlock();
+        }
+        LOG.info(() -> "Writer asynchrone démarré (" + policy.mode() + ")");
+    }
+
+    /**
+     * Arrête le writer asynchrone après avoir tout écrit et synchronisé.
+     * Les dépôts concurrents attendent la fin de l'arrêt : aucun bloc ne peut
+     * être écrit avant ceux encore dans la file de l'ancien writer.
+     */
+    public void stopAsyncWriter() throws DatabaseException {
+        writerLock.writeLock().lock();
+        try {
+            stopAsyncWriterLocked();
+        } finally {
+            writerLock.writeLock().unlock();
+        }
+    }
+
+    private void stopAsyncWriterLocked() throws DatabaseException {
+        HistoryWriter current = writer;
+        if (current != null) {
+            try {
+                current.close();
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Dépose un bloc pour écriture asynchrone (ou l'écrit directement sans writer).
+     */
+    public void enqueueBlock(Block block) throws DatabaseException {
+        writerLock.readLock().lock();
+        try {
+            HistoryWriter current = writer;
+            if (current != null) {
+                current.enqueue(block);
             } else {
-                current.append(c);
+                appendBlock(block);
             }
+        } finally {
+            writerLock.readLock().unlock();
         }
-        
-        // Ajouter le dernier champ
-        result.add(current.toString().trim());
-        
-        return result.toArray(new String[0]);
     }
 
     /**
-     *  Sauvegarde avec guillemets autour des timestamps et ACTION
+     * Demande la sauvegarde des statistiques, fusionnée dans le prochain lot du writer.
      */
-    public void saveBlockToHistory(Block block) throws DatabaseException {
-        Path historyPath = dataDirectory.resolve(HISTORY_FILE);
-        
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(
-                    new FileOutputStream(historyPath.toFile(), true),
-                    StandardCharsets.UTF_8
-                ))) {
-            
-            // Format avec guillemets autour du timestamp et action
-            String csvLine = String.format("%d,%s,%s,%d,%d,%s,%d,%d,\"%s\",%s,%s,%s",
-                block.index(),
-                block.srcIP(),
-                block.destIP(),
-                block.srcPort(),
-                block.destPort(),
-                block.protocol(),
-                block.size(),
-                block.timestamp(),
-                block.packetTimestamp().toString(),
-                block.previousHash(),
-                block.hash(),
-                block.action()  // ACTION
-            );
-            
-            writer.write(csvLine);
-            writer.newLine();
-            
-            System.out.println("✓ Bloc #" + block.index() + " sauvegardé | Action: " + block.action());
-            
+    public void requestStatisticsSave(StatisticsManager stats) throws DatabaseException {
+        writerLock.readLock().lock();
+        try {
+            HistoryWriter current = writer;
+            if (current != null) {
+                current.requestStatisticsSave(stats);
+            } else {
+                saveStatistics(stats);
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Attend que tous les blocs déposés soient écrits et synchronisés sur disque.
+     */
+    public void flush() throws DatabaseException {
+        writerLock.readLock().lock();
+        try {
+            HistoryWriter current = writer;
+            if (current != null) {
+                current.flush();
+            } else {
+                syncHistory();
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index du dernier bloc écrit et synchronisé (acquitté par le writer), -1 si aucun.
+     * Un bloc déposé n'est considéré persisté qu'à partir de là.
+     */
+    public int getDurableIndex() {
+        return durableIndex;
+    }
+
+    /**
+     * Écrit un lot de blocs (appelé par le writer). En cas d'erreur, les blocs
+     * déjà écrits sont retirés de la liste : elle ne garde que ceux à réessayer.
+     */
+    synchronized void writeHistoryBatch(List<Block> blocks) throws DatabaseException {
+        int written = 0;
+        try {
+            for (Block block : blocks) {
+                store.append(block);
+                lastWrittenIndex = block.index();
+                written++;
+            }
         } catch (IOException e) {
-            throw new DatabaseException("Erreur lors de la sauvegarde du bloc", e);
+            blocks.subList(0, written).clear();
+            throw new DatabaseException("Erreur lors de l'écriture d'un lot de " + (blocks.size() + written)
+                + " blocs (" + written + " écrits)", e);
         }
     }
 
     /**
-     Retourne des objets structurés avec ACTION
+     * fsync des segments modifiés.
      */
-    public List<BlockData> loadBlockHistory() throws DatabaseException {
-        Path historyPath = dataDirectory.resolve(HISTORY_FILE);
-        
-        if (!Files.exists(historyPath)) {
-            System.out.println("⚠ Aucun historique de blocs trouvé");
-            return new ArrayList<>();
+    synchronized void syncHistory() throws DatabaseException {
+        try {
+            store.force();
+            durableIndex = lastWrittenIndex;
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur lors de la synchronisation de l'historique", e);
         }
-        
-        List<BlockData> blocks = new ArrayList<>();
-        
-        try (BufferedReader reader = Files.newBufferedReader(historyPath, StandardCharsets.UTF_8)) {
-            String line;
-            boolean isHeader = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
+    }
+
+    /**
+     * Arrête le writer (après flush) et libère les segments.
+     */
+    public void close() throws DatabaseException {
+        try {
+            stopAsyncWriter();
+        } finally {
+            synchronized (this) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    LOG.warn("Fermeture de l'historique : " + e.getMessage(), e);
                 }
-                
-                if (line.trim().isEmpty()) {
-                    continue;
+            }
+        }
+    }
+
+    /**
+     * Charge tout l'historique en mémoire (outils, compaction).
+     * Au démarrage, préférer {@link #forEachBlock} qui ne garde qu'un bloc à la fois.
+     */
+    public List<Block> loadBlockHistory() throws DatabaseException {
+        List<Block> blocks = new ArrayList<>((int) Math.min(countBlocks(), Integer.MAX_VALUE));
+        forEachBlock(blocks::add);
+        return blocks;
+    }
+
+    /**
+     * Parcourt l'historique dans l'ordre et transmet chaque bloc, décisions
+     * en lot comprises. La mémoire utilisée est bornée par le plus gros bloc,
+     * pas par la taille de l'historique.
+     * Parcours borné au nombre de blocs au départ ; chaque lecture se fait sous
+     * le verrou (le writer modifie segments et table des symboles), le visiteur
+     * hors verrou. S'arrête si l'historique est remplacé entre-temps.
+     * @return le nombre de blocs transmis
+     */
+    public long forEachBlock(Consumer<Block> visitor) throws DatabaseException {
+        Objects.requireNonNull(visitor, "visitor ne peut pas être null");
+        BlockSegmentStore current;
+        long count;
+        synchronized (this) {
+            current = store;
+            count = current.size();
+        }
+        if (count == 0) {
+            LOG.info("Aucun historique de blocs trouvé");
+            return 0;
+        }
+        long visited = 0;
+        while (visited < count) {
+            Block block;
+            synchronized (this) {
+                if (store != current) {
+                    LOG.warn("Historique remplacé pendant le parcours, arrêt après " + visited + " blocs");
+                    break;
                 }
-                
-                try {
-                    String[] parts = parseCSVLine(line);
-                    
-                    // COMPATIBILITÉ : Ancien format (11 colonnes) vs nouveau (12 colonnes)
-                    if (parts.length < 11) {
-                        System.err.println("⚠️ Ligne invalide (colonnes: " + parts.length + "): " + line);
-                        continue;
-                    }
-                    
-                    String action = "LOG";  // Valeur par défaut
-                    
-                    if (parts.length >= 12) {
-                        // Nouveau format avec action
-                        action = parts[11];
-                    } else {
-                        // Ancien format, utiliser LOG par défaut
-                        System.out.println("  ⚠️ Ancien format détecté pour bloc #" + parts[0] + ", action=LOG par défaut");
+                block = current.read(visited);
+            }
+            visitor.accept(block);
+            visited++;
+        }
+        return visited;
+    }
+
+    /**
+     * Bloc à la position donnée de l'historique (accès direct, sans parcours).
+     * Un bloc encore dans la file du writer est d'abord écrit.
+     * @throws IndexOutOfBoundsException si la position est hors de l'historique
+     */
+    public Block readBlock(long position) {
+        if (position >= countBlocks()) {
+            // Hors verrou : le writer doit pouvoir prendre le verrou pour écrire le lot
+            try {
+                flush();
+            } catch (DatabaseException e) {
+                throw new IllegalStateException("Bloc " + position + " non écrit: " + e.getMessage(), e);
+            }
+        }
+        synchronized (this) {
+            return store.read(position);
+        }
+    }
+
+    /**
+     * Recherche dans l'historique via les index par IP source, IP destination
+     * et plage de temps (sans parcours complet).
+     * Les blocs encore dans la file du writer sont d'abord écrits.
+     * @return les blocs correspondants, dans l'ordre de la chaîne
+     */
+    public List<Block> queryBlocks(BlockQuery query) throws DatabaseException {
+        Objects.requireNonNull(query, "query ne peut pas être null");
+        // Hors verrou, comme readBlock : le writer doit pouvoir écrire le lot
+        flush();
+        synchronized (this) {
+            return store.query(query);
+        }
+    }
+
+    /**
+     * Copie l'historique à côté de l'original avant une opération qui le réécrit
+     * (ex. migration des hash). Une sauvegarde existante n'est jamais écrasée.
+     * @return le chemin de la copie, ou null s'il n'y a pas d'historique
+     */
+    public Path backupHistory(String suffix) throws DatabaseException {
+        if (countBlocks() == 0) {
+            return null;
+        }
+        flush();
+        synchronized (this) {
+            Path historyDir = dataDirectory.resolve(HISTORY_DIR);
+            Path backupPath = dataDirectory.resolve(HISTORY_DIR + "." + suffix + ".bak");
+            if (Files.exists(backupPath)) {
+                backupPath = dataDirectory.resolve(
+                    HISTORY_DIR + "." + suffix + "." + System.currentTimeMillis() + ".bak");
+            }
+            try {
+                Files.createDirectories(backupPath);
+                try (var files = Files.list(historyDir)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.copy(file, backupPath.resolve(file.getFileName()));
                     }
-                    
-                    BlockData blockData = new BlockData(
-                        Integer.parseInt(parts[0]),      // index
-                        parts[1],                         // srcIP
-                        parts[2],                         // destIP
-                        Integer.parseInt(parts[3]),      // srcPort
-                        Integer.parseInt(parts[4]),      // destPort
-                        parts[5],                         // protocol
-                        Integer.parseInt(parts[6]),      // size
-                        Long.parseLong(parts[7]),        // timestamp
-                        parts[8],                         // packetTimestamp
-                        parts[9],                         // previousHash
-                        parts[10],                        // hash
-                        action                            // 🔥 action
-                    );
-                    
-                    blocks.add(blockData);
-                    
-                } catch (Exception e) {
-                    System.err.println("⚠️ Erreur parsing ligne: " + e.getMessage());
-                    System.err.println("   Ligne: " + line);
                 }
+                return backupPath;
+            } catch (IOException e) {
+                throw new DatabaseException("Erreur lors de la sauvegarde de l'historique", e);
             }
-            
-        } catch (IOException e) {
-            throw new DatabaseException("Erreur lors du chargement de l'historique", e);
         }
-        
-        return blocks;
     }
 
-    public long countBlocks() throws DatabaseException {
-        return loadBlockHistory().size();
+    /**
+     * Nombre de blocs de l'historique (lu sur les segments, sans parcours).
+     */
+    public long countBlocks() {
+        return store.size();
     }
 
     public void clearHistory() throws DatabaseException {
-        Path historyPath = dataDirectory.resolve(HISTORY_FILE);
-        
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(
-                    new FileOutputStream(historyPath.toFile()),
-                    StandardCharsets.UTF_8
-                ))) {
-            
-            writer.write(Block.getCSVHeader());
-            writer.newLine();
-            
-            System.out.println("✓ Historique effacé");
-            
-        } catch (IOException e) {
-            throw new DatabaseException("Erreur lors de l'effacement de l'historique", e);
+        flush();
+        synchronized (this) {
+            try {
+                store.close();
+                BlockSegmentStore.deleteDirectory(dataDirectory.resolve(HISTORY_DIR));
+                lastWrittenIndex = -1;
+                durableIndex = -1;
+            } catch (IOException e) {
+                throw new DatabaseException("Erreur lors de l'effacement de l'historique", e);
+            } finally {
+                openStore();
+            }
+            LOG.info("Historique effacé");
         }
     }
 
-    // ========== CLASSE INTERNE POUR DONNÉES DE BLOC ==========
-    
+    // ========== EXPORT / IMPORT CSV (HORS LIGNE) ==========
+
     /**
-      Objet structuré pour les données de bloc avec ACTION
+     * Écrit l'historique au format CSV (même format que l'ancien historique_blocs.csv).
+     * @return le nombre de blocs exportés
      */
-    public static class BlockData {
-        public final int index;
-        public final String srcIP;
-        public final String destIP;
-        public final int srcPort;
-        public final int destPort;
-        public final String protocol;
-        public final int size;
-        public final long timestamp;
-        public final String packetTimestamp;
-        public final String previousHash;
-        public final String hash;
-        public final String action;  //  ACTION
-        
-        public BlockData(int index, String srcIP, String destIP, int srcPort, 
-                        int destPort, String protocol, int size, long timestamp,
-                        String packetTimestamp, String previousHash, String hash,
-                        String action) {
-            this.index = index;
-            this.srcIP = srcIP;
-            this.destIP = destIP;
-            this.srcPort = srcPort;
-            this.destPort = destPort;
-            this.protocol = protocol;
-            this.size = size;
-            this.timestamp = timestamp;
-            this.packetTimestamp = packetTimestamp;
-            this.previousHash = previousHash;
-            this.hash = hash;
-            this.action = action;
+    public long exportHistoryCsv(Path csvPath) throws DatabaseException {
+        Objects.requireNonNull(csvPath, "csvPath ne peut pas être null");
+        flush();
+        try (BufferedWriter out = Files.newBufferedWriter(csvPath, StandardCharsets.UTF_8)) {
+            out.write(Block.getCSVHeader());
+            out.newLine();
+            StringBuilder lines = new StringBuilder(256);
+            return forEachBlock(block -> {
+                lines.setLength(0);
+                HistoryCsv.appendCSV(lines, block);
+                try {
+                    out.write(lines.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new DatabaseException("Erreur lors de l'export CSV de l'historique", e);
+        }
+    }
+
+    /**
+     * Remplace l'historique par le contenu d'un fichier CSV, lu en flux.
+     * Les hash sont repris tels quels (pas de recalcul).
+     * @return le nombre de blocs importés
+     */
+    public long importHistoryCsv(Path csvPath) throws DatabaseException {
+        Objects.requireNonNull(csvPath, "csvPath ne peut pas être null");
+        if (!Files.exists(csvPath)) {
+            throw new DatabaseException("Fichier CSV introuvable : " + csvPath);
+        }
+        flush();
+        synchronized (this) {
+            return replaceHistoryLocked(sink -> {
+                try {
+                    HistoryCsv.forEachRow(csvPath, row -> sink.accept(HistoryCsv.toBlock(row)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
         }
     }
 
@@ -313,7 +588,7 @@ public final class StorageManager {
                 writer.write("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
                 
                 ipStats.values().stream()
-                    .sorted((a, b) -> Integer.compare(b.totalPackets, a.totalPackets))
+                    .sorted((a, b) -> Long.compare(b.totalPackets, a.totalPackets))
                     .limit(5)
                     .forEach(stat -> {
                         double ipBlockRate = stat.totalPackets > 0 
@@ -323,14 +598,14 @@ public final class StorageManager {
                             writer.write(String.format("  %s : %d paquets (%.1f%% bloqués)\n",
                                 stat.ipAddress, stat.totalPackets, ipBlockRate));
                         } catch (IOException e) {
-                            e.printStackTrace();
+                            LOG.error("Écriture des statistiques par IP : " + e.getMessage(), e);
                         }
                     });
             }
             
             writer.write("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
             
-            System.out.println("✓ Statistiques sauvegardées dans " + statsPath);
+            LOG.debug(() -> "Statistiques sauvegardées dans " + statsPath);
             
         } catch (IOException e) {
             throw new DatabaseException("Erreur lors de la sauvegarde des statistiques", e);
@@ -351,6 +626,208 @@ public final class StorageManager {
         }
     }
 
+    // ========== POINT DE REPRISE DES STATISTIQUES ==========
+
+    /**
+     * Enregistre un point de reprise. Avec le writer asynchrone, il est écrit
+     * après les blocs déjà déposés et leur fsync : l'instantané ne couvre
+     * jamais un bloc absent du disque.
+     */
+    public void checkpointStatistics(StatisticsSnapshot snapshot) throws DatabaseException {
+        writerLock.readLock().lock();
+        try {
+            HistoryWriter current = writer;
+            if (current != null) {
+                current.enqueue(snapshot);
+            } else {
+                syncHistory();
+                saveStatisticsSnapshot(snapshot);
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Écrit l'instantané (fichier temporaire puis remplacement atomique).
+     * Format ligne par ligne : cle=valeur ; ip= et proto= : total,acceptés,bloqués,score,clé.
+     */
+    public void saveStatisticsSnapshot(StatisticsSnapshot snapshot) throws DatabaseException {
+        Path snapshotPath = dataDirectory.resolve(STATS_SNAPSHOT_FILE);
+        Path tempPath = dataDirectory.resolve(STATS_SNAPSHOT_FILE + ".tmp");
+        
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            writer.write("# Point de reprise des statistiques (généré, ne pas modifier)\n");
+            writer.write("version=" + STATS_SNAPSHOT_VERSION + "\n");
+            writer.write("blockIndex=" + snapshot.blockIndex() + "\n");
+            writer.write("blockHash=" + snapshot.blockHash() + "\n");
+            writer.write("total=" + snapshot.totalPackets() + "\n");
+            writer.write("accepted=" + snapshot.acceptedPackets() + "\n");
+            writer.write("dropped=" + snapshot.droppedPackets() + "\n");
+            writer.write("alerted=" + snapshot.alertedPackets() + "\n");
+            writer.write("logged=" + snapshot.loggedPackets() + "\n");
+            writeEntries(writer, "ip=", snapshot.ipEntries());
+            writeEntries(writer, "proto=", snapshot.protocolEntries());
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur lors de l'écriture du point de reprise", e);
+        }
+        
+        try {
+            Files.move(tempPath, snapshotPath,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                throw new DatabaseException("Erreur lors du remplacement du point de reprise", ex);
+            }
+        }
+    }
+
+    private static void writeEntries(BufferedWriter writer, String prefix,
+                                     List<StatisticsSnapshot.Entry> entries) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        for (StatisticsSnapshot.Entry entry : entries) {
+            line.setLength(0);
+            line.append(prefix)
+                .append(entry.total()).append(',')
+                .append(entry.accepted()).append(',')
+                .append(entry.blocked()).append(',')
+                .append(entry.score()).append(',')
+                .append(entry.key()).append('\n');
+            writer.write(line.toString());
+        }
+    }
+
+    /**
+     * Relit le dernier point de reprise.
+     * @return l'instantané, ou null s'il est absent ou illisible (recomptage complet)
+     */
+    public StatisticsSnapshot loadStatisticsSnapshot() {
+        Path snapshotPath = dataDirectory.resolve(STATS_SNAPSHOT_FILE);
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        
+        Map<String, String> values = new HashMap<>();
+        List<StatisticsSnapshot.Entry> ipEntries = new ArrayList<>();
+        List<StatisticsSnapshot.Entry> protocolEntries = new ArrayList<>();
+        
+        try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int eq = line.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("ligne invalide: " + line);
+                }
+                String key = line.substring(0, eq);
+                String value = line.substring(eq + 1);
+                switch (key) {
+                    case "ip" -> ipEntries.add(parseEntry(value));
+                    case "proto" -> protocolEntries.add(parseEntry(value));
+                    default -> values.put(key, value);
+                }
+            }
+            
+            if (Integer.parseInt(values.get("version")) != STATS_SNAPSHOT_VERSION) {
+                LOG.warn("Point de reprise de version inconnue ignoré");
+                return null;
+            }
+            return new StatisticsSnapshot(
+                Integer.parseInt(values.get("blockIndex")),
+                values.get("blockHash"),
+                Long.parseLong(values.get("total")),
+                Long.parseLong(values.get("accepted")),
+                Long.parseLong(values.get("dropped")),
+                Long.parseLong(values.get("alerted")),
+                Long.parseLong(values.get("logged")),
+                ipEntries,
+                protocolEntries
+            );
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Point de reprise illisible, ignoré : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static StatisticsSnapshot.Entry parseEntry(String value) {
+        String[] fields = value.split(",", 5);
+        return new StatisticsSnapshot.Entry(
+            fields[4],
+            Long.parseLong(fields[0]),
+            Long.parseLong(fields[1]),
+            Long.parseLong(fields[2]),
+            Long.parseLong(fields[3])
+        );
+    }
+
+    // ========== POINT DE REPRISE DE VALIDATION ==========
+
+    /**
+     * Enregistre le dernier bloc vérifié (index et hash), fichier temporaire
+     * puis remplacement atomique. null efface le point de reprise.
+     */
+    public void saveValidationCheckpoint(ChainValidator.Checkpoint checkpoint) throws DatabaseException {
+        Path checkpointPath = dataDirectory.resolve(VALIDATION_CHECKPOINT_FILE);
+        if (checkpoint == null) {
+            try {
+                Files.deleteIfExists(checkpointPath);
+                return;
+            } catch (IOException e) {
+                throw new DatabaseException("Erreur lors de l'effacement du point de reprise de validation", e);
+            }
+        }
+        Path tempPath = dataDirectory.resolve(VALIDATION_CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(tempPath,
+                "# Dernier bloc dont la validité a été vérifiée (généré, ne pas modifier)\n" +
+                "blockIndex=" + checkpoint.blockIndex() + "\n" +
+                "blockHash=" + checkpoint.hash().toHex() + "\n",
+                StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DatabaseException("Erreur lors de l'écriture du point de reprise de validation", e);
+        }
+        
+        try {
+            Files.move(tempPath, checkpointPath,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                throw new DatabaseException("Erreur lors du remplacement du point de reprise de validation", ex);
+            }
+        }
+    }
+
+    /**
+     * @return le dernier point de reprise de validation, ou null s'il est absent ou illisible
+     */
+    public ChainValidator.Checkpoint loadValidationCheckpoint() {
+        Path checkpointPath = dataDirectory.resolve(VALIDATION_CHECKPOINT_FILE);
+        if (!Files.exists(checkpointPath)) {
+            return null;
+        }
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (String line : Files.readAllLines(checkpointPath, StandardCharsets.UTF_8)) {
+                int eq = line.indexOf('=');
+                if (!line.startsWith("#") && eq > 0) {
+                    values.put(line.substring(0, eq), line.substring(eq + 1));
+                }
+            }
+            return new ChainValidator.Checkpoint(
+                Integer.parseInt(values.get("blockIndex")),
+                BlockHash.fromHex(values.get("blockHash")));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Point de reprise de validation illisible, ignoré : " + e.getMessage());
+            return null;
+        }
+    }
+
     // ========== GESTION CONFIGURATION ==========
 
     public void saveConfiguration(FirewallConfig config) throws DatabaseException {
@@ -386,7 +863,7 @@ public final class StorageManager {
                     .reduce((a, b) -> a + "," + b)
                     .orElse("") + "\n");
             
-            System.out.println("✓ Configuration sauvegardée");
+            LOG.info("Configuration sauvegardée");
             
         } catch (IOException e) {
             throw new DatabaseException("Erreur lors de la sauvegarde de la configuration", e);
@@ -397,7 +874,7 @@ public final class StorageManager {
         Path configPath = dataDirectory.resolve(CONFIG_FILE);
         
         if (!Files.exists(configPath)) {
-            System.out.println("⚠ Aucune configuration trouvée");
+            LOG.info("Aucune configuration trouvée, valeurs par défaut");
             return new FirewallConfig();
         }
         
@@ -459,12 +936,12 @@ public final class StorageManager {
                                 break;
                         }
                     } catch (NumberFormatException e) {
-                        System.err.println("⚠ Valeur invalide pour " + key);
+                        LOG.warn("Valeur invalide pour " + key);
                     }
                 }
             }
             
-            System.out.println("✓ Configuration chargée");
+            LOG.info("Configuration chargée");
             return config;
             
         } catch (IOException e) {
@@ -479,7 +956,7 @@ public final class StorageManager {
     }
 
     public boolean historyExists() {
-        return Files.exists(dataDirectory.resolve(HISTORY_FILE));
+        return countBlocks() > 0;
     }
 
     public boolean statsExists() {
@@ -498,13 +975,15 @@ public final class StorageManager {
             if (Files.exists(statsPath)) {
                 Files.delete(statsPath);
             }
+            Files.deleteIfExists(dataDirectory.resolve(STATS_SNAPSHOT_FILE));
+            Files.deleteIfExists(dataDirectory.resolve(VALIDATION_CHECKPOINT_FILE));
             
             Path configPath = dataDirectory.resolve(CONFIG_FILE);
             if (Files.exists(configPath)) {
                 Files.delete(configPath);
             }
             
-            System.out.println("✓ Tous les fichiers effacés");
+            LOG.info("Tous les fichiers effacés");
             
         } catch (IOException e) {
             throw new DatabaseException("Erreur lors de l'effacement des fichiers", e);
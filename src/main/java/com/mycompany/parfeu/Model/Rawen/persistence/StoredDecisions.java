@@ -0,0 +1,54 @@
+package com.mycompany.parfeu.Model.Rawen.persistence;
+
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PaquetSimple;
+import com.mycompany.parfeu.Model.Rawen.decision.Action;
+import com.mycompany.parfeu.Model.Rawen.decision.Actions;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Recréation des décisions relues de l'historique (segments binaires ou CSV).
+ */
+final class StoredDecisions {
+
+    private StoredDecisions() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Recrée une décision persistée (le payload n'est pas conservé dans l'historique).
+     */
+    static DecisionResult restore(String srcIP, String destIP, int srcPort, int destPort,
+                                  String protocol, LocalDateTime packetTimestamp,
+                                  String actionName, int score) {
+        Packet packet = new PaquetSimple(
+            srcIP,
+            destIP,
+            srcPort,
+            destPort,
+            protocol,
+            "Restored from blockchain history",
+            packetTimestamp
+        );
+
+        // Convertir l'action
+        Action action;
+        try {
+            action = Actions.fromString(actionName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("  ⚠️  Action invalide: " + actionName);
+            action = Actions.LOG;
+        }
+
+        return new DecisionResult(
+            packet,
+            List.of(),
+            score,
+            action,
+            "Restored from blockchain"
+        );
+    }
+}
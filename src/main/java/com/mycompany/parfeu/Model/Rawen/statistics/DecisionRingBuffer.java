@@ -0,0 +1,78 @@
+package com.mycompany.parfeu.Model.Rawen.statistics;
+
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tampon circulaire borné et sans verrou des dernières décisions.
+ *
+ * Chaque écrivain réserve une position (un seul getAndIncrement) puis écrit
+ * dans la case correspondante : aucune copie, aucun décalage, aucune allocation.
+ * Les lectures sont des instantanés "au mieux" : une case en cours de réécriture
+ * peut apparaître avec sa valeur précédente ou être ignorée.
+ */
+final class DecisionRingBuffer {
+
+    private final AtomicReferenceArray<DecisionResult> slots;
+    private final int capacity;
+    private final AtomicLong sequence = new AtomicLong();
+
+    DecisionRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit être >= 1");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(DecisionResult decision) {
+        long position = sequence.getAndIncrement();
+        slots.lazySet((int) (position % capacity), decision);
+    }
+
+    /**
+     * Ajoute une tranche de décisions en une seule réservation ; seules les
+     * {@code capacity} dernières sont écrites.
+     */
+    void addAll(DecisionResult[] decisions, int from, int to) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        long position = sequence.getAndAdd(count);
+        for (int i = Math.max(from, to - capacity); i < to; i++) {
+            slots.lazySet((int) ((position + i - from) % capacity), decisions[i]);
+        }
+    }
+
+    /**
+     * Dernières décisions, de la plus ancienne à la plus récente.
+     */
+    List<DecisionResult> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - capacity);
+        List<DecisionResult> result = new ArrayList<>((int) (end - start));
+        for (long position = start; position < end; position++) {
+            DecisionResult decision = slots.get((int) (position % capacity));
+            if (decision != null) {
+                result.add(decision);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return (int) Math.min(sequence.get(), capacity);
+    }
+
+    void clear() {
+        for (int i = 0; i < capacity; i++) {
+            slots.set(i, null);
+        }
+        sequence.set(0);
+    }
+}
@@ -10,35 +10,41 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Gestionnaire centralisé des statistiques du pare-feu.
  * Collecte et analyse toutes les métriques du système.
  * 
+ * Chemin d'enregistrement sans verrou : compteurs répartis (LongAdder),
+ * accumulateurs par IP/protocole à champs atomiques, historique en tampon circulaire.
+ * 
  * @author ZGARNI
  */
 public class StatisticsManager {
     
-    // Compteurs atomiques (thread-safe)
-    private final AtomicInteger totalPackets = new AtomicInteger(0);
-    private final AtomicInteger acceptedPackets = new AtomicInteger(0);
-    private final AtomicInteger droppedPackets = new AtomicInteger(0);
-    private final AtomicInteger alertedPackets = new AtomicInteger(0);
-    private final AtomicInteger loggedPackets = new AtomicInteger(0);
+    private static final int HISTORY_CAPACITY = 1000;
+    
+    // Compteurs répartis (pas de contention entre threads, pas de débordement int)
+    private final LongAdder totalPackets = new LongAdder();
+    private final LongAdder acceptedPackets = new LongAdder();
+    private final LongAdder droppedPackets = new LongAdder();
+    private final LongAdder alertedPackets = new LongAdder();
+    private final LongAdder loggedPackets = new LongAdder();
     
-    // Historique des décisions
-    private final List<DecisionResult> decisionHistory = new CopyOnWriteArrayList<>();
+    // Historique des 1000 dernières décisions
+    private final DecisionRingBuffer decisionHistory = new DecisionRingBuffer(HISTORY_CAPACITY);
     
-    // Statistiques par IP
-    private final Map<String, IPStatistics> ipStats = new HashMap<>();
+    // Statistiques par IP source
+    private final ConcurrentHashMap<String, Accumulator> ipStats = new ConcurrentHashMap<>();
     
     // Statistiques par protocole
-    private final Map<String, ProtocolStatistics> protocolStats = new HashMap<>();
+    private final ConcurrentHashMap<String, Accumulator> protocolStats = new ConcurrentHashMap<>();
     
     // Timestamp de démarrage
-    private long startTime;
+    private volatile long startTime;
     
     /**
      * Constructeur.
@@ -51,11 +57,11 @@ public class StatisticsManager {
      * Réinitialise toutes les statistiques.
      */
     public void reset() {
-        totalPackets.set(0);
-        acceptedPackets.set(0);
-        droppedPackets.set(0);
-        alertedPackets.set(0);
-        loggedPackets.set(0);
+        totalPackets.reset();
+        acceptedPackets.reset();
+        droppedPackets.reset();
+        alertedPackets.reset();
+        loggedPackets.reset();
         decisionHistory.clear();
         ipStats.clear();
         protocolStats.clear();
@@ -66,66 +72,136 @@ public class StatisticsManager {
      * Enregistre une nouvelle décision et met à jour les statistiques.
      */
     public void recordDecision(DecisionResult decision) {
-        totalPackets.incrementAndGet();
+        totalPackets.increment();
         
         // Mise à jour des compteurs par action
         if (decision.getAction() == Actions.ACCEPT) {
-            acceptedPackets.incrementAndGet();
+            acceptedPackets.increment();
         } else if (decision.getAction() == Actions.DROP) {
-            droppedPackets.incrementAndGet();
+            droppedPackets.increment();
         } else if (decision.getAction() == Actions.ALERT) {
-            alertedPackets.incrementAndGet();
+            alertedPackets.increment();
         } else if (decision.getAction() == Actions.LOG) {
-            acceptedPackets.incrementAndGet();
-            loggedPackets.incrementAndGet();
+            acceptedPackets.increment();
+            loggedPackets.increment();
         }
         
         // Ajout à l'historique (limité à 1000 entrées)
         decisionHistory.add(decision);
-        if (decisionHistory.size() > 1000) {
-            decisionHistory.remove(0);
-        }
+        
+        boolean blocked = decision.isBlocked();
+        boolean accepted = !blocked && decision.isAccepted();
+        int score = decision.getTotalScore();
         
         // Mise à jour statistiques IP
-        updateIPStatistics(decision);
+        accumulator(ipStats, decision.getPacket().getSrcIP()).record(blocked, accepted, score);
         
         // Mise à jour statistiques protocole
-        updateProtocolStatistics(decision);
+        accumulator(protocolStats, decision.getPacket().getProtocol()).record(blocked, accepted, score);
     }
     
     /**
-     * Met à jour les statistiques par IP.
+     * Enregistre une tranche de décisions d'un lot : compteurs et accumulateurs
+     * sont d'abord cumulés localement, puis publiés une fois par IP/protocole.
      */
-    private void updateIPStatistics(DecisionResult decision) {
-        String srcIP = decision.getPacket().getSrcIP();
+    public void recordDecisions(DecisionResult[] decisions, int from, int to) {
+        long accepted = 0;
+        long dropped = 0;
+        long alerted = 0;
+        long logged = 0;
+        Map<String, Accumulator> ips = new HashMap<>();
+        Map<String, Accumulator> protocols = new HashMap<>();
         
-        ipStats.putIfAbsent(srcIP, new IPStatistics(srcIP));
-        IPStatistics stats = ipStats.get(srcIP);
-        
-        stats.totalPackets++;
-        if (decision.isBlocked()) {
-            stats.blockedPackets++;
-        } else if (decision.isAccepted()) {
-            stats.acceptedPackets++;
+        for (int i = from; i < to; i++) {
+            DecisionResult decision = decisions[i];
+            if (decision.getAction() == Actions.ACCEPT) {
+                accepted++;
+            } else if (decision.getAction() == Actions.DROP) {
+                dropped++;
+            } else if (decision.getAction() == Actions.ALERT) {
+                alerted++;
+            } else if (decision.getAction() == Actions.LOG) {
+                accepted++;
+                logged++;
+            }
+            
+            boolean blocked = decision.isBlocked();
+            boolean accept = !blocked && decision.isAccepted();
+            int score = decision.getTotalScore();
+            ips.computeIfAbsent(decision.getPacket().getSrcIP(), k -> new Accumulator())
+                .add(1, blocked ? 1 : 0, accept ? 1 : 0, score);
+            protocols.computeIfAbsent(decision.getPacket().getProtocol(), k -> new Accumulator())
+                .add(1, blocked ? 1 : 0, accept ? 1 : 0, score);
         }
-        stats.totalScore += decision.getTotalScore();
+        
+        totalPackets.add(to - from);
+        acceptedPackets.add(accepted);
+        droppedPackets.add(dropped);
+        alertedPackets.add(alerted);
+        loggedPackets.add(logged);
+        decisionHistory.addAll(decisions, from, to);
+        ips.forEach((ip, local) -> accumulator(ipStats, ip).merge(local));
+        protocols.forEach((protocol, local) -> accumulator(protocolStats, protocol).merge(local));
     }
     
     /**
-     * Met à jour les statistiques par protocole.
+     * Ajoute une décision à l'historique récent sans la compter
+     * (décision déjà couverte par un instantané restauré).
      */
-    private void updateProtocolStatistics(DecisionResult decision) {
-        String protocol = decision.getPacket().getProtocol();
-        
-        protocolStats.putIfAbsent(protocol, new ProtocolStatistics(protocol));
-        ProtocolStatistics stats = protocolStats.get(protocol);
-        
-        stats.totalPackets++;
-        if (decision.isBlocked()) {
-            stats.blockedPackets++;
-        } else if (decision.isAccepted()) {
-            stats.acceptedPackets++;
+    public void rememberDecision(DecisionResult decision) {
+        decisionHistory.add(decision);
+    }
+    
+    // ========== POINT DE REPRISE ==========
+    
+    /**
+     * Capture l'état courant comme couvrant le bloc indiqué.
+     * L'appelant garantit qu'aucune décision n'est enregistrée pendant la capture.
+     */
+    public StatisticsSnapshot snapshot(int blockIndex, String blockHash) {
+        return new StatisticsSnapshot(
+            blockIndex,
+            blockHash,
+            totalPackets.sum(),
+            acceptedPackets.sum(),
+            droppedPackets.sum(),
+            alertedPackets.sum(),
+            loggedPackets.sum(),
+            entries(ipStats),
+            entries(protocolStats)
+        );
+    }
+    
+    /**
+     * Remplace l'état courant par celui de l'instantané (l'historique récent est vidé).
+     */
+    public void restore(StatisticsSnapshot snapshot) {
+        reset();
+        totalPackets.add(snapshot.totalPackets());
+        acceptedPackets.add(snapshot.acceptedPackets());
+        droppedPackets.add(snapshot.droppedPackets());
+        alertedPackets.add(snapshot.alertedPackets());
+        loggedPackets.add(snapshot.loggedPackets());
+        snapshot.ipEntries().forEach(entry -> ipStats.put(entry.key(), new Accumulator(entry)));
+        snapshot.protocolEntries().forEach(entry -> protocolStats.put(entry.key(), new Accumulator(entry)));
+    }
+    
+    private static List<StatisticsSnapshot.Entry> entries(ConcurrentHashMap<String, Accumulator> map) {
+        List<StatisticsSnapshot.Entry> entries = new ArrayList<>(map.size());
+        map.forEach((key, acc) -> entries.add(new StatisticsSnapshot.Entry(
+            key, acc.totalPackets, acc.acceptedPackets, acc.blockedPackets, acc.totalScore)));
+        return entries;
+    }
+    
+    /**
+     * Accumulateur de la clé ; lecture sans verrou dans le cas courant (clé déjà connue).
+     */
+    private static Accumulator accumulator(ConcurrentHashMap<String, Accumulator> map, String key) {
+        Accumulator accumulator = map.get(key);
+        if (accumulator == null) {
+            accumulator = map.computeIfAbsent(key, k -> new Accumulator());
         }
+        return accumulator;
     }
     
     /**
@@ -149,16 +225,16 @@ public class StatisticsManager {
         System.out.println("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         System.out.println("📊 STATISTIQUES GÉNÉRALES");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        System.out.println("Total paquets traités : " + totalPackets.get());
-        System.out.println("  ✓ Acceptés          : " + acceptedPackets.get());
-        System.out.println("  ✗ Bloqués           : " + droppedPackets.get());
-        System.out.println("  ⚠ Alertes           : " + alertedPackets.get());
-        System.out.println("  📝 Journalisés      : " + loggedPackets.get());
+        System.out.println("Total paquets traités : " + totalPackets.sum());
+        System.out.println("  ✓ Acceptés          : " + acceptedPackets.sum());
+        System.out.println("  ✗ Bloqués           : " + droppedPackets.sum());
+        System.out.println("  ⚠ Alertes           : " + alertedPackets.sum());
+        System.out.println("  📝 Journalisés      : " + loggedPackets.sum());
         
-        if (totalPackets.get() > 0) {
-            double blockRate = (droppedPackets.get() * 100.0) / totalPackets.get();
-            double alertRate = (alertedPackets.get() * 100.0) / totalPackets.get();
-            double acceptRate = (acceptedPackets.get() * 100.0) / totalPackets.get();
+        if (totalPackets.sum() > 0) {
+            double blockRate = (droppedPackets.sum() * 100.0) / totalPackets.sum();
+            double alertRate = (alertedPackets.sum() * 100.0) / totalPackets.sum();
+            double acceptRate = (acceptedPackets.sum() * 100.0) / totalPackets.sum();
             
             System.out.println("\n📈 TAUX");
             System.out.printf("  Acceptation : %.2f%%\n", acceptRate);
@@ -180,8 +256,8 @@ public class StatisticsManager {
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         
         // Trier par nombre de paquets bloqués (les plus suspects en premier)
-        ipStats.values().stream()
-            .sorted((a, b) -> Integer.compare(b.blockedPackets, a.blockedPackets))
+        getIPStatistics().values().stream()
+            .sorted((a, b) -> Long.compare(b.blockedPackets, a.blockedPackets))
             .limit(10) // Top 10
             .forEach(stats -> {
                 double blockRate = stats.totalPackets > 0 
@@ -212,7 +288,7 @@ public class StatisticsManager {
         System.out.println("📡 STATISTIQUES PAR PROTOCOLE");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         
-        protocolStats.values().forEach(stats -> {
+        getProtocolStatistics().values().forEach(stats -> {
             double blockRate = stats.totalPackets > 0 
                 ? (stats.blockedPackets * 100.0) / stats.totalPackets 
                 : 0;
@@ -230,7 +306,7 @@ public class StatisticsManager {
         long uptimeSec = uptimeMs / 1000;
         
         double packetsPerSecond = uptimeSec > 0 
-            ? (double) totalPackets.get() / uptimeSec 
+            ? (double) totalPackets.sum() / uptimeSec 
             : 0;
         
         System.out.println("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
@@ -243,43 +319,132 @@ public class StatisticsManager {
     }
     
     // Getters
-    public int getTotalPackets() { return totalPackets.get(); }
-    public int getAcceptedPackets() { return acceptedPackets.get(); }
-    public int getDroppedPackets() { return droppedPackets.get(); }
-    public int getAlertedPackets() { return alertedPackets.get(); }
-    public int getLoggedPackets() { return loggedPackets.get(); }
-    public List<DecisionResult> getDecisionHistory() { return new ArrayList<>(decisionHistory); }
-    public Map<String, IPStatistics> getIPStatistics() { return new HashMap<>(ipStats); }
+    public long getTotalPackets() { return totalPackets.sum(); }
+    public long getAcceptedPackets() { return acceptedPackets.sum(); }
+    public long getDroppedPackets() { return droppedPackets.sum(); }
+    public long getAlertedPackets() { return alertedPackets.sum(); }
+    public long getLoggedPackets() { return loggedPackets.sum(); }
+    public List<DecisionResult> getDecisionHistory() { return decisionHistory.snapshot(); }
     
     /**
-     * Classe interne pour statistiques par IP.
+     * Instantané des statistiques par IP source.
+     */
+    public Map<String, IPStatistics> getIPStatistics() {
+        Map<String, IPStatistics> snapshot = new HashMap<>();
+        ipStats.forEach((ip, acc) -> snapshot.put(ip,
+            new IPStatistics(ip, acc.totalPackets, acc.acceptedPackets, acc.blockedPackets, acc.totalScore)));
+        return snapshot;
+    }
+    
+    /**
+     * Instantané des statistiques par protocole.
+     */
+    public Map<String, ProtocolStatistics> getProtocolStatistics() {
+        Map<String, ProtocolStatistics> snapshot = new HashMap<>();
+        protocolStats.forEach((protocol, acc) -> snapshot.put(protocol,
+            new ProtocolStatistics(protocol, acc.totalPackets, acc.acceptedPackets, acc.blockedPackets)));
+        return snapshot;
+    }
+    
+    /**
+     * Accumulateur interne à champs atomiques (pas d'objet par compteur).
+     */
+    private static final class Accumulator {
+        private static final AtomicLongFieldUpdater<Accumulator> TOTAL =
+            AtomicLongFieldUpdater.newUpdater(Accumulator.class, "totalPackets");
+        private static final AtomicLongFieldUpdater<Accumulator> ACCEPTED =
+            AtomicLongFieldUpdater.newUpdater(Accumulator.class, "acceptedPackets");
+        private static final AtomicLongFieldUpdater<Accumulator> BLOCKED =
+            AtomicLongFieldUpdater.newUpdater(Accumulator.class, "blockedPackets");
+        private static final AtomicLongFieldUpdater<Accumulator> SCORE =
+            AtomicLongFieldUpdater.newUpdater(Accumulator.class, "totalScore");
+        
+        volatile long totalPackets;
+        volatile long acceptedPackets;
+        volatile long blockedPackets;
+        volatile long totalScore;
+        
+        Accumulator() {
+        }
+        
+        Accumulator(StatisticsSnapshot.Entry entry) {
+            this.totalPackets = entry.total();
+            this.acceptedPackets = entry.accepted();
+            this.blockedPackets = entry.blocked();
+            this.totalScore = entry.score();
+        }
+        
+        void record(boolean blocked, boolean accepted, int score) {
+            TOTAL.incrementAndGet(this);
+            if (blocked) {
+                BLOCKED.incrementAndGet(this);
+            } else if (accepted) {
+                ACCEPTED.incrementAndGet(this);
+            }
+            if (score != 0) {
+                SCORE.addAndGet(this, score);
+            }
+        }
+        
+        /**
+         * Cumul local, non partagé : écritures simples.
+         */
+        void add(long total, long blocked, long accepted, long score) {
+            totalPackets += total;
+            blockedPackets += blocked;
+            acceptedPackets += accepted;
+            totalScore += score;
+        }
+        
+        void merge(Accumulator local) {
+            TOTAL.addAndGet(this, local.totalPackets);
+            if (local.blockedPackets != 0) {
+                BLOCKED.addAndGet(this, local.blockedPackets);
+            }
+            if (local.acceptedPackets != 0) {
+                ACCEPTED.addAndGet(this, local.acceptedPackets);
+            }
+            if (local.totalScore != 0) {
+                SCORE.addAndGet(this, local.totalScore);
+            }
+        }
+    }
+    
+    /**
+     * Statistiques par IP (instantané immuable).
      */
     public static class IPStatistics {
         public final String ipAddress;
-        public int totalPackets;
-        public int acceptedPackets;
-        public int blockedPackets;
-        public int totalScore;
+        public final long totalPackets;
+        public final long acceptedPackets;
+        public final long blockedPackets;
+        public final long totalScore;
         
-        public IPStatistics(String ipAddress) {
+        public IPStatistics(String ipAddress, long totalPackets, long acceptedPackets,
+                            long blockedPackets, long totalScore) {
             this.ipAddress = ipAddress;
+            this.totalPackets = totalPackets;
+            this.acceptedPackets = acceptedPackets;
+            this.blockedPackets = blockedPackets;
+            this.totalScore = totalScore;
         }
     }
     
     /**
-     * Classe interne pour statistiques par protocole.
+     * Statistiques par protocole (instantané immuable).
      */
     public static class ProtocolStatistics {
         public final String protocol;
-        public int totalPackets;
-        public int acceptedPackets;
-        public int blockedPackets;
+        public final long totalPackets;
+        public final long acceptedPackets;
+        public final long blockedPackets;
         
-        public ProtocolStatistics(String protocol) {
+        public ProtocolStatistics(String protocol, long totalPackets, long acceptedPackets,
+                                  long blockedPackets) {
             this.protocol = protocol;
+            this.totalPackets = totalPackets;
+            this.acceptedPackets = acceptedPackets;
+            this.blockedPackets = blockedPackets;
         }
     }
-    public Map<String, ProtocolStatistics> getProtocolStatistics() {
-        return new HashMap<>(protocolStats);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.mycompany.parfeu.Model.Rawen.statistics;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Point de reprise des statistiques : état exact après le bloc {@code blockIndex}.
+ *
+ * Au démarrage, seuls les blocs postérieurs sont rejoués. {@code blockHash}
+ * (hex) identifie le bloc couvert : si l'historique a été réécrit depuis,
+ * l'instantané est ignoré et toutes les décisions sont recomptées.
+ *
+ * @author ZGARNI
+ */
+public record StatisticsSnapshot(
+    int blockIndex,
+    String blockHash,
+    long totalPackets,
+    long acceptedPackets,
+    long droppedPackets,
+    long alertedPackets,
+    long loggedPackets,
+    List<Entry> ipEntries,
+    List<Entry> protocolEntries
+) {
+
+    /**
+     * Agrégat d'une clé (IP source ou protocole).
+     */
+    public record Entry(String key, long total, long accepted, long blocked, long score) {
+        public Entry {
+            Objects.requireNonNull(key, "key ne peut pas être null");
+        }
+    }
+
+    public StatisticsSnapshot {
+        Objects.requireNonNull(blockHash, "blockHash ne peut pas être null");
+        ipEntries = List.copyOf(ipEntries);
+        protocolEntries = List.copyOf(protocolEntries);
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.parfeu.daemon;
+
+import com.mycompany.parfeu.Model.Mahran.config.FirewallConfig;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PcapPacketSource;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+import com.mycompany.parfeu.Model.Rawen.engine.FlowCache;
+import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.logging.LogLevel;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+import com.mycompany.parfeu.Model.Rawen.persistence.StorageManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejoue une capture (.pcap ou .pcapng) dans le moteur, hors ligne, aussi vite
+ * que le disque la rend : dimensionnement du matériel et essai de changements
+ * de règles sur du trafic réel.
+ * <pre>
+ *   java -cp target/classes com.mycompany.parfeu.daemon.CaptureReplay &lt;capture&gt; [options]
+ *
+ *   --batch &lt;n&gt;            paquets par lot confié au moteur (défaut : 4096)
+ *   --parallel             lots traités sur le pool ForkJoin commun
+ *   --flow-cache &lt;n&gt;[:&lt;s&gt;] cache des verdicts d'en-tête (voir FirewallDaemon)
+ *   --data &lt;répertoire&gt;    configuration lue dans ce répertoire (défaut : firewall_data,
+ *                          configuration par défaut s'il n'existe pas)
+ *   --log-level &lt;niveau&gt;   niveau du journal (défaut : error)
+ * </pre>
+ * Rien n'est écrit : ni historique ni statistiques persistées.
+ */
+public final class CaptureReplay {
+
+    private static final String USAGE =
+        "Usage: CaptureReplay <capture.pcap|pcapng> [--batch <n>] [--parallel] [--flow-cache <n>[:<s>]] "
+            + "[--data <répertoire>] [--log-level <niveau>]";
+    private static final int DEFAULT_BATCH = 4096;
+
+    private CaptureReplay() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    public static void main(String[] args) {
+        Path capture;
+        int batchSize = DEFAULT_BATCH;
+        boolean parallel = false;
+        int flowCacheSize = 0;
+        long flowIdleSeconds = 60;
+        Path dataDirectory = Path.of("firewall_data");
+        LogLevel logLevel = LogLevel.ERROR;
+        try {
+            if (args.length == 0 || args[0].startsWith("--")) {
+                throw new IllegalArgumentException("capture manquante");
+            }
+            capture = Path.of(args[0]);
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--batch" -> {
+                        batchSize = Integer.parseInt(requireValue(args, ++i));
+                        if (batchSize < 1) {
+                            throw new IllegalArgumentException("--batch doit être >= 1");
+                        }
+                    }
+                    case "--parallel" -> parallel = true;
+                    case "--flow-cache" -> {
+                        String[] cache = requireValue(args, ++i).split(":", 2);
+                        flowCacheSize = Integer.parseInt(cache[0]);
+                        flowIdleSeconds = cache.length == 2 ? Long.parseLong(cache[1]) : flowIdleSeconds;
+                        if (flowCacheSize < 1 || flowIdleSeconds < 1) {
+                            throw new IllegalArgumentException("--flow-cache : taille et durée doivent être >= 1");
+                        }
+                    }
+                    case "--data" -> dataDirectory = Path.of(requireValue(args, ++i));
+                    case "--log-level" -> logLevel = LogLevel.parse(requireValue(args, ++i));
+                    default -> throw new IllegalArgumentException("option inconnue: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        Logging.setLevel(logLevel);
+
+        FirewallConfig config;
+        try {
+            config = loadConfiguration(dataDirectory);
+        } catch (DatabaseException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        FirewallEngine engine;
+        long startNanos = System.nanoTime();
+        PcapPacketSource.Stats read;
+        try (PcapPacketSource source = PcapPacketSource.open(capture)) {
+            engine = new FirewallEngine(config);
+            if (flowCacheSize > 0) {
+                engine.enableFlowCache(flowCacheSize, Duration.ofSeconds(flowIdleSeconds));
+            }
+            engine.start();
+            try {
+                // Un seul lot réutilisé : les décisions rendues ne sont pas gardées
+                List<Packet> batch = new ArrayList<>(batchSize);
+                Packet packet;
+                while ((packet = source.next()) != null) {
+                    batch.add(packet);
+                    if (batch.size() == batchSize) {
+                        process(engine, batch, parallel);
+                    }
+                }
+                process(engine, batch, parallel);
+                read = source.stats();
+            } finally {
+                engine.stop();
+                Logging.shutdown();
+            }
+        } catch (IOException e) {
+            System.err.println("✗ " + capture + " : " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        double megabytes = read.bytes() / (1024.0 * 1024.0);
+        System.out.printf("✓ %d paquets rejoués depuis %s (%.1f Mo)%n", read.packets(), capture, megabytes);
+        System.out.println("  Durée : " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms");
+        System.out.printf("  Débit : %.0f paquets/s | %.1f Mo/s%n", read.packets() / seconds, megabytes / seconds);
+        System.out.printf("  acceptés %d | bloqués %d | alertes %d%n",
+            engine.getAcceptedPackets(), engine.getDroppedPackets(), engine.getAlertedPackets());
+        if (read.skipped() > 0 || read.malformed() > 0) {
+            System.out.printf("⚠️  %d enregistrements ignorés (non IP ou liaison non gérée), %d mal formés%n",
+                read.skipped(), read.malformed());
+        }
+        FlowCache.Stats flows = engine.getFlowCacheStats();
+        if (flows != null) {
+            System.out.printf("  cache de flux : %d/%d flux | succès %.1f %% | évictions %d | expirations %d%n",
+                flows.size(), flows.capacity(), flows.hitRate() * 100, flows.evictions(), flows.expirations());
+        }
+    }
+
+    private static void process(FirewallEngine engine, List<Packet> batch, boolean parallel) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (parallel) {
+            engine.processPacketsParallel(batch);
+        } else {
+            engine.processPackets(batch);
+        }
+        batch.clear();
+    }
+
+    private static FirewallConfig loadConfiguration(Path dataDirectory) throws DatabaseException {
+        if (!Files.isDirectory(dataDirectory)) {
+            return new FirewallConfig();
+        }
+        StorageManager storage = new StorageManager(dataDirectory);
+        try {
+            return storage.loadConfiguration();
+        } finally {
+            storage.close();
+        }
+    }
+
+    private static String requireValue(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("valeur manquante pour " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
@@ -0,0 +1,351 @@
+package com.mycompany.parfeu.daemon;
+
+import com.mycompany.parfeu.Model.Mahran.generator.LinePacketSource;
+import com.mycompany.parfeu.Model.Mahran.generator.Packet;
+import com.mycompany.parfeu.Model.Mahran.generator.PacketSource;
+import com.mycompany.parfeu.Model.Mahran.generator.PcapPacketSource;
+import com.mycompany.parfeu.Model.Rawen.decision.DecisionResult;
+import com.mycompany.parfeu.Model.Rawen.engine.FirewallEngine;
+import com.mycompany.parfeu.Model.Rawen.engine.FlowCache;
+import com.mycompany.parfeu.Model.Rawen.engine.StagedFirewallEngine;
+import com.mycompany.parfeu.Model.Rawen.ingest.NetworkPacketSource;
+import com.mycompany.parfeu.Model.Rawen.logging.AsyncLogSink;
+import com.mycompany.parfeu.Model.Rawen.logging.JsonLinesLogSink;
+import com.mycompany.parfeu.Model.Rawen.logging.LogLevel;
+import com.mycompany.parfeu.Model.Rawen.logging.Logging;
+import com.mycompany.parfeu.Model.Rawen.persistence.DurabilityPolicy;
+import com.mycompany.parfeu.Model.Rawen.persistence.SharedDataManager;
+import com.mycompany.parfeu.Model.Rawen.statistics.StatisticsManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point d'entrée sans interface graphique (serveurs sans affichage).
+ *
+ * Démarre le moteur, la persistance et les statistiques sans charger JavaFX,
+ * traite les paquets d'une {@link PacketSource} jusqu'à la fin du flux ou
+ * jusqu'à l'arrêt de la JVM (SIGTERM / Ctrl+C), puis vide l'historique sur disque.
+ *
+ * Lancement (classpath : module-info et JavaFX ne sont pas nécessaires) :
+ * <pre>
+ *   java -cp target/classes com.mycompany.parfeu.daemon.FirewallDaemon [options]
+ *   mvn -Pdaemon compile exec:java -Dexec.args="[options]"
+ *
+ *   --input &lt;fichier&gt;     paquets au format srcIP,destIP,srcPort,destPort,protocole[,payload],
+ *                          ou capture .pcap / .pcapng reconnue à son en-tête (défaut : entrée standard)
+ *   --listen tcp|udp:&lt;port&gt; paquets reçus en trames binaires sur l'adresse de bouclage
+ *                          (voir PacketFrameCodec), au lieu de --input
+ *   --sync &lt;politique&gt;    per-block | blocks:&lt;n&gt; | interval:&lt;ms&gt;  (défaut : per-block)
+ *   --stats &lt;secondes&gt;    période du résumé des statistiques, 0 = désactivé (défaut : 60)
+ *   --batch &lt;n&gt;[:&lt;ms&gt;]   n décisions par bloc, lot scellé au plus tard après ms (défaut : 1)
+ *   --resident &lt;n&gt;       blocs gardés entiers en mémoire, les autres relus sur disque (défaut : 65536)
+ *   --flow-cache &lt;n&gt;[:&lt;s&gt;] cache des verdicts d'en-tête pour n flux, oubliés après s secondes
+ *                          d'inactivité (défaut : désactivé ; 60 s)
+ *   --pipeline &lt;f&gt;,&lt;a&gt;,&lt;d&gt;,&lt;e&gt;  moteur en pipeline : threads de filtrage, analyse, décision
+ *                          et enregistrement (défaut : tout sur le thread de lecture)
+ *   --log-level &lt;niveau&gt;  trace | debug | info | warn | error | off (défaut : info ;
+ *                          chaque décision non acceptée est journalisée en info ou warn)
+ *   --log-json &lt;fichier&gt;  journal JSON, une ligne par événement, au lieu de la console
+ * </pre>
+ * Les données sont lues et écrites dans firewall_data/ du répertoire courant.
+ */
+public final class FirewallDaemon {
+
+    // Capacité des files entre étapes du pipeline
+    private static final int PIPELINE_QUEUE_CAPACITY = 1024;
+    // Paquets reçus du réseau en attente de traitement
+    private static final int NETWORK_QUEUE_CAPACITY = 4096;
+    // Événements de journal en attente d'écriture (au-delà : perdus, pas bloquants)
+    private static final int LOG_QUEUE_CAPACITY = 16_384;
+
+    private final PacketSource source;
+    private final SharedDataManager shared;
+    private final FirewallEngine engine;
+    private StagedFirewallEngine pipeline;
+
+    private volatile boolean running = true;
+    private volatile boolean processing = false;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private long processed = 0;
+
+    public FirewallDaemon(PacketSource source, SharedDataManager shared) {
+        this.source = Objects.requireNonNull(source, "source ne peut pas être null");
+        this.shared = Objects.requireNonNull(shared, "shared ne peut pas être null");
+        this.engine = new FirewallEngine(shared.getConfiguration());
+    }
+
+    /**
+     * Traite les paquets avec le moteur en pipeline (avant {@link #run()}) :
+     * la lecture de la source ne fait plus que soumettre, et ralentit si les files sont pleines.
+     */
+    public void enablePipeline(int filterWorkers, int analyzeWorkers, int decideWorkers, int recordWorkers) {
+        pipeline = new StagedFirewallEngine(engine, PIPELINE_QUEUE_CAPACITY, shared::addDecision)
+            .setWorkers(StagedFirewallEngine.Stage.FILTER, filterWorkers)
+            .setWorkers(StagedFirewallEngine.Stage.ANALYZE, analyzeWorkers)
+            .setWorkers(StagedFirewallEngine.Stage.DECIDE, decideWorkers)
+            .setWorkers(StagedFirewallEngine.Stage.RECORD, recordWorkers);
+    }
+
+    /**
+     * Boucle de traitement ; rend la main en fin de flux ou après {@link #stop()}.
+     */
+    public void run() {
+        engine.start();
+        if (pipeline != null) {
+            pipeline.start();
+        }
+        try {
+            Packet packet;
+            while (running && (packet = source.next()) != null) {
+                processing = true;
+                if (pipeline != null) {
+                    pipeline.submit(packet);
+                } else {
+                    DecisionResult result = engine.processPacket(packet);
+                    shared.addDecision(result);
+                }
+                processed++;
+                processing = false;
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("✗ Erreur source de paquets: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            processing = false;
+            closeSource();
+            closePipeline();
+            engine.stop();
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Demande l'arrêt, laisse finir le paquet en cours puis persiste tout.
+     * Une lecture bloquée (entrée standard) n'est pas attendue : aucun paquet
+     * n'est alors en cours et les décisions déjà enregistrées sont vidées sur disque.
+     */
+    public void stop() {
+        running = false;
+        try {
+            if (processing) {
+                stopped.await(5, TimeUnit.SECONDS);
+            } else if (pipeline != null) {
+                // Lecture bloquée : laisser les paquets déjà soumis atteindre l'historique
+                pipeline.awaitCompletion(Duration.ofSeconds(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        shared.shutdown();
+        Logging.shutdown();
+    }
+
+    private void closePipeline() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    private void closeSource() {
+        try {
+            source.close();
+        } catch (IOException e) {
+            System.err.println("⚠️  Fermeture source: " + e.getMessage());
+        }
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    private void printStatistics() {
+        StatisticsManager stats = shared.getStatistics();
+        System.out.printf("📊 %d paquets | acceptés %d | bloqués %d | alertes %d%n",
+            stats.getTotalPackets(), stats.getAcceptedPackets(),
+            stats.getDroppedPackets(), stats.getAlertedPackets());
+        if (pipeline != null) {
+            for (StagedFirewallEngine.StageStats stage : pipeline.getStageStatistics()) {
+                System.out.printf("   %-15s x%d | file %d/%d | %d traités | attente %.1f µs | traitement %.1f µs%n",
+                    stage.stage().label(), stage.workers(), stage.queueDepth(), stage.queueCapacity(),
+                    stage.processed(), stage.averageWaitNanos() / 1000, stage.averageServiceNanos() / 1000);
+            }
+        }
+        FlowCache.Stats flows = engine.getFlowCacheStats();
+        if (flows != null) {
+            System.out.printf("   cache de flux : %d/%d flux | succès %.1f %% | évictions %d | expirations %d%n",
+                flows.size(), flows.capacity(), flows.hitRate() * 100, flows.evictions(), flows.expirations());
+        }
+    }
+
+    // ========== LIGNE DE COMMANDE ==========
+
+    public static void main(String[] args) throws IOException {
+        Path input = null;
+        String listen = null;
+        DurabilityPolicy policy = DurabilityPolicy.perBlock();
+        long statsSeconds = 60;
+        int batchSize = 1;
+        long batchDelayMillis = 0;
+        int residentBlocks = 0;
+        int flowCacheSize = 0;
+        long flowIdleSeconds = 60;
+        int[] pipelineWorkers = null;
+        LogLevel logLevel = null;
+        Path logJson = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input" -> input = Path.of(requireValue(args, ++i));
+                    case "--listen" -> {
+                        listen = requireValue(args, ++i);
+                        if (!listen.matches("(tcp|udp):\\d+")) {
+                            throw new IllegalArgumentException("écoute invalide (tcp:<port> ou udp:<port>): " + listen);
+                        }
+                    }
+                    case "--sync" -> policy = parsePolicy(requireValue(args, ++i));
+                    case "--stats" -> statsSeconds = Long.parseLong(requireValue(args, ++i));
+                    case "--batch" -> {
+                        String[] batch = requireValue(args, ++i).split(":", 2);
+                        batchSize = Integer.parseInt(batch[0]);
+                        batchDelayMillis = batch.length == 2 ? Long.parseLong(batch[1]) : 0;
+                        if (batchSize < 1 || batchDelayMillis < 0) {
+                            throw new IllegalArgumentException("lot invalide: " + args[i]);
+                        }
+                    }
+                    case "--resident" -> {
+                        residentBlocks = Integer.parseInt(requireValue(args, ++i));
+                        if (residentBlocks < 1) {
+                            throw new IllegalArgumentException("nombre de blocs résidents invalide: " + args[i]);
+                        }
+                    }
+                    case "--flow-cache" -> {
+                        String[] cache = requireValue(args, ++i).split(":", 2);
+                        flowCacheSize = Integer.parseInt(cache[0]);
+                        flowIdleSeconds = cache.length == 2 ? Long.parseLong(cache[1]) : flowIdleSeconds;
+                        if (flowCacheSize < 1 || flowIdleSeconds < 1) {
+                            throw new IllegalArgumentException("cache de flux invalide: " + args[i]);
+                        }
+                    }
+                    case "--pipeline" -> {
+                        String[] workers = requireValue(args, ++i).split(",");
+                        if (workers.length != 4) {
+                            throw new IllegalArgumentException("pipeline invalide (4 nombres de threads attendus): " + args[i]);
+                        }
+                        pipelineWorkers = new int[4];
+                        for (int w = 0; w < 4; w++) {
+                            pipelineWorkers[w] = Integer.parseInt(workers[w].trim());
+                            if (pipelineWorkers[w] < 1) {
+                                throw new IllegalArgumentException("pipeline invalide: " + args[i]);
+                            }
+                        }
+                    }
+                    case "--log-level" -> logLevel = LogLevel.parse(requireValue(args, ++i));
+                    case "--log-json" -> logJson = Path.of(requireValue(args, ++i));
+                    default -> throw new IllegalArgumentException("option inconnue: " + args[i]);
+                }
+            }
+            if (input != null && listen != null) {
+                throw new IllegalArgumentException("--input et --listen sont exclusifs");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println("Usage: FirewallDaemon [--input <fichier> | --listen tcp|udp:<port>] [--sync per-block|blocks:<n>|interval:<ms>] [--stats <secondes>] [--batch <n>[:<ms>]] [--resident <n>] [--flow-cache <n>[:<s>]] [--pipeline <f>,<a>,<d>,<e>] [--log-level <niveau>] [--log-json <fichier>]");
+            System.exit(2);
+            return;
+        }
+
+        if (logLevel != null) {
+            Logging.setLevel(logLevel);
+        }
+        if (logJson != null) {
+            Logging.setSink(new AsyncLogSink(JsonLinesLogSink.toFile(logJson), LOG_QUEUE_CAPACITY));
+        }
+
+        long startNanos = System.nanoTime();
+        PacketSource source;
+        String sourceName;
+        if (listen != null) {
+            int port = Integer.parseInt(listen.substring(4));
+            source = listen.startsWith("tcp")
+                ? NetworkPacketSource.tcp(port, NETWORK_QUEUE_CAPACITY)
+                : NetworkPacketSource.udp(port, NETWORK_QUEUE_CAPACITY);
+            sourceName = listen;
+        } else if (input != null) {
+            source = PcapPacketSource.isCapture(input)
+                ? PcapPacketSource.open(input)
+                : LinePacketSource.fromFile(input);
+            sourceName = input.toString();
+        } else {
+            source = LinePacketSource.fromStream(System.in);
+            sourceName = "entrée standard";
+        }
+        SharedDataManager shared = SharedDataManager.getInstance();
+        shared.setDurabilityPolicy(policy);
+        shared.setBlockBatching(batchSize, batchDelayMillis);
+        if (residentBlocks > 0) {
+            shared.setResidentBlocks(residentBlocks);
+        }
+        FirewallDaemon daemon = new FirewallDaemon(source, shared);
+        if (flowCacheSize > 0) {
+            daemon.engine.enableFlowCache(flowCacheSize, Duration.ofSeconds(flowIdleSeconds));
+        }
+        if (pipelineWorkers != null) {
+            daemon.enablePipeline(pipelineWorkers[0], pipelineWorkers[1], pipelineWorkers[2], pipelineWorkers[3]);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "parfeu-daemon-stop"));
+
+        ScheduledExecutorService reporter = null;
+        if (statsSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "parfeu-daemon-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(daemon::printStatistics, statsSeconds, statsSeconds, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("✓ Démon prêt en %d ms (source: %s, durabilité: %s, lot: %d)%n",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            sourceName, policy.mode(), batchSize);
+
+        daemon.run();
+
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        daemon.stop();
+        daemon.printStatistics();
+        System.out.println("✓ " + daemon.getProcessed() + " paquets traités, arrêt du démon");
+    }
+
+    private static String requireValue(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("valeur manquante pour " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static DurabilityPolicy parsePolicy(String value) {
+        if (value.equals("per-block")) {
+            return DurabilityPolicy.perBlock();
+        }
+        if (value.startsWith("blocks:")) {
+            return DurabilityPolicy.everyBlocks(Integer.parseInt(value.substring("blocks:".length())));
+        }
+        if (value.startsWith("interval:")) {
+            return DurabilityPolicy.everyInterval(Long.parseLong(value.substring("interval:".length())));
+        }
+        throw new IllegalArgumentException("politique de durabilité inconnue: " + value);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mycompany.parfeu.daemon;
+
+import com.mycompany.parfeu.Model.Rawen.exception.DatabaseException;
+import com.mycompany.parfeu.Model.Rawen.persistence.StorageManager;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export / import CSV de l'historique des blocs, hors ligne (pare-feu arrêté).
+ *
+ * L'historique est stocké en segments binaires (firewall_data/blocks/) ;
+ * le CSV reste le format d'échange lisible, identique à l'ancien historique_blocs.csv.
+ * <pre>
+ *   java -cp target/classes com.mycompany.parfeu.daemon.HistoryCsvTool export &lt;fichier.csv&gt; [--data &lt;répertoire&gt;]
+ *   java -cp target/classes com.mycompany.parfeu.daemon.HistoryCsvTool import &lt;fichier.csv&gt; [--data &lt;répertoire&gt;]
+ * </pre>
+ * L'import remplace l'historique ; l'historique existant est d'abord copié
+ * (blocks.import.bak). Les hash du CSV sont repris tels quels.
+ */
+public final class HistoryCsvTool {
+
+    private static final String USAGE =
+        "Usage: HistoryCsvTool export|import <fichier.csv> [--data <répertoire>]";
+
+    private HistoryCsvTool() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2 && !(args.length == 4 && args[2].equals("--data"))) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        String command = args[0];
+        Path csvPath = Path.of(args[1]);
+        Path dataDirectory = Path.of(args.length == 4 ? args[3] : "firewall_data");
+
+        long startNanos = System.nanoTime();
+        StorageManager storage = null;
+        try {
+            storage = new StorageManager(dataDirectory);
+            switch (command) {
+                case "export" -> {
+                    long exported = storage.exportHistoryCsv(csvPath);
+                    System.out.println("✓ " + exported + " blocs exportés vers " + csvPath);
+                }
+                case "import" -> {
+                    Path backup = storage.backupHistory("import");
+                    long imported = storage.importHistoryCsv(csvPath);
+                    System.out.println("✓ " + imported + " blocs importés depuis " + csvPath +
+                        (backup != null ? " (sauvegarde : " + backup + ")" : ""));
+                }
+                default -> {
+                    System.err.println("✗ commande inconnue: " + command);
+                    System.err.println(USAGE);
+                    System.exit(2);
+                    return;
+                }
+            }
+            System.out.println("  Durée : " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+        } catch (DatabaseException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (storage != null) {
+                try {
+                    storage.close();
+                } catch (DatabaseException e) {
+                    System.err.println("⚠️  Fermeture du stockage: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -14,11 +14,18 @@ module com.mycompany.parfeu {
     exports com.mycompany.parfeu;
     exports com.mycompany.parfeu.Controller.Mahran;
     exports com.mycompany.parfeu.Controller.Rawen;
+    exports com.mycompany.parfeu.daemon;
     
     exports com.mycompany.parfeu.Model.Mahran.config;
     exports com.mycompany.parfeu.Model.Mahran.generator;
+    exports com.mycompany.parfeu.Model.Mahran.initialPacketFiltering;
     exports com.mycompany.parfeu.Model.Rawen.analyzer;
     exports com.mycompany.parfeu.Model.Rawen.decision;
     exports com.mycompany.parfeu.Model.Rawen.engine;
+    exports com.mycompany.parfeu.Model.Rawen.exception;
+    exports com.mycompany.parfeu.Model.Rawen.ingest;
+    exports com.mycompany.parfeu.Model.Rawen.logging;
     exports com.mycompany.parfeu.Model.Rawen.blockchain;
+    exports com.mycompany.parfeu.Model.Rawen.persistence;
+    exports com.mycompany.parfeu.Model.Rawen.statistics;
 }
\ No newline at end of file